@@ -0,0 +1,35 @@
+#!/usr/bin/env bash
+# Batch creation benchmark: one upload of 1000 small PDFs
+#
+#   bench/batch-create-benchmark.sh [base-url] [documents]
+#
+# Run it against the application started three ways and compare the
+# "Batch job created with N documents (Xms to insert)" log lines:
+#
+#   --spring.jpa.properties.hibernate.jdbc.batch_size=0 --batch.create.copy-threshold=0   row by row
+#   --batch.create.copy-threshold=0                                                      JDBC batching
+#   (defaults)                                                                           COPY
+#
+# The request time printed here also includes the multipart upload and the
+# file copies. Created batches are named bench-* and are not removed.
+
+set -euo pipefail
+
+BASE_URL=${1:-http://localhost:8080}
+DOCUMENTS=${2:-1000}
+DIR=$(mktemp -d)
+trap 'rm -rf "$DIR"' EXIT
+
+# Smallest valid one-page PDF
+for i in $(seq 1 "$DOCUMENTS"); do
+  printf '%%PDF-1.4\n1 0 obj<</Type/Catalog/Pages 2 0 R>>endobj\n2 0 obj<</Type/Pages/Kids[3 0 R]/Count 1>>endobj\n3 0 obj<</Type/Page/Parent 2 0 R/MediaBox[0 0 612 792]>>endobj\ntrailer<</Root 1 0 R>>\n%%%%EOF\n' \
+    > "$DIR/bench-$i.pdf"
+done
+
+ARGS=(-F "jobName=bench-$(date +%s)")
+for f in "$DIR"/*.pdf; do
+  ARGS+=(-F "files=@$f;type=application/pdf")
+done
+
+curl -s -o /dev/null -w "HTTP %{http_code}, $DOCUMENTS documents in %{time_total}s\n" \
+  "${ARGS[@]}" "$BASE_URL/api/batch/upload"
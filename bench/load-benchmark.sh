@@ -0,0 +1,130 @@
+#!/usr/bin/env bash
+# Load test: platform-thread build vs virtual-threads build (JDK 21)
+#
+#   bench/load-benchmark.sh [clients] [seconds]
+#
+# Runs the default build and then, when JAVA21_HOME points at a JDK 21, the
+# -Pvirtual-threads build (a clean rebuild - target/ is left built for 21).
+# Each is started from target/classes on port 18080 against the
+# configured database (SPRING_DATASOURCE_* to override) and a stub Ollama
+# (StubOllamaServer, 40 tokens at 25 ms each), with the model queue opened up so
+# the stub, not the scheduler, is the limit. Four copies of a one-page PDF are
+# uploaded, then LoadBenchmark runs <clients> streamed analyses and as many
+# status streams for <seconds> (default 32 / 60).
+#
+# Reported per build: completed analyses/s and latency, peak RSS and live
+# threads during the load, live heap after it (used after a full GC), and for
+# the virtual build the number of pinned-thread traces (-Djdk.tracePinnedThreads).
+# Both builds run on JDK 21 when it is set (same JIT and GC), else the platform
+# build runs on the default java. JAVA_OPTS (default -Xmx1g) applies to both.
+# The uploaded documents are named load-test.pdf and are not removed.
+
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+CLIENTS=${1:-32}
+DURATION=${2:-60}
+PORT=18080
+STUB_PORT=11435
+JAVA_OPTS=${JAVA_OPTS:--Xmx1g}
+JAVA=java
+JCMD=jcmd
+JSTAT=jstat
+if [ -n "${JAVA21_HOME:-}" ]; then
+  JAVA=$JAVA21_HOME/bin/java
+  JCMD=$JAVA21_HOME/bin/jcmd
+  JSTAT=$JAVA21_HOME/bin/jstat
+fi
+DIR=$(mktemp -d)
+PIDS=()
+trap 'kill "${PIDS[@]}" 2>/dev/null || true; rm -rf "$DIR"' EXIT
+
+# ==================== BUILD ====================
+
+build() {
+  mvn -B -q "$@" test-compile
+  if [ ! -f target/bench-classpath.txt ] || [ pom.xml -nt target/bench-classpath.txt ]; then
+    mvn -B -q dependency:build-classpath -Dmdep.includeScope=test -Dmdep.outputFile=target/bench-classpath.txt
+  fi
+  BENCH_CP="target/test-classes:target/classes:$(cat target/bench-classpath.txt)"
+}
+
+build
+
+java -cp "$BENCH_CP" com.documentreaderai.bench.StubOllamaServer --port "$STUB_PORT" > "$DIR/stub.log" 2>&1 &
+PIDS+=($!)
+
+# One page of text, enough for extraction to mark the document READY
+CONTENT='BT /F1 12 Tf 72 720 Td (Contributor agrees to a capital commitment of INR 1,00,00,000 to the Fund.) Tj ET'
+printf '%%PDF-1.4\n1 0 obj<</Type/Catalog/Pages 2 0 R>>endobj\n2 0 obj<</Type/Pages/Kids[3 0 R]/Count 1>>endobj\n3 0 obj<</Type/Page/Parent 2 0 R/MediaBox[0 0 612 792]/Resources<</Font<</F1 4 0 R>>>>/Contents 5 0 R>>endobj\n4 0 obj<</Type/Font/Subtype/Type1/BaseFont/Helvetica>>endobj\n5 0 obj<</Length %d>>stream\n%s\nendstream endobj\ntrailer<</Root 1 0 R>>\n%%%%EOF\n' \
+  "${#CONTENT}" "$CONTENT" > "$DIR/load-test.pdf"
+
+# ==================== RUN ====================
+
+run() {
+  local name=$1
+  shift
+  echo
+  echo "=== $name ==="
+  # shellcheck disable=SC2086
+  "$JAVA" $JAVA_OPTS -Dspring.devtools.restart.enabled=false "$@" -cp "$BENCH_CP" \
+    com.documentreaderai.DocumentreaderaiApplication --server.port=$PORT \
+    --ollama.base-url=http://localhost:$STUB_PORT \
+    --ollama.scheduler.max-concurrent="$CLIENTS" --ollama.scheduler.max-queue=$((CLIENTS * 2)) \
+    > "$DIR/$name.log" 2>&1 &
+  local app=$!
+  PIDS+=($app)
+  until grep -q "Started DocumentreaderaiApplication" "$DIR/$name.log"; do
+    kill -0 $app 2>/dev/null || { tail -20 "$DIR/$name.log"; exit 1; }
+    sleep 1
+  done
+
+  local ids=()
+  for _ in 1 2 3 4; do
+    ids+=("$(curl -sf -F "file=@$DIR/load-test.pdf;type=application/pdf" \
+      "http://localhost:$PORT/api/documents/upload" | jq -r .id)")
+  done
+  for id in "${ids[@]}"; do
+    until [ "$(curl -sf "http://localhost:$PORT/api/documents/$id/status" | jq -r .status)" = "READY" ]; do
+      [ "$(curl -sf "http://localhost:$PORT/api/documents/$id/status" | jq -r .status)" != "FAILED" ] \
+        || { echo "Extraction of $id failed"; exit 1; }
+      sleep 1
+    done
+  done
+
+  # Peak RSS and thread count while the load runs
+  (peak=0; threads=0
+   while kill -0 $app 2>/dev/null; do
+     rss=$(awk '/VmRSS/ {print $2}' /proc/$app/status)
+     live=$(awk '/Threads/ {print $2}' /proc/$app/status)
+     [ "$rss" -gt "$peak" ] && peak=$rss
+     [ "$live" -gt "$threads" ] && threads=$live
+     echo "$peak $threads" > "$DIR/$name.peak"
+     sleep 0.5
+   done) &
+  local sampler=$!
+
+  java -cp "$BENCH_CP" com.documentreaderai.bench.LoadBenchmark --url "http://localhost:$PORT" \
+    --clients "$CLIENTS" --watchers "$CLIENTS" --seconds "$DURATION" "${ids[@]}"
+
+  read -r peak threads < "$DIR/$name.peak"
+  # Live heap: used after a full GC (S0U + S1U + EU + OU)
+  "$JCMD" $app GC.run > /dev/null
+  heap=$("$JSTAT" -gc $app | awk 'NR == 2 {printf "%.0f", ($3 + $4 + $6 + $8) / 1024}')
+  echo "peak RSS $((peak / 1024)) MB, peak threads $threads, live heap $heap MB"
+  if [ "$name" = virtual ]; then
+    echo "pinned-thread traces: $(grep -c '<== monitors' "$DIR/$name.log" || true)"
+  fi
+
+  kill $app $sampler 2>/dev/null || true
+  wait $app 2>/dev/null || true
+}
+
+run platform
+if [ -n "${JAVA21_HOME:-}" ]; then
+  JAVA_HOME=$JAVA21_HOME build -Pvirtual-threads clean
+  run virtual -Dspring.profiles.active=virtual-threads -Djdk.tracePinnedThreads=short
+else
+  echo
+  echo "JAVA21_HOME not set - the virtual-threads build was not run"
+fi
@@ -0,0 +1,20 @@
+#!/usr/bin/env bash
+# Run one of the Java benchmarks in src/test/java/com/documentreaderai/bench
+#
+#   bench/run-benchmark.sh PdfExtractionBenchmark [args...]
+#
+# Compiles main and test sources, then runs the benchmark's main() on the test
+# classpath. Each benchmark documents its own arguments.
+
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+mvn -B -q test-compile
+if [ ! -f target/bench-classpath.txt ] || [ pom.xml -nt target/bench-classpath.txt ]; then
+  mvn -B -q dependency:build-classpath -Dmdep.includeScope=test -Dmdep.outputFile=target/bench-classpath.txt
+fi
+
+BENCHMARK=$1
+shift
+exec java ${JAVA_OPTS:-} -cp "target/test-classes:target/classes:$(cat target/bench-classpath.txt)" \
+  "com.documentreaderai.bench.$BENCHMARK" "$@"
@@ -0,0 +1,92 @@
+-- Full-text search benchmark: 100k synthetic documents x 5 pages
+--
+--   psql -d document_reader_ai -f bench/search-benchmark.sql
+--
+-- Start the application once first (it creates the tables, the search_vector
+-- column and its GIN index). Everything generated here is named bench-* and
+-- removed by the cleanup at the end. Target: the selective queries (PAN, fund
+-- phrase, fund name) under 100 ms; the last one shows the cost of ranking a
+-- term that is on every page.
+
+\set documents 100000
+\set pages 5
+\timing on
+
+-- ==================== DATASET ====================
+
+INSERT INTO documents (id, filename, file_path, file_size, status, total_pages, created_at, updated_at)
+SELECT gen_random_uuid(), 'bench-' || n || '.pdf', '/dev/null', 250000, 'READY', :pages, now(), now()
+FROM generate_series(1, :documents) AS n;
+
+-- ~300 words of agreement boilerplate per page; page 1 carries an investor PAN
+-- (AAAAA9999A) and one of 50 fund names, page 3 a commitment amount
+INSERT INTO document_pages (id, document_id, page_number, text, char_count, extraction_method, ocr)
+SELECT gen_random_uuid(), d.id, p.n, t.text, length(t.text), 'NATIVE', false
+FROM documents d
+CROSS JOIN generate_series(1, :pages) AS p(n)
+CROSS JOIN LATERAL (
+    SELECT string_agg(v.words[1 + floor(random() * array_length(v.words, 1))::int], ' ')
+           || CASE p.n
+                WHEN 1 THEN ' Investor PAN ' || upper(translate(substr(md5(d.id::text), 1, 5), '0123456789', 'ghijklmnop'))
+                            || lpad((abs(hashtext(d.id::text)) % 10000)::text, 4, '0') || 'F'
+                            || ' Fund ' || (ARRAY['Fireside', 'Blume', 'Stellaris', 'Chiratae', 'Kalaari'])[1 + abs(hashtext(d.filename)) % 5]
+                            || ' Ventures Investment Fund ' || (1 + abs(hashtext(d.id::text)) % 10)
+                WHEN 3 THEN ' Capital commitment INR ' || (1 + abs(hashtext(d.filename)) % 500) || '00000'
+                ELSE ''
+              END AS text
+    FROM generate_series(1, 300) AS w(i),
+         (SELECT ARRAY['the', 'contributor', 'shall', 'pay', 'fund', 'trustee', 'investment', 'manager',
+                       'agreement', 'hereby', 'units', 'class', 'drawdown', 'notice', 'period', 'fees',
+                       'management', 'carried', 'interest', 'lock-in', 'distribution', 'waterfall',
+                       'indemnify', 'schedule', 'party', 'whereas', 'witnesseth', 'executed', 'dated',
+                       'registration', 'SEBI', 'AIF', 'category', 'II', 'sponsor', 'commitment',
+                       'capital', 'return', 'hurdle', 'rate', 'tax', 'withholding', 'investor',
+                       'jurisdiction', 'Mumbai', 'Bengaluru', 'arbitration', 'clause', 'term', 'extension'] AS words) v
+    WHERE d.id IS NOT NULL  -- Correlated: a new page for every row
+) t
+WHERE d.filename LIKE 'bench-%';
+
+-- Vacuumed like autovacuum would: otherwise the first queries set hint bits on
+-- (and write) the freshly loaded pages they read
+VACUUM ANALYZE documents;
+VACUUM ANALYZE document_pages;
+
+SELECT count(*) AS bench_pages, pg_size_pretty(pg_relation_size('idx_document_pages_search')) AS gin_size
+FROM document_pages p JOIN documents d ON d.id = p.document_id
+WHERE d.filename LIKE 'bench-%';
+
+-- A PAN that exists, for the selective query
+SELECT substring(text FROM 'Investor PAN ([A-Z]{5}[0-9]{4}F)') AS pan
+FROM document_pages p JOIN documents d ON d.id = p.document_id
+WHERE d.filename = 'bench-4242.pdf' AND p.page_number = 1 \gset
+
+-- ==================== QUERIES (same SQL as DocumentRepository.searchPages) ====================
+
+PREPARE search(text, int) AS
+SELECT h.document_id, d.filename, h.page_number, h.rank,
+       ts_headline('simple', p.text, websearch_to_tsquery('simple', $1),
+                   'StartSel=**, StopSel=**, MaxFragments=2, MaxWords=18, MinWords=6, FragmentDelimiter=" ... "') AS snippet
+FROM (SELECT p.id, p.document_id, p.page_number, ts_rank_cd(p.search_vector, q) AS rank
+      FROM document_pages p, websearch_to_tsquery('simple', $1) q
+      WHERE p.search_vector @@ q
+      ORDER BY rank DESC, p.document_id, p.page_number
+      LIMIT $2) h
+JOIN document_pages p ON p.id = h.id
+JOIN documents d ON d.id = h.document_id
+ORDER BY h.rank DESC, h.document_id, h.page_number;
+
+-- One document: a PAN
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE search(:'pan', 200);
+-- ~2k documents: a fund as a phrase
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE search('"Stellaris Ventures Investment Fund 7"', 200);
+-- ~20k documents: fund name, any number
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE search('Chiratae', 200);
+-- Every page: worst case, ranks all 500k matches before the limit
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE search('investor', 200);
+
+DEALLOCATE search;
+
+-- ==================== CLEANUP ====================
+
+DELETE FROM document_pages p USING documents d WHERE d.id = p.document_id AND d.filename LIKE 'bench-%';
+DELETE FROM documents WHERE filename LIKE 'bench-%';
@@ -1,11 +1,93 @@
 package com.documentreaderai.config;
 
 
+import com.documentreaderai.config.TaskExecutors.Timer;
+import com.documentreaderai.config.TaskExecutors.Workload;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Async processing and every worker pool, in one place
+ *
+ * Pools are sized from the settings of the component they serve (batch.*,
+ * pdf.extraction.*, ocr.*); 0 threads means one per core. @Async methods run
+ * on the interactive analysis pool - or, with spring.threads.virtual.enabled,
+ * on a virtual thread each, like Spring Boot's own executor in that mode.
+ */
 @Configuration
 @EnableAsync
-public class AsyncConfig {
-    // This enables async processing in Spring Boot
-}
\ No newline at end of file
+public class AsyncConfig implements AsyncConfigurer {
+
+    private final ObjectProvider<TaskExecutors> taskExecutors;
+    private final boolean virtualThreads;
+
+    public AsyncConfig(
+            ObjectProvider<TaskExecutors> taskExecutors,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.taskExecutors = taskExecutors;
+        this.virtualThreads = virtualThreads;
+    }
+
+    @Bean
+    public TaskExecutors taskExecutors(
+            @Value("${executors.analysis.threads:8}") int analysisThreads,
+            @Value("${executors.analysis.queue-capacity:500}") int analysisQueue,
+            @Value("${batch.pipeline.analyze-workers:${ollama.scheduler.max-concurrent:2}}") int batchThreads,
+            @Value("${batch.pipeline.queue-capacity:8}") int handoffCapacity,
+            @Value("${batch.pipeline.extract-workers:0}") int extractionThreads,
+            @Value("${batch.queue.max-in-flight:16}") int maxInFlight,
+            @Value("${pdf.extraction.parallel.threads:0}") int pageThreads,
+            @Value("${ocr.pool.size:0}") int ocrThreads,
+            @Value("${executors.shutdown-await-seconds:30}") int awaitSeconds) {
+        TaskExecutors executors = new TaskExecutors();
+
+        // Short blocking steps of interactive requests, also used as a Reactor scheduler:
+        // overflow fails the request (running it on the caller could block a Netty
+        // event loop). Drained on shutdown.
+        executors.register(Workload.ANALYSIS, orCores(analysisThreads), analysisQueue,
+                new ThreadPoolExecutor.AbortPolicy(), true, awaitSeconds, null);
+
+        // Admission is bounded by the pipeline's handoff (workers + queue); a rejected
+        // document goes back to the durable queue. Work stopped on shutdown is redone.
+        int batch = Math.max(1, batchThreads);
+        executors.register(Workload.BATCH, batch, batch + Math.max(1, handoffCapacity),
+                new ThreadPoolExecutor.AbortPolicy(), false, awaitSeconds,
+                virtualThreads ? new VirtualThreadTaskExecutor("batch-").getVirtualThreadFactory() : null);
+        executors.register(Workload.EXTRACTION, orCores(extractionThreads), Math.max(1, maxInFlight),
+                new ThreadPoolExecutor.AbortPolicy(), false, awaitSeconds, null);
+
+        // Sub-tasks of one extraction; overflow is done by the extraction worker itself
+        int pages = orCores(pageThreads);
+        executors.register(Workload.PDF_PAGES, pages, pages * 8,
+                new ThreadPoolExecutor.CallerRunsPolicy(), false, awaitSeconds, null);
+        int ocr = orCores(ocrThreads);
+        executors.register(Workload.OCR, ocr, ocr * 2,
+                new ThreadPoolExecutor.CallerRunsPolicy(), false, awaitSeconds, null);
+
+        for (Timer timer : Timer.values()) {
+            executors.registerTimer(timer);
+        }
+
+        return executors;
+    }
+
+    @Override
+    public Executor getAsyncExecutor() {
+        if (virtualThreads) {
+            return new VirtualThreadTaskExecutor("async-");
+        }
+        return taskExecutors.getObject().get(Workload.ANALYSIS);
+    }
+
+    private static int orCores(int threads) {
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -0,0 +1,184 @@
+package com.documentreaderai.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The application's worker pools, one per workload (sized in AsyncConfig),
+ * and the single-thread timers of background jobs
+ *
+ * Every pool has named threads, a bounded queue and an explicit rejection
+ * policy, and is shut down with the context - timers first, then callers
+ * before the pools they feed. Once a pool is shut down every submit is
+ * rejected with an exception, whatever its policy, so no task is dropped
+ * without its submitter knowing. Not an Executor bean itself, so Spring Boot still configures its own
+ * applicationTaskExecutor for MVC async requests.
+ */
+@Slf4j
+public class TaskExecutors implements DisposableBean {
+
+    /**
+     * Declared in shutdown order
+     */
+    public enum Workload {
+        ANALYSIS,    // Interactive analysis: blocking work (JPA, cache, retrieval) around LLM calls, @Async
+        BATCH,       // Batch orchestration: per-document analysis stage of the batch pipeline
+        EXTRACTION,  // Batch extraction stage: PDF parsing, OCR fan-out
+        PDF_PAGES,   // Page ranges of one large PDF stripped in parallel
+        OCR          // Tesseract pages
+    }
+
+    /**
+     * Background jobs on a fixed delay, one thread each
+     */
+    public enum Timer {
+        BATCH_QUEUE,      // Batch queue poll and lease heartbeat
+        BATCH_PROGRESS,   // Write-behind of batch progress counters
+        LLM_CACHE_PURGE   // Purge of expired LLM responses
+    }
+
+    private final Map<Workload, ThreadPoolTaskExecutor> executors = new EnumMap<>(Workload.class);
+    private final Map<Workload, LongAdder> rejected = new EnumMap<>(Workload.class);
+    private final Map<Workload, Scheduler> schedulers = new EnumMap<>(Workload.class);
+    private final Set<Workload> callerRuns = EnumSet.noneOf(Workload.class);
+    private final Map<Timer, ThreadPoolTaskScheduler> timers = new EnumMap<>(Timer.class);
+
+    /**
+     * Build and start a fixed-size pool
+     *
+     * @param waitForTasks on shutdown, let queued tasks run (else running ones are interrupted, queued ones dropped)
+     * @param threadFactory null for platform threads named after the workload
+     */
+    void register(Workload workload, int threads, int queueCapacity, RejectedExecutionHandler policy,
+                  boolean waitForTasks, int awaitTerminationSeconds, ThreadFactory threadFactory) {
+        LongAdder rejections = new LongAdder();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(workload.name().toLowerCase().replace('_', '-') + "-");
+        if (threadFactory != null) {
+            executor.setThreadFactory(threadFactory);
+        }
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            rejections.increment();
+            if (pool.isShutdown()) {
+                // CallerRunsPolicy / DiscardPolicy would drop it silently
+                throw new RejectedExecutionException("Executor " + workload + " is shut down");
+            }
+            policy.rejectedExecution(task, pool);
+        });
+        executor.setWaitForTasksToCompleteOnShutdown(waitForTasks);
+        executor.setAwaitTerminationSeconds(awaitTerminationSeconds);
+        executor.initialize();
+
+        executors.put(workload, executor);
+        rejected.put(workload, rejections);
+        if (policy instanceof ThreadPoolExecutor.CallerRunsPolicy) {
+            callerRuns.add(workload);
+        }
+        log.info("✓ Executor {}: {} threads, queue {}, on overflow {}",
+                workload, threads, queueCapacity, policy.getClass().getSimpleName());
+    }
+
+    /**
+     * Build and start a timer; pending runs are dropped and a running one is
+     * interrupted on shutdown (its owner does any final run itself)
+     */
+    void registerTimer(Timer timer) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setThreadNamePrefix(timer.name().toLowerCase().replace('_', '-') + "-");
+        scheduler.setPoolSize(1);
+        scheduler.setRemoveOnCancelPolicy(true);
+        scheduler.setWaitForTasksToCompleteOnShutdown(false);
+        scheduler.initialize();
+
+        timers.put(timer, scheduler);
+    }
+
+    public ThreadPoolTaskExecutor get(Workload workload) {
+        return executors.get(workload);
+    }
+
+    public ScheduledExecutorService timer(Timer timer) {
+        return timers.get(timer).getScheduledExecutor();
+    }
+
+    /**
+     * The pool as a Reactor scheduler, for publishOn / subscribeOn. Only for
+     * pools that reject overflow: run on the caller, it would block a Netty
+     * event loop.
+     */
+    public synchronized Scheduler scheduler(Workload workload) {
+        if (callerRuns.contains(workload)) {
+            throw new IllegalStateException(
+                    "Executor " + workload + " runs overflow on the caller - not usable as a scheduler");
+        }
+        return schedulers.computeIfAbsent(workload,
+                w -> Schedulers.fromExecutorService(get(w).getThreadPoolExecutor(), w.name().toLowerCase()));
+    }
+
+    @Override
+    public void destroy() {
+        timers.values().forEach(ThreadPoolTaskScheduler::shutdown);
+        executors.forEach((workload, executor) -> {
+            ThreadPoolExecutor pool = executor.getThreadPoolExecutor();
+            log.info("Shutting down executor {} ({} active, {} queued)",
+                    workload, pool.getActiveCount(), pool.getQueue().size());
+            executor.shutdown();  // Waits up to awaitTerminationSeconds
+
+            Scheduler scheduler = schedulers.get(workload);
+            if (scheduler != null) {
+                scheduler.dispose();  // Later publishOn / subscribeOn fail fast instead of hanging
+            }
+        });
+    }
+
+    /**
+     * Active / queued / completed / rejected per pool, scheduled / completed per timer
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        executors.forEach((workload, executor) -> {
+            ThreadPoolExecutor pool = executor.getThreadPoolExecutor();
+
+            Map<String, Object> poolStats = new LinkedHashMap<>();
+            poolStats.put("threads", pool.getPoolSize());
+            poolStats.put("maxThreads", pool.getMaximumPoolSize());
+            poolStats.put("active", pool.getActiveCount());
+            poolStats.put("queued", pool.getQueue().size());
+            poolStats.put("queueCapacity", executor.getQueueCapacity());
+            poolStats.put("completed", pool.getCompletedTaskCount());
+            poolStats.put("rejected", rejected.get(workload).sum());
+            stats.put(workload.name().toLowerCase(), poolStats);
+        });
+        timers.forEach((timer, scheduler) -> {
+            ScheduledThreadPoolExecutor pool = scheduler.getScheduledThreadPoolExecutor();
+
+            Map<String, Object> timerStats = new LinkedHashMap<>();
+            timerStats.put("active", pool.getActiveCount());
+            timerStats.put("scheduled", pool.getQueue().size());
+            timerStats.put("completed", pool.getCompletedTaskCount());
+            stats.put(timer.name().toLowerCase(), timerStats);
+        });
+        return stats;
+    }
+}
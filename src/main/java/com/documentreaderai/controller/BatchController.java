@@ -1,24 +1,35 @@
 package com.documentreaderai.controller;
 
-import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.documentreaderai.model.entity.BatchJob;
+import com.documentreaderai.model.entity.BatchJob.BatchStatus;
+import com.documentreaderai.config.TaskExecutors;
+import com.documentreaderai.config.TaskExecutors.Workload;
 import com.documentreaderai.service.BatchProcessingService;
+import com.documentreaderai.service.BatchProgressPublisher;
+import com.documentreaderai.service.BatchProgressPublisher.ProgressChanged;
+import com.documentreaderai.service.BatchQueueWorker;
 import com.documentreaderai.service.ExportService;
 
 import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @RestController
 @RequestMapping("/api/batch")
@@ -27,6 +38,9 @@ public class BatchController {
 
 	private final BatchProcessingService batchProcessingService;
     private final ExportService exportService;
+    private final BatchProgressPublisher progressPublisher;
+    private final BatchQueueWorker queueWorker;
+    private final TaskExecutors taskExecutors;
     
     /**
      * Create new batch job
@@ -76,6 +90,55 @@ public class BatchController {
         return ResponseEntity.ok(summary);
     }
     
+    /**
+     * Batch progress as Server-Sent Events - a "snapshot" (same body as /summary),
+     * then "document" status transitions and "progress" counters as they happen.
+     * Ends once the batch is completed, failed or cancelled.
+     */
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<Object>>> streamBatchProgress(@PathVariable UUID id) {
+        if (batchProcessingService.getBatchJobById(id) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        // Listen before taking the snapshot so no change falls in between
+        Flux<ServerSentEvent<Object>> changes = progressPublisher.events(id)
+                .map(event -> ServerSentEvent.<Object>builder(event)
+                        .event(event instanceof ProgressChanged ? "progress" : "document")
+                        .build());
+        Mono<ServerSentEvent<Object>> snapshot = Mono.fromCallable(() -> batchProcessingService.getBatchSummary(id))
+                .subscribeOn(taskExecutors.scheduler(Workload.ANALYSIS))  // JPA read
+                .map(summary -> ServerSentEvent.<Object>builder(summary).event("snapshot").build());
+        
+        return ResponseEntity.ok(Flux.merge(changes, snapshot).takeUntil(BatchController::isFinished));
+    }
+    
+    private static boolean isFinished(ServerSentEvent<Object> event) {
+        if (event.data() instanceof ProgressChanged progress) {
+            return progress.isFinished();
+        }
+        if (event.data() instanceof Map<?, ?> summary && summary.get("status") instanceof BatchStatus status) {
+            return BatchProgressPublisher.isFinished(status);
+        }
+        return false;
+    }
+    
+    /**
+     * Extraction / analysis pipeline stats (throughput, queue length, utilization)
+     */
+    @GetMapping("/pipeline/stats")
+    public ResponseEntity<Map<String, Object>> getPipelineStats() {
+        return ResponseEntity.ok(batchProcessingService.getPipelineStats());
+    }
+    
+    /**
+     * Queue worker stats for this node
+     */
+    @GetMapping("/queue/stats")
+    public ResponseEntity<Map<String, Object>> getQueueStats() {
+        return ResponseEntity.ok(queueWorker.getStats());
+    }
+    
     /**
      * Get all batch jobs
      */
@@ -86,12 +149,39 @@ public class BatchController {
     }
     
     /**
-     * Cancel batch job
+     * Pause batch job (in-flight documents are stopped and requeued)
+     */
+    @PostMapping("/{id}/pause")
+    public ResponseEntity<Map<String, Object>> pauseBatchJob(@PathVariable UUID id) {
+        try {
+            return ResponseEntity.ok(batchProcessingService.pauseBatchJob(id));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    /**
+     * Resume paused batch job
+     */
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<Map<String, Object>> resumeBatchJob(@PathVariable UUID id) {
+        try {
+            return ResponseEntity.ok(batchProcessingService.resumeBatchJob(id));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    /**
+     * Cancel batch job (queued documents dropped, in-flight ones stopped)
      */
     @PostMapping("/{id}/cancel")
-    public ResponseEntity<Void> cancelBatchJob(@PathVariable UUID id) {
-        batchProcessingService.cancelBatchJob(id);
-        return ResponseEntity.ok().build();
+    public ResponseEntity<Map<String, Object>> cancelBatchJob(@PathVariable UUID id) {
+        try {
+            return ResponseEntity.ok(batchProcessingService.cancelBatchJob(id));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
     }
     
     
@@ -99,17 +189,18 @@ public class BatchController {
      * Export batch results to Excel
      */
     @GetMapping("/{id}/export/excel")
-    public ResponseEntity<byte[]> exportToExcel(@PathVariable UUID id) throws IOException {
+    public ResponseEntity<StreamingResponseBody> exportToExcel(@PathVariable UUID id) {
         BatchJob batchJob = batchProcessingService.getBatchJobById(id);
         
-        byte[] excelBytes = exportService.exportBatchToExcel(batchJob);
+        // Written straight to the response as the rows are read
+        StreamingResponseBody body = outputStream -> exportService.writeBatchExcel(id, outputStream);
         
         return ResponseEntity.ok()
                 .header("Content-Disposition", 
                         "attachment; filename=" + batchJob.getJobName() + ".xlsx")
                 .header("Content-Type", 
                         "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
-                .body(excelBytes);
+                .body(body);
     }
     
     /**
@@ -0,0 +1,52 @@
+package com.documentreaderai.controller;
+
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.documentreaderai.service.ExtractionCacheService;
+import com.documentreaderai.service.LlmResponseCache;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/cache")
+@RequiredArgsConstructor
+public class CacheController {
+
+    private final ExtractionCacheService extractionCacheService;
+    private final LlmResponseCache llmResponseCache;
+
+    /**
+     * Hit/miss metrics for the extraction and LLM response caches
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(Map.of(
+            "extraction", extractionCacheService.getStats(),
+            "llm", llmResponseCache.getStats()
+        ));
+    }
+
+    /**
+     * Invalidate cached LLM responses (all, or only one model's)
+     */
+    @DeleteMapping("/llm")
+    public ResponseEntity<Map<String, Object>> invalidateLlmCache(
+            @RequestParam(value = "model", required = false) String model) {
+
+        int removed = model == null || model.isBlank()
+                ? llmResponseCache.invalidateAll()
+                : llmResponseCache.invalidateModel(model);
+
+        return ResponseEntity.ok(Map.of(
+            "message", "LLM response cache invalidated",
+            "removedEntries", removed
+        ));
+    }
+}
@@ -1,14 +1,30 @@
 package com.documentreaderai.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.documentreaderai.model.dto.DocumentPageSummary;
+import com.documentreaderai.model.dto.DocumentSearchResult;
+import com.documentreaderai.model.dto.DocumentStatusView;
+import com.documentreaderai.model.dto.DocumentSummary;
 import com.documentreaderai.model.entity.Document;
+import com.documentreaderai.model.entity.DocumentPage;
 import com.documentreaderai.model.entity.Document.DocumentStatus;
+import com.documentreaderai.config.TaskExecutors;
+import com.documentreaderai.config.TaskExecutors.Workload;
+import com.documentreaderai.service.AnalysisEventPublisher;
+import com.documentreaderai.service.DocumentPageService;
+import com.documentreaderai.service.DocumentSearchService;
 import com.documentreaderai.service.FastDocumentService;  // ← CHANGED: Using Fast service
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.HashMap;
 import java.util.List;
@@ -20,8 +36,14 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class DocumentController {
 
+    private static final int MAX_PAGE_RANGE = 20;  // Pages of text per request
+
     // ✅ CRITICAL FIX: Use FastDocumentService instead of DocumentService
     private final FastDocumentService documentService;  // ← CHANGED from DocumentService
+    private final AnalysisEventPublisher analysisEvents;
+    private final DocumentPageService documentPageService;
+    private final DocumentSearchService documentSearchService;
+    private final TaskExecutors taskExecutors;
 
     /**
      * Upload PDF document
@@ -52,12 +74,58 @@ public class DocumentController {
     }
 
     /**
-     * Get all documents
+     * Stored pages of a document: number, size and extraction method, no text
+     */
+    @GetMapping("/{id}/pages")
+    public ResponseEntity<List<DocumentPageSummary>> getPages(@PathVariable UUID id) {
+        return ResponseEntity.ok(documentPageService.getPageSummaries(id));
+    }
+
+    /**
+     * Text of pages [from, to] (1-based, inclusive, at most MAX_PAGE_RANGE pages)
+     */
+    @GetMapping("/{id}/pages/text")
+    public ResponseEntity<List<DocumentPage>> getPageText(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "1") int from,
+            @RequestParam(required = false) Integer to) {
+        int last = to != null ? Math.min(to, from + MAX_PAGE_RANGE - 1) : from;
+        if (last < from) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(documentPageService.getPages(id, from, last));
+    }
+
+    /**
+     * Full-text search across all extracted documents, e.g. ?q="Fireside Ventures" ABCDE1234F
+     */
+    @GetMapping("/search")
+    public ResponseEntity<Map<String, Object>> search(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "20") int limit) {
+        if (query.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        long startTime = System.currentTimeMillis();
+        List<DocumentSearchResult> results = documentSearchService.search(query, limit);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("query", query);
+        response.put("results", results);
+        response.put("count", results.size());
+        response.put("tookMs", System.currentTimeMillis() - startTime);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * List documents, a page at a time (summaries - fetch one document for its text)
      */
     @GetMapping
-    public ResponseEntity<List<Document>> getAllDocuments() {
-        List<Document> documents = documentService.getAllDocuments();
-        return ResponseEntity.ok(documents);
+    public ResponseEntity<Page<DocumentSummary>> getAllDocuments(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(documentService.getDocumentPage(page, size));
     }
 
     /**
@@ -84,6 +152,13 @@ public class DocumentController {
                     .body(Map.of("error", "Prompt is required"));
         }
 
+        // Fast-fail instead of queueing behind a full model queue
+        if (!documentService.isAcceptingAnalysis()) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .body(Map.of("error", "AI model is busy, please try again shortly"));
+        }
+
         try {
             // Start async processing with Fast service
             documentService.analyzeDocumentAsync(id, prompt);
@@ -102,17 +177,84 @@ public class DocumentController {
         }
     }
 
+    /**
+     * Analyze document with AI, streaming the answer as Server-Sent Events
+     * token events carry {"t": text}; the stream ends with done or error.
+     * The answer is also saved to the document, as with POST /analyze -
+     * so a POST (read with fetch, not EventSource), like the body it takes.
+     */
+    @PostMapping(value = "/{id}/analyze/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<Map<String, String>>>> streamAnalysis(
+            @PathVariable UUID id,
+            @RequestBody Map<String, String> request) {
+
+        String prompt = request.get("prompt");
+        if (prompt == null || prompt.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        // Fast-fail instead of queueing behind a full model queue
+        if (!documentService.isAcceptingAnalysis()) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .build();
+        }
+
+        if (documentService.getDocumentById(id) == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        // Tokens are wrapped in JSON so leading spaces and newlines survive
+        Flux<ServerSentEvent<Map<String, String>>> events = documentService.streamAnalysis(id, prompt)
+                .map(token -> ServerSentEvent.builder(Map.of("t", token)).event("token").build())
+                .concatWith(Mono.fromSupplier(() ->
+                        ServerSentEvent.builder(Map.of("status", DocumentStatus.ANALYZED.name())).event("done").build()))
+                .onErrorResume(e -> Mono.just(
+                        ServerSentEvent.builder(Map.of("error", String.valueOf(e.getMessage()))).event("error").build()));
+
+        return ResponseEntity.ok(events);
+    }
+
     /**
      * Get document status (for polling during analysis)
      */
     @GetMapping("/{id}/status")
     public ResponseEntity<Map<String, Object>> getDocumentStatus(@PathVariable UUID id) {
-        Document document = documentService.getDocumentById(id);
+        DocumentStatusView document = documentService.getDocumentStatus(id);
 
         if (document == null) {
             return ResponseEntity.notFound().build();
         }
 
+        return ResponseEntity.ok(statusOf(document));
+    }
+
+    /**
+     * Document status as Server-Sent Events - the current status, then each change
+     * until the analysis is no longer running. Replaces polling /status.
+     */
+    @GetMapping(value = "/{id}/status/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<Map<String, Object>>>> streamDocumentStatus(@PathVariable UUID id) {
+        if (documentService.getDocumentStatus(id) == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        // Listen before reading the current status so no change falls in between;
+        // each read is the status row, not the document with its text
+        Flux<DocumentStatusView> changes = analysisEvents.events(id)
+                .publishOn(taskExecutors.scheduler(Workload.ANALYSIS))  // JPA reads
+                .mapNotNull(event -> documentService.getDocumentStatus(id));
+        Mono<DocumentStatusView> current = Mono.fromCallable(() -> documentService.getDocumentStatus(id))
+                .subscribeOn(taskExecutors.scheduler(Workload.ANALYSIS));
+
+        Flux<ServerSentEvent<Map<String, Object>>> events = Flux.merge(changes, current)
+                .takeUntil(document -> document.getStatus() != DocumentStatus.ANALYZING)
+                .map(document -> ServerSentEvent.builder(statusOf(document)).event("status").build());
+
+        return ResponseEntity.ok(events);
+    }
+
+    private Map<String, Object> statusOf(DocumentStatusView document) {
         Map<String, Object> status = new HashMap<>();
         status.put("id", document.getId());
         status.put("filename", document.getFilename());
@@ -131,7 +273,7 @@ public class DocumentController {
             status.put("error", document.getAiAnalysis() != null ? document.getAiAnalysis() : "Analysis failed");
         }
 
-        return ResponseEntity.ok(status);
+        return status;
     }
 
     /**
@@ -0,0 +1,61 @@
+package com.documentreaderai.controller;
+
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.documentreaderai.service.DocumentPageService;
+import com.documentreaderai.service.TextCompressionService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/storage")
+@RequiredArgsConstructor
+public class StorageController {
+
+    private final TextCompressionService textCompressionService;
+    private final DocumentPageService documentPageService;
+
+    /**
+     * Documents and stored bytes, plain vs compressed text
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(textCompressionService.getStats());
+    }
+
+    /**
+     * Move existing documents to the configured text storage (storage.compression.enabled).
+     * Resumable: run again until plainRows (or compressedRows) reaches 0.
+     */
+    @PostMapping("/compression/migrate")
+    public ResponseEntity<Map<String, Object>> migrate(
+            @RequestParam(defaultValue = "1000") int limit) {
+        try {
+            return ResponseEntity.ok(textCompressionService.migrate(limit));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Store page rows for documents extracted before page storage, so search finds them.
+     * Resumable: run again until remaining reaches 0.
+     */
+    @PostMapping("/pages/backfill")
+    public ResponseEntity<Map<String, Object>> backfillPages(
+            @RequestParam(defaultValue = "1000") int limit) {
+        try {
+            return ResponseEntity.ok(documentPageService.backfillPages(limit));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package com.documentreaderai.controller;
 
+import com.documentreaderai.model.dto.DocumentSummary;
 import com.documentreaderai.model.entity.BatchJob;
 import com.documentreaderai.model.entity.Document;
 import com.documentreaderai.service.BatchProcessingService;
 import com.documentreaderai.service.DocumentService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
@@ -33,9 +35,13 @@ public class WebController {
      * Documents list page
      */
     @GetMapping("/documents")
-    public String documents(Model model) {
-        List<Document> documents = documentService.getAllDocuments();
-        model.addAttribute("documents", documents);
+    public String documents(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "24") int size,
+            Model model) {
+        Page<DocumentSummary> documents = documentService.getDocumentPage(page, size);
+        model.addAttribute("documents", documents.getContent());
+        model.addAttribute("page", documents);
         return "documents";
     }
 
@@ -92,6 +98,12 @@ public class WebController {
             @RequestParam("prompt") String prompt,
             RedirectAttributes redirectAttributes) {
 
+        if (!documentService.isAcceptingAnalysis()) {
+            redirectAttributes.addFlashAttribute("error",
+                "AI model is busy, please try again shortly");
+            return "redirect:/analyze/" + id;
+        }
+
         try {
             documentService.analyzeDocumentAsync(id, prompt);
 
@@ -143,13 +155,14 @@ public class WebController {
      */
     @GetMapping("/batch/{id}")
     public String batchJobDetailPage(@PathVariable UUID id, Model model) {
-        BatchJob batchJob = batchProcessingService.getBatchJobById(id);
+        BatchJob batchJob = batchProcessingService.getBatchJobProgress(id);
         
         if (batchJob == null) {
             return "redirect:/batch/jobs";
         }
         
         model.addAttribute("batchJob", batchJob);
+        model.addAttribute("documents", batchProcessingService.getBatchDocuments(id));
         return "batch-detail";
     }
 }
\ No newline at end of file
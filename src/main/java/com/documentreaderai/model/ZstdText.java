@@ -0,0 +1,54 @@
+package com.documentreaderai.model;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdInputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Zstandard frames for the large text columns (Document.extractedText / aiAnalysis)
+ *
+ * Codec only - whether new text is compressed, and at which level, is
+ * storage.compression.* (see DocumentTextCompression). Frames are always
+ * decodable, so the setting can change at any time.
+ */
+public final class ZstdText {
+
+    private ZstdText() {
+    }
+
+    public static byte[] compress(String text, int level) {
+        return text == null ? null : Zstd.compress(text.getBytes(StandardCharsets.UTF_8), level);
+    }
+
+    public static String decompress(byte[] frame) {
+        if (frame == null) {
+            return null;
+        }
+        long size = Zstd.decompressedSize(frame);
+        if (size <= 0 || size > Integer.MAX_VALUE - 8) {
+            // Size not recorded in the frame (or empty) - decode as a stream
+            try (Reader reader = reader(frame)) {
+                StringWriter text = new StringWriter();
+                reader.transferTo(text);
+                return text.toString();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to decompress text: " + e.getMessage(), e);
+            }
+        }
+        return new String(Zstd.decompress(frame, (int) size), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The frame decoded as it is read - for copying text out without building the String
+     */
+    public static Reader reader(byte[] frame) throws IOException {
+        return new InputStreamReader(new ZstdInputStream(new ByteArrayInputStream(frame)), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,36 @@
+package com.documentreaderai.model.dto;
+
+import com.documentreaderai.model.ZstdText;
+import com.documentreaderai.model.entity.Document.DocumentStatus;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Row of a batch export - the analysis, but not the extracted text
+ */
+@Value
+public class BatchDocumentExport {
+    UUID id;                   // (createdAt, id): export order, and where the next page starts
+    LocalDateTime createdAt;
+    String filename;
+    DocumentStatus status;
+    Integer totalPages;
+    Long fileSize;
+    String aiAnalysis;
+
+    /**
+     * Projection constructor: the analysis is read from whichever column holds it
+     */
+    public BatchDocumentExport(UUID id, LocalDateTime createdAt, String filename, DocumentStatus status,
+                               Integer totalPages, Long fileSize, String aiAnalysis, byte[] aiAnalysisCompressed) {
+        this.id = id;
+        this.createdAt = createdAt;
+        this.filename = filename;
+        this.status = status;
+        this.totalPages = totalPages;
+        this.fileSize = fileSize;
+        this.aiAnalysis = aiAnalysis != null ? aiAnalysis : ZstdText.decompress(aiAnalysisCompressed);
+    }
+}
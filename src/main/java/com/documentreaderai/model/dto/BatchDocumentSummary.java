@@ -0,0 +1,19 @@
+package com.documentreaderai.model.dto;
+
+import com.documentreaderai.model.entity.Document.DocumentStatus;
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * Row of a batch's document list - read by a projection query so the
+ * extractedText and aiAnalysis columns are never loaded for it
+ */
+@Value
+public class BatchDocumentSummary {
+    UUID id;
+    String filename;
+    DocumentStatus status;
+    Integer totalPages;
+    Long fileSize;
+}
@@ -0,0 +1,15 @@
+package com.documentreaderai.model.dto;
+
+import com.documentreaderai.model.entity.DocumentPage.ExtractionMethod;
+import lombok.Value;
+
+/**
+ * Page list row - read by a projection query so the page text is not loaded
+ */
+@Value
+public class DocumentPageSummary {
+    int pageNumber;
+    int charCount;
+    ExtractionMethod extractionMethod;
+    boolean ocr;
+}
@@ -0,0 +1,14 @@
+package com.documentreaderai.model.dto;
+
+import java.util.UUID;
+
+/**
+ * One matching page, as returned by DocumentRepository.searchPages
+ */
+public interface DocumentSearchHit {
+    UUID getDocumentId();
+    String getFilename();
+    int getPageNumber();
+    double getRank();
+    String getSnippet();
+}
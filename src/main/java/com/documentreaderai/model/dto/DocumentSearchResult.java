@@ -0,0 +1,24 @@
+package com.documentreaderai.model.dto;
+
+import lombok.Value;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A document matching a search, with its best pages (highest rank first)
+ */
+@Value
+public class DocumentSearchResult {
+    UUID documentId;
+    String filename;
+    double rank;
+    List<PageHit> pages;
+
+    @Value
+    public static class PageHit {
+        int pageNumber;
+        double rank;
+        String snippet;  // Matches wrapped in ** **
+    }
+}
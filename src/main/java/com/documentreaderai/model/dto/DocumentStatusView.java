@@ -0,0 +1,32 @@
+package com.documentreaderai.model.dto;
+
+import com.documentreaderai.model.ZstdText;
+import com.documentreaderai.model.entity.Document.DocumentStatus;
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * A document's status for /status and its stream - never the extracted text,
+ * and the analysis only once it is the result (ANALYZED, or FAILED's error)
+ */
+@Value
+public class DocumentStatusView {
+    UUID id;
+    String filename;
+    DocumentStatus status;
+    Integer totalPages;
+    String aiAnalysis;
+
+    /**
+     * Projection constructor: the analysis is read from whichever column holds it
+     */
+    public DocumentStatusView(UUID id, String filename, DocumentStatus status, Integer totalPages,
+                              String aiAnalysis, byte[] aiAnalysisCompressed) {
+        this.id = id;
+        this.filename = filename;
+        this.status = status;
+        this.totalPages = totalPages;
+        this.aiAnalysis = aiAnalysis != null ? aiAnalysis : ZstdText.decompress(aiAnalysisCompressed);
+    }
+}
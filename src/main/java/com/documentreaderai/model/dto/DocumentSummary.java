@@ -0,0 +1,21 @@
+package com.documentreaderai.model.dto;
+
+import com.documentreaderai.model.entity.Document.DocumentStatus;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Row of the documents list - read by a projection query so the
+ * extractedText and aiAnalysis columns are never loaded for it
+ */
+@Value
+public class DocumentSummary {
+    UUID id;
+    String filename;
+    DocumentStatus status;
+    Integer totalPages;
+    Long fileSize;
+    LocalDateTime createdAt;
+}
@@ -0,0 +1,13 @@
+package com.documentreaderai.model.dto;
+
+/**
+ * Stored size of the document text columns, as Postgres keeps them
+ * (pg_column_size: after TOAST compression)
+ */
+public interface TextStorageStats {
+    long getDocuments();
+    long getPlainRows();
+    long getCompressedRows();
+    long getPlainBytes();
+    long getCompressedBytes();
+}
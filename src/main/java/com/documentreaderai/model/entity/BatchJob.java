@@ -4,10 +4,14 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -67,8 +71,12 @@ public class BatchJob {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
-    // Relationship with documents
+    // Relationship with documents - lazy and never serialized: it carries every
+    // document's text. Lists use DocumentRepository's projections instead.
     @OneToMany(mappedBy = "batchJob", cascade = CascadeType.ALL)
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @Builder.Default
     private List<Document> documents = new ArrayList<>();
     
@@ -0,0 +1,74 @@
+package com.documentreaderai.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One document of a batch in the durable work queue
+ *
+ * A worker owns an item while its lease is live and keeps extending it;
+ * an item whose lease ran out (node died) is claimed again by any node.
+ */
+@Entity
+@Table(name = "batch_work_items", indexes = {
+    @Index(name = "idx_batch_work_items_claim", columnList = "state, created_at"),
+    @Index(name = "idx_batch_work_items_batch", columnList = "batch_job_id, state")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchWorkItem {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+    
+    @Column(name = "batch_job_id", nullable = false)
+    private UUID batchJobId;
+    
+    @Column(name = "document_id", nullable = false, unique = true)
+    private UUID documentId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private WorkState state;
+    
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+    
+    // node-id of the worker holding the lease
+    @Column(name = "lease_owner", length = 100)
+    private String leaseOwner;
+    
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+    
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+    
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    public enum WorkState {
+        PENDING,    // Waiting for a worker
+        LEASED,     // Claimed - being processed while the lease is live
+        DONE,       // Processed
+        FAILED,     // Processed with an error, or out of attempts
+        CANCELLED   // Batch cancelled before it was processed
+    }
+}
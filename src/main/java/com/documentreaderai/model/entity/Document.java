@@ -1,19 +1,30 @@
 package com.documentreaderai.model.entity;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import com.documentreaderai.model.ZstdText;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
 @Table(name = "documents")
+@DynamicUpdate  // A status change must not rewrite the text columns
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -33,6 +44,10 @@ public class Document {
     @Column(name = "file_size")
     private Long fileSize;
     
+    // SHA-256 of the uploaded file (extraction cache key)
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+    
     @Enumerated(EnumType.STRING)
     @Column(length = 50)
     private DocumentStatus status;
@@ -40,9 +55,19 @@ public class Document {
     @Column(name = "total_pages")
     private Integer totalPages;
     
+    // Stored either plain or, with storage.compression.enabled, as a Zstd frame
+    // in extracted_text_zst - read both through getExtractedText()
     @Column(name = "extracted_text", columnDefinition = "TEXT")
     private String extractedText;
     
+    @Column(name = "extracted_text_zst", columnDefinition = "bytea")
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @JsonIgnore
+    private byte[] extractedTextCompressed;
+    
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -55,6 +80,14 @@ public class Document {
     @Column(columnDefinition = "TEXT")
     private String aiAnalysis;
     
+    @Column(name = "ai_analysis_zst", columnDefinition = "bytea")
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @JsonIgnore
+    private byte[] aiAnalysisCompressed;
+    
     
     @ManyToOne
     @JoinColumn(name = "batch_job_id")
@@ -63,6 +96,72 @@ public class Document {
     
    
     
+    // Text columns: decompressed on access, never kept decoded on the entity
+    
+    public String getExtractedText() {
+        return extractedText != null ? extractedText : ZstdText.decompress(extractedTextCompressed);
+    }
+    
+    public void setExtractedText(String text) {
+        this.extractedText = text;
+        this.extractedTextCompressed = null;
+    }
+    
+    /**
+     * The extracted text as a stream, decoded while it is read
+     */
+    public Reader openExtractedText() throws IOException {
+        if (extractedTextCompressed != null) {
+            return ZstdText.reader(extractedTextCompressed);
+        }
+        return new StringReader(extractedText != null ? extractedText : "");
+    }
+    
+    public boolean hasExtractedText() {
+        return extractedText != null || extractedTextCompressed != null;
+    }
+    
+    public String getAiAnalysis() {
+        return aiAnalysis != null ? aiAnalysis : ZstdText.decompress(aiAnalysisCompressed);
+    }
+    
+    public void setAiAnalysis(String analysis) {
+        this.aiAnalysis = analysis;
+        this.aiAnalysisCompressed = null;
+    }
+    
+    /**
+     * Move one text property's plain value to its compressed column
+     */
+    void compressText(String property, int level) {
+        switch (property) {
+            case "extractedText" -> {
+                extractedTextCompressed = ZstdText.compress(extractedText, level);
+                extractedText = null;
+            }
+            case "aiAnalysis" -> {
+                aiAnalysisCompressed = ZstdText.compress(aiAnalysis, level);
+                aiAnalysis = null;
+            }
+            default -> throw new IllegalArgumentException("Not a text property: " + property);
+        }
+    }
+    
+    /**
+     * The text columns into a Hibernate state array
+     */
+    void copyTextState(String[] propertyNames, Object[] state) {
+        for (int i = 0; i < propertyNames.length; i++) {
+            switch (propertyNames[i]) {
+                case "extractedText" -> state[i] = extractedText;
+                case "extractedTextCompressed" -> state[i] = extractedTextCompressed;
+                case "aiAnalysis" -> state[i] = aiAnalysis;
+                case "aiAnalysisCompressed" -> state[i] = aiAnalysisCompressed;
+                default -> { }
+            }
+        }
+    }
+
     public enum DocumentStatus {
         UPLOADED,        // Just uploaded
         PROCESSING,      // Extracting text
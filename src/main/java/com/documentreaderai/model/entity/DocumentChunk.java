@@ -0,0 +1,37 @@
+package com.documentreaderai.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Entity
+@Table(name = "document_chunks", indexes = {
+    @Index(name = "idx_document_chunks_document", columnList = "document_id, chunk_index")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DocumentChunk {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+    
+    @Column(name = "document_id", nullable = false)
+    private UUID documentId;
+    
+    @Column(name = "chunk_index", nullable = false)
+    private Integer chunkIndex;
+    
+    // null for content that isn't tied to one page (tables, unmarked text)
+    @Column(name = "page_number")
+    private Integer pageNumber;
+    
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String content;
+}
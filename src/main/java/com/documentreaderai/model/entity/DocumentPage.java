@@ -0,0 +1,51 @@
+package com.documentreaderai.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Entity
+@Table(name = "document_pages", indexes = {
+    @Index(name = "idx_document_pages_document", columnList = "document_id, page_number", unique = true)
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DocumentPage {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+    
+    @Column(name = "document_id", nullable = false)
+    private UUID documentId;
+    
+    // 1-based
+    @Column(name = "page_number", nullable = false)
+    private Integer pageNumber;
+    
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String text;
+    
+    @Column(name = "char_count", nullable = false)
+    private Integer charCount;
+    
+    // How the document was extracted; ocr says whether this page's text came from OCR
+    @Enumerated(EnumType.STRING)
+    @Column(name = "extraction_method", nullable = false)
+    private ExtractionMethod extractionMethod;
+    
+    @Column(nullable = false)
+    private Boolean ocr;
+    
+    public enum ExtractionMethod {
+        NATIVE,          // Text layer only
+        SELECTIVE_OCR,   // Text layer, low-text pages OCR'd
+        FULL_OCR         // Every page OCR'd
+    }
+}
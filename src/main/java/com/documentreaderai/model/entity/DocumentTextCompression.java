@@ -0,0 +1,71 @@
+package com.documentreaderai.model.entity;
+
+import org.hibernate.Interceptor;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.type.Type;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Compresses Document text as it is written - a new document's, or a text
+ * property changed since load - with storage.compression.enabled. Text stored
+ * plain and not touched stays so (TextCompressionService migrates it).
+ *
+ * A Hibernate interceptor rather than an entity listener: it sees the loaded
+ * state (a merged copy carries no flags of its own), and the state it changes
+ * is dirty-checked again, so @DynamicUpdate writes the moved columns.
+ */
+@Component
+public class DocumentTextCompression implements Interceptor, HibernatePropertiesCustomizer {
+
+    private static final Set<String> TEXT_PROPERTIES = Set.of("extractedText", "aiAnalysis");
+
+    private final boolean enabled;
+    private final int level;
+
+    public DocumentTextCompression(
+            @Value("${storage.compression.enabled:false}") boolean enabled,
+            @Value("${storage.compression.level:3}") int level) {
+        this.enabled = enabled;
+        this.level = level;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.INTERCEPTOR, this);
+    }
+
+    @Override
+    public boolean onSave(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        return compress(entity, state, null, propertyNames);
+    }
+
+    @Override
+    public boolean onFlushDirty(Object entity, Object id, Object[] currentState, Object[] previousState,
+                                String[] propertyNames, Type[] types) {
+        return compress(entity, currentState, previousState, propertyNames);
+    }
+
+    private boolean compress(Object entity, Object[] state, Object[] previousState, String[] propertyNames) {
+        if (!enabled || !(entity instanceof Document document)) {
+            return false;
+        }
+        boolean moved = false;
+        for (int i = 0; i < propertyNames.length; i++) {
+            boolean changed = previousState == null || !Objects.equals(state[i], previousState[i]);
+            if (TEXT_PROPERTIES.contains(propertyNames[i]) && state[i] != null && changed) {
+                document.compressText(propertyNames[i], level);
+                moved = true;
+            }
+        }
+        if (moved) {
+            document.copyTextState(propertyNames, state);
+        }
+        return moved;
+    }
+}
@@ -0,0 +1,51 @@
+package com.documentreaderai.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "extraction_cache")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExtractionCacheEntry {
+    
+    // content hash + extractor version
+    @Id
+    @Column(name = "cache_key", length = 128)
+    private String cacheKey;
+    
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+    
+    @Column(name = "extractor_version", nullable = false, length = 64)
+    private String extractorVersion;
+    
+    @Column(name = "file_size")
+    private Long fileSize;
+    
+    @Column(name = "processing_time_ms")
+    private Long processingTimeMs;
+    
+    // Serialized ExtractionResult (text, pages, warnings)
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String payload;
+    
+    @Column(name = "hit_count")
+    @Builder.Default
+    private Long hitCount = 0L;
+    
+    @Column(name = "last_hit_at")
+    private LocalDateTime lastHitAt;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,52 @@
+package com.documentreaderai.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "llm_response_cache", indexes = {
+    @Index(name = "idx_llm_cache_model", columnList = "model"),
+    @Index(name = "idx_llm_cache_document", columnList = "document_digest"),
+    @Index(name = "idx_llm_cache_expires", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LlmResponseCacheEntry {
+    
+    // SHA-256 of model + options + prompt template + document digest
+    @Id
+    @Column(name = "cache_key", length = 64)
+    private String cacheKey;
+    
+    @Column(nullable = false, length = 100)
+    private String model;
+    
+    @Column(name = "document_digest", nullable = false, length = 64)
+    private String documentDigest;
+    
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String response;
+    
+    @Column(name = "hit_count")
+    @Builder.Default
+    private Long hitCount = 0L;
+    
+    @Column(name = "last_hit_at")
+    private LocalDateTime lastHitAt;
+    
+    // Pushed out on every hit; purged once passed
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -3,8 +3,14 @@ package com.documentreaderai.repository;
 import com.documentreaderai.model.entity.BatchJob;
 import com.documentreaderai.model.entity.BatchJob.BatchStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -16,4 +22,38 @@ public interface BatchJobRepository extends JpaRepository<BatchJob, UUID> {
     List<BatchJob> findByStatusOrderByCreatedAtDesc(BatchStatus status);
     
     List<BatchJob> findAllByOrderByCreatedAtDesc();
-}
\ No newline at end of file
+    
+    @Query("SELECT b.id FROM BatchJob b WHERE b.id IN :ids AND b.status <> :status")
+    List<UUID> findIdsByIdInAndStatusNot(@Param("ids") Collection<UUID> ids, @Param("status") BatchStatus status);
+    
+    /**
+     * Add counter deltas in place - no read-modify-write of the row
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE BatchJob b SET b.processedCount = b.processedCount + :processed, " +
+           "b.successCount = b.successCount + :succeeded, b.failureCount = b.failureCount + :failed, " +
+           "b.updatedAt = :now WHERE b.id = :id")
+    int incrementProgress(@Param("id") UUID id, @Param("processed") int processed,
+                          @Param("succeeded") int succeeded, @Param("failed") int failed,
+                          @Param("now") LocalDateTime now);
+    
+    /**
+     * Set the status without writing back (possibly stale) counters
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE BatchJob b SET b.status = :status, b.completedAt = :completedAt, b.updatedAt = :now WHERE b.id = :id")
+    int updateStatus(@Param("id") UUID id, @Param("status") BatchStatus status,
+                     @Param("completedAt") LocalDateTime completedAt, @Param("now") LocalDateTime now);
+    
+    /**
+     * Change the status only if it is still :from (0 = someone else changed it first)
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE BatchJob b SET b.status = :to, b.completedAt = :completedAt, b.updatedAt = :now " +
+           "WHERE b.id = :id AND b.status = :from")
+    int transitionStatus(@Param("id") UUID id, @Param("from") BatchStatus from, @Param("to") BatchStatus to,
+                         @Param("completedAt") LocalDateTime completedAt, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,113 @@
+package com.documentreaderai.repository;
+
+import com.documentreaderai.model.entity.BatchWorkItem;
+import com.documentreaderai.model.entity.BatchWorkItem.WorkState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface BatchWorkItemRepository extends JpaRepository<BatchWorkItem, UUID> {
+    
+    @Query("SELECT w.documentId FROM BatchWorkItem w WHERE w.batchJobId = :batchJobId")
+    List<UUID> findDocumentIdsByBatchJobId(@Param("batchJobId") UUID batchJobId);
+    
+    long countByBatchJobIdAndStateIn(UUID batchJobId, Collection<WorkState> states);
+    
+    /**
+     * Lease up to :limit items of running batches - new ones, or ones whose lease
+     * ran out. The rows stay locked until the lease is written, and SKIP LOCKED
+     * lets any number of nodes claim at once without waiting on or
+     * double-claiming each other's rows.
+     */
+    @Transactional
+    default List<BatchWorkItem> claim(String owner, int limit, LocalDateTime now, LocalDateTime expires) {
+        List<UUID> ids = lockClaimable(limit, now);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        lease(ids, owner, WorkState.LEASED, expires, now);
+        return findAllById(ids);
+    }
+    
+    /**
+     * Lock the next claimable items, skipping rows another node is claiming right now
+     * (the locks last as long as the caller's transaction - see claim)
+     */
+    @Query(value = """
+            SELECT w.id FROM batch_work_items w
+            JOIN batch_jobs b ON b.id = w.batch_job_id
+            WHERE b.status = 'RUNNING'
+              AND (w.state = 'PENDING' OR (w.state = 'LEASED' AND w.lease_expires_at < :now))
+            ORDER BY w.created_at
+            LIMIT :limit
+            FOR UPDATE OF w SKIP LOCKED
+            """, nativeQuery = true)
+    List<UUID> lockClaimable(@Param("limit") int limit, @Param("now") LocalDateTime now);
+    
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE BatchWorkItem w SET w.state = :state, w.leaseOwner = :owner, w.leaseExpiresAt = :expires, " +
+           "w.attempts = w.attempts + 1, w.updatedAt = :now " +
+           "WHERE w.id IN :ids")
+    int lease(@Param("ids") Collection<UUID> ids, @Param("owner") String owner, @Param("state") WorkState state,
+              @Param("expires") LocalDateTime expires, @Param("now") LocalDateTime now);
+    
+    /**
+     * Extend the leases this node still holds
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE BatchWorkItem w SET w.leaseExpiresAt = :expires, w.updatedAt = :now " +
+           "WHERE w.id IN :ids AND w.leaseOwner = :owner")
+    int heartbeat(@Param("ids") Collection<UUID> ids, @Param("owner") String owner,
+                  @Param("expires") LocalDateTime expires, @Param("now") LocalDateTime now);
+    
+    /**
+     * Finish an item - only if this node still holds it (0 = lease was lost)
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE BatchWorkItem w SET w.state = :state, w.leaseOwner = NULL, w.leaseExpiresAt = NULL, " +
+           "w.lastError = :error, w.updatedAt = :now " +
+           "WHERE w.id = :id AND w.leaseOwner = :owner")
+    int complete(@Param("id") UUID id, @Param("owner") String owner, @Param("state") WorkState state,
+                 @Param("error") String error, @Param("now") LocalDateTime now);
+    
+    /**
+     * Hand back every lease this node holds (clean shutdown)
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE BatchWorkItem w SET w.state = :state, w.leaseOwner = NULL, w.leaseExpiresAt = NULL, w.updatedAt = :now " +
+           "WHERE w.leaseOwner = :owner")
+    int release(@Param("owner") String owner, @Param("state") WorkState state, @Param("now") LocalDateTime now);
+    
+    /**
+     * Put an interrupted item back in the queue (batch paused) without counting the attempt
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE BatchWorkItem w SET w.state = :pending, w.attempts = w.attempts - 1, " +
+           "w.leaseOwner = NULL, w.leaseExpiresAt = NULL, w.updatedAt = :now " +
+           "WHERE w.id = :id AND w.leaseOwner = :owner AND w.state = :leased")
+    int requeue(@Param("id") UUID id, @Param("owner") String owner, @Param("pending") WorkState pending,
+                @Param("leased") WorkState leased, @Param("now") LocalDateTime now);
+    
+    /**
+     * Close every open (pending or leased) item of a batch
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE BatchWorkItem w SET w.state = :state, w.leaseOwner = NULL, w.leaseExpiresAt = NULL, w.updatedAt = :now " +
+           "WHERE w.batchJobId = :batchJobId AND w.state IN :open")
+    int closeOpen(@Param("batchJobId") UUID batchJobId, @Param("open") Collection<WorkState> open,
+                  @Param("state") WorkState state, @Param("now") LocalDateTime now);
+}
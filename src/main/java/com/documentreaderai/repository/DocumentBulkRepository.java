@@ -0,0 +1,19 @@
+package com.documentreaderai.repository;
+
+import com.documentreaderai.model.entity.Document;
+
+import java.util.List;
+
+/**
+ * Bulk insert of new documents (batch creation)
+ */
+public interface DocumentBulkRepository {
+
+    /**
+     * Insert new documents in the current transaction: as JDBC-batched
+     * INSERTs, or with COPY from batch.create.copy-threshold documents up.
+     * COPY'd documents are written straight to the table, not attached to
+     * the persistence context - read them back by id.
+     */
+    void insertAll(List<Document> documents);
+}
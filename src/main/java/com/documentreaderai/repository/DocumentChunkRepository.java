@@ -0,0 +1,23 @@
+package com.documentreaderai.repository;
+
+import com.documentreaderai.model.entity.DocumentChunk;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface DocumentChunkRepository extends JpaRepository<DocumentChunk, UUID> {
+    
+    List<DocumentChunk> findByDocumentIdOrderByChunkIndex(UUID documentId);
+    
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM DocumentChunk c WHERE c.documentId = :documentId")
+    int deleteByDocumentId(@Param("documentId") UUID documentId);
+}
@@ -0,0 +1,38 @@
+package com.documentreaderai.repository;
+
+import com.documentreaderai.model.dto.DocumentPageSummary;
+import com.documentreaderai.model.entity.DocumentPage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface DocumentPageRepository extends JpaRepository<DocumentPage, UUID> {
+    
+    /**
+     * Pages [fromPage, toPage] in order (1-based, inclusive)
+     */
+    @Query("SELECT p FROM DocumentPage p WHERE p.documentId = :documentId " +
+           "AND p.pageNumber BETWEEN :fromPage AND :toPage ORDER BY p.pageNumber")
+    List<DocumentPage> findRange(@Param("documentId") UUID documentId,
+                                 @Param("fromPage") int fromPage,
+                                 @Param("toPage") int toPage);
+    
+    /**
+     * Per-page sizes and methods, without the text
+     */
+    @Query("SELECT new com.documentreaderai.model.dto.DocumentPageSummary(p.pageNumber, p.charCount, p.extractionMethod, p.ocr) " +
+           "FROM DocumentPage p WHERE p.documentId = :documentId ORDER BY p.pageNumber")
+    List<DocumentPageSummary> findSummaries(@Param("documentId") UUID documentId);
+    
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM DocumentPage p WHERE p.documentId = :documentId")
+    int deleteByDocumentId(@Param("documentId") UUID documentId);
+}
@@ -1,15 +1,188 @@
 package com.documentreaderai.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.documentreaderai.model.dto.BatchDocumentExport;
+import com.documentreaderai.model.dto.BatchDocumentSummary;
+import com.documentreaderai.model.dto.DocumentSearchHit;
+import com.documentreaderai.model.dto.DocumentStatusView;
+import com.documentreaderai.model.dto.DocumentSummary;
+import com.documentreaderai.model.dto.TextStorageStats;
 import com.documentreaderai.model.entity.Document;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface DocumentRepository extends JpaRepository<Document, UUID> {
+public interface DocumentRepository extends JpaRepository<Document, UUID>, DocumentBulkRepository {
     
     List<Document> findByStatus(Document.DocumentStatus status);
-}
\ No newline at end of file
+    
+    /**
+     * Status rows for a batch without the large text columns
+     */
+    @Query("SELECT new com.documentreaderai.model.dto.BatchDocumentSummary(d.id, d.filename, d.status, d.totalPages, d.fileSize) " +
+           "FROM Document d WHERE d.batchJob.id = :batchJobId ORDER BY d.createdAt, d.id")
+    List<BatchDocumentSummary> findSummariesByBatchJobId(@Param("batchJobId") UUID batchJobId);
+    
+    /**
+     * Status of one document; the analysis columns are read only for the
+     * statuses in withAnalysis, the extracted text never
+     */
+    @Query("SELECT new com.documentreaderai.model.dto.DocumentStatusView(d.id, d.filename, d.status, d.totalPages, " +
+           "CASE WHEN d.status IN :withAnalysis THEN d.aiAnalysis END, " +
+           "CASE WHEN d.status IN :withAnalysis THEN d.aiAnalysisCompressed END) " +
+           "FROM Document d WHERE d.id = :id")
+    Optional<DocumentStatusView> findStatusById(@Param("id") UUID id,
+                                                @Param("withAnalysis") Collection<Document.DocumentStatus> withAnalysis);
+    
+    /**
+     * Status of one document, with the analysis once it is done (or the error once it failed)
+     */
+    default Optional<DocumentStatusView> findStatusById(UUID id) {
+        return findStatusById(id, EnumSet.of(Document.DocumentStatus.ANALYZED, Document.DocumentStatus.FAILED));
+    }
+    
+    /**
+     * One page of the documents list, newest first, without the large text columns
+     */
+    @Query(value = "SELECT new com.documentreaderai.model.dto.DocumentSummary(d.id, d.filename, d.status, d.totalPages, d.fileSize, d.createdAt) " +
+                   "FROM Document d ORDER BY d.createdAt DESC, d.id",
+           countQuery = "SELECT COUNT(d) FROM Document d")
+    Page<DocumentSummary> findSummaries(Pageable pageable);
+    
+    int MAX_SUMMARY_PAGE_SIZE = 200;  // Documents per list page
+    
+    /**
+     * List page as a client asked for it, clamped to a valid page and at most MAX_SUMMARY_PAGE_SIZE
+     */
+    default Page<DocumentSummary> findSummaries(int page, int size) {
+        return findSummaries(PageRequest.of(Math.max(0, page), Math.min(Math.max(1, size), MAX_SUMMARY_PAGE_SIZE)));
+    }
+    
+    /**
+     * Export rows for a batch: the analysis, not the extracted text
+     */
+    @Query("SELECT new com.documentreaderai.model.dto.BatchDocumentExport(d.id, d.createdAt, d.filename, d.status, d.totalPages, d.fileSize, d.aiAnalysis, d.aiAnalysisCompressed) " +
+           "FROM Document d WHERE d.batchJob.id = :batchJobId ORDER BY d.createdAt, d.id")
+    List<BatchDocumentExport> findExportRowsByBatchJobId(@Param("batchJobId") UUID batchJobId);
+    
+    /**
+     * The first limit export rows
+     */
+    @Query("SELECT new com.documentreaderai.model.dto.BatchDocumentExport(d.id, d.createdAt, d.filename, d.status, d.totalPages, d.fileSize, d.aiAnalysis, d.aiAnalysisCompressed) " +
+           "FROM Document d WHERE d.batchJob.id = :batchJobId ORDER BY d.createdAt, d.id")
+    List<BatchDocumentExport> findExportRowsByBatchJobId(@Param("batchJobId") UUID batchJobId, Pageable limit);
+    
+    /**
+     * The next limit export rows after (createdAt, id) - keyset, so each page is
+     * its own short query however far into the batch it is
+     */
+    @Query("SELECT new com.documentreaderai.model.dto.BatchDocumentExport(d.id, d.createdAt, d.filename, d.status, d.totalPages, d.fileSize, d.aiAnalysis, d.aiAnalysisCompressed) " +
+           "FROM Document d WHERE d.batchJob.id = :batchJobId " +
+           "AND (d.createdAt > :createdAt OR (d.createdAt = :createdAt AND d.id > :id)) ORDER BY d.createdAt, d.id")
+    List<BatchDocumentExport> findExportRowsAfter(@Param("batchJobId") UUID batchJobId,
+                                                  @Param("createdAt") LocalDateTime createdAt,
+                                                  @Param("id") UUID id,
+                                                  Pageable limit);
+    
+    /**
+     * Export rows in pages of size: the first page when after is null, else the
+     * rows following it
+     */
+    default List<BatchDocumentExport> findExportRowsPage(UUID batchJobId, BatchDocumentExport after, int size) {
+        PageRequest limit = PageRequest.of(0, size);
+        return after == null
+                ? findExportRowsByBatchJobId(batchJobId, limit)
+                : findExportRowsAfter(batchJobId, after.getCreatedAt(), after.getId(), limit);
+    }
+    
+    @Query("SELECT d.id FROM Document d WHERE d.batchJob.id = :batchJobId")
+    List<UUID> findIdsByBatchJobId(@Param("batchJobId") UUID batchJobId);
+    
+    // ==================== FULL-TEXT SEARCH ====================
+    
+    /**
+     * Best matching pages across all documents, highest rank first.
+     * Matches on document_pages.search_vector (GIN, see DocumentSearchService);
+     * snippets are built only for the pages returned.
+     */
+    @Query(value = "SELECT h.document_id AS \"documentId\", d.filename AS \"filename\", " +
+                   "h.page_number AS \"pageNumber\", CAST(h.rank AS double precision) AS \"rank\", " +
+                   "ts_headline('simple', p.text, websearch_to_tsquery('simple', :query), " +
+                   "'StartSel=**, StopSel=**, MaxFragments=2, MaxWords=18, MinWords=6, FragmentDelimiter=\" ... \"') AS \"snippet\" " +
+                   "FROM (SELECT p.id, p.document_id, p.page_number, ts_rank_cd(p.search_vector, q) AS rank " +
+                   "      FROM document_pages p, websearch_to_tsquery('simple', :query) q " +
+                   "      WHERE p.search_vector @@ q " +
+                   "      ORDER BY rank DESC, p.document_id, p.page_number " +
+                   "      LIMIT :limit) h " +
+                   "JOIN document_pages p ON p.id = h.id " +
+                   "JOIN documents d ON d.id = h.document_id " +
+                   "ORDER BY h.rank DESC, h.document_id, h.page_number", nativeQuery = true)
+    List<DocumentSearchHit> searchPages(@Param("query") String query, @Param("limit") int limit);
+    
+    /**
+     * Next documents (by id) with extracted text but no page rows - not
+     * searchable until their pages are stored
+     */
+    @Query("SELECT d FROM Document d WHERE d.id > :after " +
+           "AND (d.extractedText IS NOT NULL OR d.extractedTextCompressed IS NOT NULL) " +
+           "AND NOT EXISTS (SELECT 1 FROM DocumentPage p WHERE p.documentId = d.id) ORDER BY d.id")
+    List<Document> findWithoutPagesAfter(@Param("after") UUID after, Pageable limit);
+    
+    @Query("SELECT COUNT(d) FROM Document d " +
+           "WHERE (d.extractedText IS NOT NULL OR d.extractedTextCompressed IS NOT NULL) " +
+           "AND NOT EXISTS (SELECT 1 FROM DocumentPage p WHERE p.documentId = d.id)")
+    long countWithoutPages();
+    
+    // ==================== TEXT COMPRESSION MIGRATION ====================
+    
+    /**
+     * Next documents (by id) holding text in plain columns
+     */
+    @Query("SELECT d FROM Document d WHERE d.id > :after " +
+           "AND (d.extractedText IS NOT NULL OR d.aiAnalysis IS NOT NULL) ORDER BY d.id")
+    List<Document> findWithPlainTextAfter(@Param("after") UUID after, Pageable limit);
+    
+    /**
+     * Next documents (by id) holding text in compressed columns
+     */
+    @Query("SELECT d FROM Document d WHERE d.id > :after " +
+           "AND (d.extractedTextCompressed IS NOT NULL OR d.aiAnalysisCompressed IS NOT NULL) ORDER BY d.id")
+    List<Document> findWithCompressedTextAfter(@Param("after") UUID after, Pageable limit);
+    
+    /**
+     * Store the text columns in a new form - only if the row hasn't changed since it was read
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Document d SET d.extractedText = :text, d.extractedTextCompressed = :textCompressed, " +
+           "d.aiAnalysis = :analysis, d.aiAnalysisCompressed = :analysisCompressed " +
+           "WHERE d.id = :id AND d.updatedAt = :updatedAt")
+    int rewriteText(@Param("id") UUID id,
+                    @Param("updatedAt") LocalDateTime updatedAt,
+                    @Param("text") String text,
+                    @Param("textCompressed") byte[] textCompressed,
+                    @Param("analysis") String analysis,
+                    @Param("analysisCompressed") byte[] analysisCompressed);
+    
+    @Query(value = "SELECT COUNT(*) AS \"documents\", " +
+                   "COUNT(*) FILTER (WHERE extracted_text IS NOT NULL OR ai_analysis IS NOT NULL) AS \"plainRows\", " +
+                   "COUNT(*) FILTER (WHERE extracted_text_zst IS NOT NULL OR ai_analysis_zst IS NOT NULL) AS \"compressedRows\", " +
+                   "COALESCE(SUM(COALESCE(pg_column_size(extracted_text), 0) + COALESCE(pg_column_size(ai_analysis), 0)), 0) AS \"plainBytes\", " +
+                   "COALESCE(SUM(COALESCE(pg_column_size(extracted_text_zst), 0) + COALESCE(pg_column_size(ai_analysis_zst), 0)), 0) AS \"compressedBytes\" " +
+                   "FROM documents", nativeQuery = true)
+    TextStorageStats getTextStorageStats();
+}
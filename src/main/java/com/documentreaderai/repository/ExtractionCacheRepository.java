@@ -0,0 +1,20 @@
+package com.documentreaderai.repository;
+
+import com.documentreaderai.model.entity.ExtractionCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ExtractionCacheRepository extends JpaRepository<ExtractionCacheEntry, String> {
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE ExtractionCacheEntry e SET e.hitCount = e.hitCount + 1, e.lastHitAt = :now WHERE e.cacheKey = :cacheKey")
+    int recordHit(@Param("cacheKey") String cacheKey, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,38 @@
+package com.documentreaderai.repository;
+
+import com.documentreaderai.model.entity.LlmResponseCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface LlmResponseCacheRepository extends JpaRepository<LlmResponseCacheEntry, String> {
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE LlmResponseCacheEntry e SET e.hitCount = e.hitCount + 1, e.lastHitAt = :now, e.expiresAt = :expiresAt " +
+           "WHERE e.cacheKey = :cacheKey")
+    int recordHit(@Param("cacheKey") String cacheKey, @Param("now") LocalDateTime now,
+                  @Param("expiresAt") LocalDateTime expiresAt);
+    
+    // Rows from before expiry was tracked have no expiry and go with the first purge
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM LlmResponseCacheEntry e WHERE e.expiresAt < :now OR e.expiresAt IS NULL")
+    int deleteExpired(@Param("now") LocalDateTime now);
+    
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM LlmResponseCacheEntry e WHERE e.model = :model")
+    int deleteByModel(@Param("model") String model);
+    
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM LlmResponseCacheEntry e")
+    int deleteAllEntries();
+}
@@ -0,0 +1,51 @@
+package com.documentreaderai.service;
+
+import com.documentreaderai.model.entity.Document.DocumentStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * In-memory feed of document analysis status changes
+ *
+ * Analysis services publish here when they save a result, so pages waiting on
+ * a document can be pushed the outcome over SSE instead of polling
+ * /api/documents/{id}/status. Nothing is replayed: subscribers see only events
+ * published after they subscribe, and should read the current status first.
+ */
+@Service
+@Slf4j
+public class AnalysisEventPublisher {
+
+    private static final int EVENT_BUFFER = 1024;
+
+    private final Sinks.Many<AnalysisEvent> sink = Sinks.many().multicast().directBestEffort();
+
+    public void publish(UUID documentId, DocumentStatus status, String detail) {
+        // Analyses finish on different threads - retry briefly instead of failing on contention
+        sink.emitNext(new AnalysisEvent(documentId, status, detail),
+                Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+    }
+
+    /**
+     * Status changes for one document, from now on
+     */
+    public Flux<AnalysisEvent> events(UUID documentId) {
+        // Buffered per subscriber: the sink drops events for subscribers without demand
+        return sink.asFlux()
+                .filter(event -> event.documentId().equals(documentId))
+                .onBackpressureBuffer(EVENT_BUFFER, BufferOverflowStrategy.DROP_OLDEST);
+    }
+
+    public record AnalysisEvent(UUID documentId, DocumentStatus status, String detail) {
+
+        public boolean isFinal() {
+            return status == DocumentStatus.ANALYZED || status == DocumentStatus.FAILED;
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.documentreaderai.service;
+
+import com.documentreaderai.config.TaskExecutors;
+import com.documentreaderai.config.TaskExecutors.Workload;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Two-stage batch pipeline: extraction → analysis
+ *
+ * Extraction (CPU-bound PDF parsing / OCR) runs on a pool sized to the cores,
+ * analysis (LLM-bound) on a pool sized to the model's concurrency. Extracted
+ * documents are handed over through a bounded queue; when it is full,
+ * extraction workers wait, so extracted text never piles up in memory. With
+ * both stages busy a batch takes about max(extract, analyze) instead of the sum.
+ *
+ * Both stages run on their pools in TaskExecutors (EXTRACTION, BATCH); a
+ * document the pools turn away fails with a RejectedExecutionException.
+ *
+ * Work is tracked per batch so it can be cancelled: queued documents are
+ * dropped, running ones are interrupted (OCR stops at the next page, a
+ * blocked LLM call disposes its stream and frees the model slot).
+ */
+@Service
+@Slf4j
+public class BatchPipeline {
+
+    private final Stage extraction;
+    private final Stage analysis;
+    private final Semaphore handoff;
+    private final int queueCapacity;
+    private final AtomicInteger blockedExtractors = new AtomicInteger();
+    private final Map<UUID, Set<Task>> tasks = new ConcurrentHashMap<>();
+
+    // METRICS
+    private final LongAdder cancelledQueued = new LongAdder();
+    private final LongAdder cancelledRunning = new LongAdder();
+
+    public BatchPipeline(
+            TaskExecutors taskExecutors,
+            @Value("${batch.pipeline.queue-capacity:8}") int queueCapacity) {
+        this.extraction = new Stage(taskExecutors.get(Workload.EXTRACTION));
+        this.analysis = new Stage(taskExecutors.get(Workload.BATCH));
+        this.queueCapacity = Math.max(1, queueCapacity);
+
+        // Analysis work admitted at once = running + waiting in the queue
+        this.handoff = new Semaphore(analysis.workers + this.queueCapacity);
+
+        log.info("✓ Batch pipeline: {} extraction workers → queue {} → {} analysis workers",
+                extraction.workers, this.queueCapacity, analysis.workers);
+    }
+
+    /**
+     * Run extract, then analyze (if given) on the analysis stage.
+     * Completes when the document has left the pipeline; a failure in either
+     * stage completes it exceptionally and skips the rest. Cancelled work
+     * completes with a CancellationException once its worker has let go.
+     */
+    public CompletableFuture<Void> submit(UUID batchJobId, Runnable extract, Runnable analyze) {
+        Task task = new Task();
+        tasks.computeIfAbsent(batchJobId, id -> ConcurrentHashMap.newKeySet()).add(task);
+        task.done.whenComplete((ignored, error) -> tasks.computeIfPresent(batchJobId, (id, running) -> {
+            running.remove(task);
+            return running.isEmpty() ? null : running;
+        }));
+
+        try {
+            extraction.executor.execute(() -> extractThenHandOff(task, extract, analyze));
+        } catch (RejectedExecutionException e) {
+            task.fail(e);
+        }
+
+        return task.done;
+    }
+
+    /**
+     * Extraction worker: extract, then wait for room and hand over to analysis
+     */
+    private void extractThenHandOff(Task task, Runnable extract, Runnable analyze) {
+        if (!task.begin()) {
+            return;
+        }
+        try {
+            extraction.run(extract);
+            task.checkCancelled();
+
+            if (analyze == null) {
+                task.complete();
+                return;
+            }
+
+            // Backpressure: wait for room in the analysis queue
+            if (!handoff.tryAcquire()) {
+                blockedExtractors.incrementAndGet();
+                try {
+                    handoff.acquire();
+                } finally {
+                    blockedExtractors.decrementAndGet();
+                }
+            }
+        } catch (Throwable e) {
+            task.fail(e);
+            return;
+        } finally {
+            task.end();
+        }
+
+        try {
+            analysis.executor.execute(() -> {
+                try {
+                    if (!task.begin()) {
+                        return;
+                    }
+                    try {
+                        analysis.run(analyze);
+                        task.checkCancelled();
+                        task.complete();
+                    } catch (Throwable e) {
+                        task.fail(e);
+                    } finally {
+                        task.end();
+                    }
+                } finally {
+                    handoff.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            handoff.release();
+            task.fail(e);
+        }
+    }
+
+    /**
+     * Cancel everything this node has in the pipeline for a batch
+     *
+     * @return number of documents cancelled (queued + running)
+     */
+    public int cancel(UUID batchJobId) {
+        Set<Task> running = tasks.getOrDefault(batchJobId, Set.of());
+        int queued = 0;
+        int interrupted = 0;
+        for (Task task : running) {
+            switch (task.cancel()) {
+                case QUEUED -> queued++;
+                case RUNNING -> interrupted++;
+                default -> { }
+            }
+        }
+        cancelledQueued.add(queued);
+        cancelledRunning.add(interrupted);
+
+        if (queued + interrupted > 0) {
+            log.info("Cancelled batch {} in pipeline: {} queued dropped, {} running interrupted",
+                    batchJobId, queued, interrupted);
+        }
+        return queued + interrupted;
+    }
+
+    /**
+     * Throughput, queue length and utilization of both stages
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("extraction", extraction.getStats());
+        stats.put("analysisQueueCapacity", queueCapacity);
+        stats.put("extractorsWaitingOnQueue", blockedExtractors.get());
+        stats.put("analysis", analysis.getStats());
+        stats.put("cancelledQueued", cancelledQueued.sum());
+        stats.put("cancelledRunning", cancelledRunning.sum());
+        return stats;
+    }
+
+    /**
+     * One document in the pipeline. The worker running it is interrupted on
+     * cancel; between stages (or before its first) it is simply dropped.
+     */
+    private static class Task {
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private Thread runner;
+        private boolean cancelled;
+
+        enum Cancelled { QUEUED, RUNNING, NO }
+
+        synchronized boolean begin() {
+            if (cancelled || done.isDone()) {
+                return false;
+            }
+            runner = Thread.currentThread();
+            return true;
+        }
+
+        synchronized void end() {
+            runner = null;
+            Thread.interrupted();  // Don't hand a cancel interrupt on to the pool thread's next task
+        }
+
+        synchronized Cancelled cancel() {
+            if (cancelled || done.isDone()) {
+                return Cancelled.NO;
+            }
+            cancelled = true;
+            if (runner != null) {
+                runner.interrupt();  // Completes when the worker lets go (see fail)
+                return Cancelled.RUNNING;
+            }
+            done.completeExceptionally(new CancellationException("Batch cancelled"));
+            return Cancelled.QUEUED;
+        }
+
+        /**
+         * Work can swallow the interrupt and return early (e.g. partial OCR) - don't go on with it
+         */
+        synchronized void checkCancelled() {
+            if (cancelled) {
+                throw new CancellationException("Batch cancelled");
+            }
+        }
+
+        void complete() {
+            done.complete(null);
+        }
+
+        synchronized void fail(Throwable error) {
+            // Whatever an interrupted worker threw, the cause is the cancel
+            done.completeExceptionally(cancelled ? new CancellationException("Batch cancelled") : error);
+        }
+    }
+
+    /**
+     * Fixed pool + busy-time accounting for one stage
+     */
+    private static class Stage {
+        private final int workers;
+        private final ThreadPoolTaskExecutor executor;
+
+        // METRICS
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder busyNanos = new LongAdder();
+        private final AtomicLong firstStartNanos = new AtomicLong();
+        private final AtomicLong lastEndNanos = new AtomicLong();
+
+        Stage(ThreadPoolTaskExecutor executor) {
+            this.workers = executor.getCorePoolSize();
+            this.executor = executor;
+        }
+
+        /**
+         * Run the stage's work on the calling worker, counting it as busy time
+         */
+        void run(Runnable work) {
+            long start = System.nanoTime();
+            firstStartNanos.compareAndSet(0, start);
+            try {
+                work.run();
+            } finally {
+                long end = System.nanoTime();
+                busyNanos.add(end - start);
+                lastEndNanos.accumulateAndGet(end, Math::max);
+                completed.increment();
+            }
+        }
+
+        Map<String, Object> getStats() {
+            long done = completed.sum();
+            long span = lastEndNanos.get() - firstStartNanos.get();
+            double seconds = span > 0 ? span / 1e9 : 0;
+
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("workers", workers);
+            stats.put("active", executor.getActiveCount());
+            stats.put("queued", executor.getThreadPoolExecutor().getQueue().size());
+            stats.put("completed", done);
+            stats.put("docsPerMinute", seconds == 0 ? 0.0 : done * 60 / seconds);
+            stats.put("avgMs", done == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(busyNanos.sum() / done));
+            // Share of worker time spent busy between the first start and the last finish
+            stats.put("utilization", seconds == 0 ? 0.0 : busyNanos.sum() / 1e9 / (workers * seconds));
+            return stats;
+        }
+    }
+}
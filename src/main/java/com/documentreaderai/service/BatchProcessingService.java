@@ -1,15 +1,18 @@
 package com.documentreaderai.service;
 
+import com.documentreaderai.model.dto.BatchDocumentSummary;
 import com.documentreaderai.model.entity.BatchJob;
 import com.documentreaderai.model.entity.BatchJob.BatchStatus;
 import com.documentreaderai.model.entity.Document;
+import com.documentreaderai.model.entity.BatchWorkItem;
+import com.documentreaderai.model.entity.BatchWorkItem.WorkState;
 import com.documentreaderai.model.entity.Document.DocumentStatus;
 import com.documentreaderai.repository.BatchJobRepository;
+import com.documentreaderai.repository.BatchWorkItemRepository;
 import com.documentreaderai.repository.DocumentRepository;
 import com.documentreaderai.service.ProductionPdfService.ExtractionResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -18,7 +21,6 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.*;
@@ -33,12 +35,15 @@ public class BatchProcessingService {
     private final DocumentRepository documentRepository;
     private final ProductionPdfService pdfService;  // ✅ FIXED: Use ProductionPdfService
     private final DocumentAnalysisService documentAnalysisService;
+    private final ExtractionCacheService extractionCacheService;
+    private final RetrievalService retrievalService;
+    private final DocumentPageService documentPageService;
+    private final BatchProgressPublisher progressPublisher;
+    private final BatchProgressTracker progressTracker;
+    private final BatchPipeline pipeline;  // Extraction and analysis stages, sized separately
+    private final BatchWorkItemRepository workItemRepository;
     
     private static final String UPLOAD_DIR = "./uploads/";
-    private static final int MAX_CONCURRENT_WORKERS = 4; // Optimized for MacBook Air M4
-    
-    // Thread pool for parallel processing
-    private final ExecutorService executorService = Executors.newFixedThreadPool(MAX_CONCURRENT_WORKERS);
     
     /**
      * Create a new batch job from multiple files
@@ -58,13 +63,24 @@ public class BatchProcessingService {
             throw new RuntimeException("Maximum 1000 files allowed per batch");
         }
         
+        // Store all files first, so the documents go to the database in one go
+        List<Document> documents = new ArrayList<>();
+        for (MultipartFile file : files) {
+            try {
+                documents.add(storeFile(file));
+            } catch (Exception e) {
+                log.error("Failed to upload file: {}", file.getOriginalFilename(), e);
+                // Continue with other files
+            }
+        }
+        
         // Create batch job
         BatchJob batchJob = BatchJob.builder()
                 .jobName(jobName)
                 .description(description)
                 .analysisTemplate(analysisTemplate)
                 .status(BatchStatus.PENDING)
-                .totalDocuments(files.size())
+                .totalDocuments(documents.size())
                 .processedCount(0)
                 .successCount(0)
                 .failureCount(0)
@@ -72,30 +88,23 @@ public class BatchProcessingService {
         
         batchJob = batchJobRepository.save(batchJob);
         
-        // Upload all files
-        List<Document> documents = new ArrayList<>();
-        for (MultipartFile file : files) {
-            try {
-                Document document = uploadFile(file, batchJob);
-                documents.add(document);
-            } catch (Exception e) {
-                log.error("Failed to upload file: {}", file.getOriginalFilename(), e);
-                // Continue with other files
-            }
+        // Batched INSERTs, or COPY for large batches
+        long startTime = System.currentTimeMillis();
+        for (Document document : documents) {
+            document.setBatchJob(batchJob);
         }
+        documentRepository.insertAll(documents);
         
-        batchJob.setDocuments(documents);
-        batchJob = batchJobRepository.save(batchJob);
-        
-        log.info("Batch job created with {} documents", documents.size());
+        log.info("Batch job created with {} documents ({}ms to insert)",
+                documents.size(), System.currentTimeMillis() - startTime);
         
         return batchJob;
     }
     
     /**
-     * Upload single file as part of batch
+     * Store single file as part of batch; the document is not saved yet
      */
-    private Document uploadFile(MultipartFile file, BatchJob batchJob) throws IOException {
+    private Document storeFile(MultipartFile file) throws IOException {
         // Validate
         if (!file.getOriginalFilename().toLowerCase().endsWith(".pdf")) {
             throw new RuntimeException("Only PDF files allowed: " + file.getOriginalFilename());
@@ -107,172 +116,243 @@ public class BatchProcessingService {
             Files.createDirectories(uploadPath);
         }
         
-        // Save file
+        // Save file (hashed while streaming)
         String uniqueFilename = UUID.randomUUID() + "_" + file.getOriginalFilename();
         Path filePath = uploadPath.resolve(uniqueFilename);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+        String contentHash = ExtractionCacheService.copyAndHash(file.getInputStream(), filePath);
         
         // Create document entity
-        Document document = Document.builder()
+        return Document.builder()
                 .filename(file.getOriginalFilename())
                 .filePath(filePath.toString())
                 .fileSize(file.getSize())
+                .contentHash(contentHash)
                 .status(DocumentStatus.UPLOADED)
-                .batchJob(batchJob)
                 .build();
-        
-        return documentRepository.save(document);
     }
     
     /**
-     * Start processing batch job (parallel execution)
+     * Start processing batch job: queue its documents for the batch workers
+     * Safe to call again - documents already queued (or done) are not re-added
      */
-    @Async
     @Transactional
     public void processBatchJob(UUID batchJobId) {
         log.info("=== BATCH PROCESSING STARTED: {} ===", batchJobId);
         
         BatchJob batchJob = batchJobRepository.findById(batchJobId)
                 .orElseThrow(() -> new RuntimeException("Batch job not found"));
+        if (batchJob.getStatus() == BatchStatus.CANCELLED) {
+            throw new IllegalStateException("Batch job was cancelled");
+        }
         
         // Update status
-        batchJob.setStatus(BatchStatus.RUNNING);
-        batchJob.setStartedAt(LocalDateTime.now());
-        batchJobRepository.saveAndFlush(batchJob);
+        if (batchJob.getStatus() != BatchStatus.RUNNING) {
+            batchJob.setStatus(BatchStatus.RUNNING);
+            if (batchJob.getStartedAt() == null) {
+                batchJob.setStartedAt(LocalDateTime.now());
+            }
+            batchJobRepository.saveAndFlush(batchJob);
+        }
+        progressTracker.start(batchJob);
+        progressPublisher.progress(batchJob);
         
-        // Get all documents in this batch
-        List<Document> documents = batchJob.getDocuments();
-        log.info("Processing {} documents with {} workers", documents.size(), MAX_CONCURRENT_WORKERS);
+        // One durable work item per document; any node's BatchQueueWorker picks them up
+        Set<UUID> queued = new HashSet<>(workItemRepository.findDocumentIdsByBatchJobId(batchJobId));
+        List<BatchWorkItem> items = documentRepository.findIdsByBatchJobId(batchJobId).stream()
+                .filter(documentId -> !queued.contains(documentId))
+                .map(documentId -> BatchWorkItem.builder()
+                        .batchJobId(batchJobId)
+                        .documentId(documentId)
+                        .state(WorkState.PENDING)
+                        .build())
+                .collect(Collectors.toList());
+        workItemRepository.saveAll(items);
         
-        // Create futures for parallel processing
-        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        log.info("Queued {} documents ({} already queued)", items.size(), queued.size());
         
-        for (Document document : documents) {
-        	CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
-        	    try {
-        	        processDocument(document, batchJobId);
-        	    } catch (Exception e) {
-        	        BatchJob bj = batchJobRepository.findById(batchJobId).orElseThrow();
-        	        markDocumentFailed(document, bj, e.getMessage());
-        	    }
-        	}, executorService);
-
-            futures.add(future);
+        // Nothing left to do (empty batch, or restarted after the last document)
+        if (workItemRepository.countByBatchJobIdAndStateIn(batchJobId, List.of(WorkState.PENDING, WorkState.LEASED)) == 0) {
+            completeBatch(batchJobId);
+        }
+    }
+    
+    /**
+     * Run one claimed document through the extract → analyze pipeline.
+     * Completes when it has left the pipeline; a failed document is marked FAILED.
+     */
+    public CompletableFuture<Void> processWorkItem(BatchWorkItem item) {
+        UUID batchJobId = item.getBatchJobId();
+        Document document = documentRepository.findById(item.getDocumentId()).orElse(null);
+        BatchJob batchJob = batchJobRepository.findById(batchJobId).orElse(null);
+        if (document == null || batchJob == null) {
+            return CompletableFuture.failedFuture(new RuntimeException("Document or batch job not found"));
         }
         
-        // Wait for all to complete
-        try {
-            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
-        } catch (Exception e) {
-            log.error("Batch processing error", e);
+        String template = batchJob.getAnalysisTemplate();
+        boolean analyze = template != null && !template.isEmpty();
+        
+        // Extraction of the next documents overlaps analysis of earlier ones
+        return pipeline.submit(batchJobId,
+                () -> extractDocument(document, batchJobId),
+                analyze ? () -> analyzeDocument(document, batchJobId, template) : null)
+            .whenComplete((ignored, error) -> {
+                Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                if (cause == null) {
+                    log.info("✅ Completed: {}", document.getFilename());
+                } else if (cause instanceof CancellationException) {
+                    log.info("⏹ Stopped: {}", document.getFilename());
+                    markDocumentAbandoned(document, batchJobId);
+                } else if (cause instanceof RejectedExecutionException) {
+                    log.warn("↻ Pipeline full, requeued: {}", document.getFilename());
+                    markDocumentAbandoned(document, batchJobId);
+                } else {
+                    log.error("❌ Failed: {}", document.getFilename(), cause);
+                    markDocumentFailed(document, batchJobId, cause.getMessage());
+                }
+            });
+    }
+    
+    /**
+     * Count a finished work item; the batch completes when none are left
+     */
+    public void recordItemResult(UUID batchJobId, boolean success) {
+        updateBatchProgress(batchJobId, success);
+        
+        long remaining = workItemRepository.countByBatchJobIdAndStateIn(batchJobId,
+                List.of(WorkState.PENDING, WorkState.LEASED));
+        if (remaining == 0) {
+            completeBatch(batchJobId);
+        }
+    }
+    
+    /**
+     * Mark the batch COMPLETED - once, even when several nodes see it finish
+     */
+    private void completeBatch(UUID batchJobId) {
+        LocalDateTime now = LocalDateTime.now();
+        boolean completed = batchJobRepository.transitionStatus(
+                batchJobId, BatchStatus.RUNNING, BatchStatus.COMPLETED, now, now) > 0;
+        
+        // Counters were written by the tracker, not the entity
+        progressTracker.finish(batchJobId);
+        if (!completed) {
+            return;  // Another node completed it, or it was paused / cancelled
         }
         
-        // Update batch job status
-        batchJob = batchJobRepository.findById(batchJobId).orElseThrow();
-        batchJob.setStatus(BatchStatus.COMPLETED);
-        batchJob.setCompletedAt(LocalDateTime.now());
-        batchJobRepository.saveAndFlush(batchJob);
+        BatchJob batchJob = progressTracker.view(batchJobRepository.findById(batchJobId).orElseThrow());
+        progressPublisher.progress(batchJob);
         
         log.info("=== BATCH PROCESSING COMPLETED: {} ===", batchJobId);
         log.info("Results - Success: {}, Failed: {}", batchJob.getSuccessCount(), batchJob.getFailureCount());
     }
     
     /**
-     * Process single document in batch
+     * Pipeline stage 1: extract text and index it
      */
-    @Transactional
-    public void processDocument(Document document, UUID batchJobId) {
-
+    private void extractDocument(Document document, UUID batchJobId) {
+        log.info("Processing: {}", document.getFilename());
+        
+        // Extract text with intelligence (OCR if needed)
+        document.setStatus(DocumentStatus.PROCESSING);
+        documentRepository.saveAndFlush(document);
+        progressPublisher.documentStatus(batchJobId, document.getId(), DocumentStatus.PROCESSING);
+        
+        // Intelligent extraction, served from the content-hash cache on re-uploads
+        ExtractionResult result = extractionCacheService.extract(
+                document.getFilePath(), document.getContentHash(), document.getFileSize());
+        
+        // Build full text with extraction info
+        StringBuilder fullText = new StringBuilder();
+        fullText.append(result.getText());
+        fullText.append("\n\n=== EXTRACTION INFO ===\n\n");
+        fullText.append(result.getSummary());
+        
+        document.setExtractedText(fullText.toString());
+        document.setTotalPages(result.getPages().size());
+        document.setStatus(DocumentStatus.READY);
+        documentRepository.saveAndFlush(document);
+        documentPageService.savePages(document.getId(), result);
+        progressPublisher.documentStatus(batchJobId, document.getId(), DocumentStatus.READY);
+        
+        // Page-aware chunks for retrieval at question time
+        retrievalService.indexDocument(document.getId(), result);
+        
+        log.info("✓ Text extracted: {} (Method: {}, OCR pages: {}, {}ms)", 
+                document.getFilename(), 
+                result.getMethod(),
+                result.getOcrPageCount(),
+                result.getProcessingTimeMs());
+    }
+    
+    /**
+     * Pipeline stage 2: analyze the extracted text with AI
+     */
+    private void analyzeDocument(Document document, UUID batchJobId, String template) {
+        document.setStatus(DocumentStatus.ANALYZING);
+        documentRepository.saveAndFlush(document);
+        progressPublisher.documentStatus(batchJobId, document.getId(), DocumentStatus.ANALYZING);
+        
+        // Batch calls queue behind interactive ones on the same model
+        String analysis = OllamaScheduler.withPriority(OllamaScheduler.Priority.BATCH,
+            () -> documentAnalysisService.analyzeFundAgreement(
+                document.getId(),
+                document.getExtractedText(), 
+                template
+            ));
+        
+        document.setAiAnalysis(analysis);
+        document.setStatus(DocumentStatus.ANALYZED);
+        documentRepository.saveAndFlush(document);
+        progressPublisher.documentStatus(batchJobId, document.getId(), DocumentStatus.ANALYZED);
+        
+        log.info("✓ AI analysis complete: {}", document.getFilename());
+    }
+    
+    /**
+     * Mark document as failed
+     */
+    public void markDocumentFailed(Document document, UUID batchJobId, String error) {
         try {
-            log.info("Processing: {}", document.getFilename());
-            
-            // Step 1: Extract text with intelligence (OCR if needed)
-            document.setStatus(DocumentStatus.PROCESSING);
+            document.setStatus(DocumentStatus.FAILED);
+            document.setAiAnalysis("Error: " + error);
             documentRepository.saveAndFlush(document);
-            
-            // ✅ FIXED: Use ProductionPdfService with intelligent extraction
-            ExtractionResult result = pdfService.extractWithIntelligence(document.getFilePath());
-            
-            // Build full text with extraction info
-            StringBuilder fullText = new StringBuilder();
-            fullText.append(result.getText());
-            fullText.append("\n\n=== EXTRACTION INFO ===\n\n");
-            fullText.append(result.getSummary());
-            
-            document.setExtractedText(fullText.toString());
-            document.setTotalPages(result.getPages().size());
-            document.setStatus(DocumentStatus.READY);
+            progressPublisher.documentStatus(batchJobId, document.getId(), DocumentStatus.FAILED);
+        } catch (Exception e) {
+            log.error("Failed to update error status", e);
+        }
+    }
+    
+    /**
+     * Put a document whose processing was stopped back to its state before this run
+     */
+    private void markDocumentAbandoned(Document document, UUID batchJobId) {
+        try {
+            DocumentStatus status = document.hasExtractedText() ? DocumentStatus.READY : DocumentStatus.UPLOADED;
+            document.setStatus(status);
             documentRepository.saveAndFlush(document);
-            
-            log.info("✓ Text extracted: {} (Method: {}, {}ms)", 
-                    document.getFilename(), 
-                    result.usedOcr() ? "OCR" : "Native",
-                    result.getProcessingTimeMs());
-            
-            BatchJob batchJob = batchJobRepository.findById(batchJobId).orElseThrow();
-
-            
-            // Step 2: Analyze with AI (if template provided)
-            if (batchJob.getAnalysisTemplate() != null && !batchJob.getAnalysisTemplate().isEmpty()) {
-                document.setStatus(DocumentStatus.ANALYZING);
-                documentRepository.saveAndFlush(document);
-                
-                String analysis = documentAnalysisService.analyzeFundAgreement(
-                    document.getExtractedText(), 
-                    batchJob.getAnalysisTemplate()
-                );
-                
-                document.setAiAnalysis(analysis);
-                document.setStatus(DocumentStatus.ANALYZED);
-                documentRepository.saveAndFlush(document);
-                
-                log.info("✓ AI analysis complete: {}", document.getFilename());
-            }
-            
-            // Update batch progress
-            updateBatchProgress(batchJob.getId(), true);
-            
-            log.info("✅ Completed: {}", document.getFilename());
-            
+            progressPublisher.documentStatus(batchJobId, document.getId(), status);
         } catch (Exception e) {
-            log.error("❌ Failed: {}", document.getFilename(), e);
-            throw e;
+            log.error("Failed to reset stopped document", e);
         }
     }
     
+    public void markDocumentFailed(UUID documentId, UUID batchJobId, String error) {
+        documentRepository.findById(documentId)
+                .ifPresent(document -> markDocumentFailed(document, batchJobId, error));
+    }
+    
     /**
-     * Mark document as failed
+     * Update batch job progress (lock-free; written behind by the tracker)
      */
-    @Transactional
-    public void markDocumentFailed(Document document, BatchJob batchJob, String error) {
-        document.setStatus(DocumentStatus.FAILED);
-        document.setAiAnalysis("Error: " + error);
-        documentRepository.saveAndFlush(document);
-        
-        updateBatchProgress(batchJob.getId(), false);
+    public void updateBatchProgress(UUID batchJobId, boolean success) {
+        progressTracker.record(batchJobId, success);
     }
     
     /**
-     * Update batch job progress (synchronized for thread safety)
+     * Extraction / analysis stage throughput, queue length and utilization
      */
-    @Transactional
-    public synchronized void updateBatchProgress(UUID batchJobId, boolean success) {
-        BatchJob batchJob = batchJobRepository.findById(batchJobId).orElseThrow();
-        
-        batchJob.setProcessedCount(batchJob.getProcessedCount() + 1);
-        
-        if (success) {
-            batchJob.setSuccessCount(batchJob.getSuccessCount() + 1);
-        } else {
-            batchJob.setFailureCount(batchJob.getFailureCount() + 1);
-        }
-        
-        batchJobRepository.saveAndFlush(batchJob);
-        
-        log.info("Batch progress: {}/{} ({}% complete)", 
-            batchJob.getProcessedCount(), 
-            batchJob.getTotalDocuments(),
-            (int) batchJob.getProgressPercentage());
+    public Map<String, Object> getPipelineStats() {
+        return pipeline.getStats();
     }
     
     /**
@@ -290,23 +370,104 @@ public class BatchProcessingService {
     }
     
     /**
-     * Cancel batch job
+     * Batch job with live progress counters, for display (detached - never save it)
      */
-    @Transactional
-    public void cancelBatchJob(UUID batchJobId) {
+    public BatchJob getBatchJobProgress(UUID id) {
+        return batchJobRepository.findById(id).map(progressTracker::view).orElse(null);
+    }
+    
+    /**
+     * Pause batch job: no new documents are claimed and the ones in flight are
+     * stopped and put back in the queue (other nodes stop theirs on their next poll)
+     */
+    public Map<String, Object> pauseBatchJob(UUID batchJobId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (batchJobRepository.transitionStatus(batchJobId, BatchStatus.RUNNING, BatchStatus.PAUSED, null, now) == 0) {
+            throw new IllegalStateException("Batch job is not running");
+        }
+        
+        int stopped = pipeline.cancel(batchJobId);
+        long waiting = workItemRepository.countByBatchJobIdAndStateIn(batchJobId,
+                List.of(WorkState.PENDING, WorkState.LEASED));
+        progressPublisher.progress(progressTracker.view(batchJobRepository.findById(batchJobId).orElseThrow()));
+        
+        log.info("⏸ Batch job paused: {} ({} in flight stopped, {} documents waiting)", batchJobId, stopped, waiting);
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("status", BatchStatus.PAUSED);
+        result.put("stoppedInFlight", stopped);
+        result.put("documentsWaiting", waiting);
+        return result;
+    }
+    
+    /**
+     * Resume a paused batch job where it stopped
+     */
+    public Map<String, Object> resumeBatchJob(UUID batchJobId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (batchJobRepository.transitionStatus(batchJobId, BatchStatus.PAUSED, BatchStatus.RUNNING, null, now) == 0) {
+            throw new IllegalStateException("Batch job is not paused");
+        }
+        
+        long waiting = workItemRepository.countByBatchJobIdAndStateIn(batchJobId,
+                List.of(WorkState.PENDING, WorkState.LEASED));
+        if (waiting == 0) {
+            completeBatch(batchJobId);
+        } else {
+            progressPublisher.progress(progressTracker.view(batchJobRepository.findById(batchJobId).orElseThrow()));
+        }
+        
+        log.info("▶ Batch job resumed: {} ({} documents waiting)", batchJobId, waiting);
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("status", BatchStatus.RUNNING);
+        result.put("documentsWaiting", waiting);
+        return result;
+    }
+    
+    /**
+     * Cancel batch job: queued documents are dropped and the ones in flight
+     * are stopped (other nodes stop theirs on their next poll)
+     */
+    public Map<String, Object> cancelBatchJob(UUID batchJobId) {
         BatchJob batchJob = batchJobRepository.findById(batchJobId).orElseThrow();
-        batchJob.setStatus(BatchStatus.CANCELLED);
-        batchJob.setCompletedAt(LocalDateTime.now());
-        batchJobRepository.save(batchJob);
+        if (BatchProgressPublisher.isFinished(batchJob.getStatus())) {
+            throw new IllegalStateException("Batch job is already " + batchJob.getStatus());
+        }
+        
+        // Status only - saving the entity would overwrite counters flushed meanwhile
+        LocalDateTime now = LocalDateTime.now();
+        batchJobRepository.updateStatus(batchJobId, BatchStatus.CANCELLED, now, now);
+        
+        int abandoned = workItemRepository.closeOpen(batchJobId,
+                List.of(WorkState.PENDING, WorkState.LEASED), WorkState.CANCELLED, now);
+        int stopped = pipeline.cancel(batchJobId);
+        progressTracker.finish(batchJobId);  // Final counters; documents stopped above are not counted
         
-        log.info("Batch job cancelled: {}", batchJobId);
+        progressPublisher.progress(progressTracker.view(batchJobRepository.findById(batchJobId).orElseThrow()));
+        
+        log.info("Batch job cancelled: {} ({} documents abandoned, {} in flight stopped)", batchJobId, abandoned, stopped);
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("status", BatchStatus.CANCELLED);
+        result.put("documentsAbandoned", abandoned);
+        result.put("stoppedInFlight", stopped);
+        return result;
+    }
+    
+    /**
+     * Documents of a batch for status display (no text columns)
+     */
+    public List<BatchDocumentSummary> getBatchDocuments(UUID batchJobId) {
+        return documentRepository.findSummariesByBatchJobId(batchJobId);
     }
     
     /**
      * Get batch results summary with real-time progress
+     * Also the snapshot a progress stream starts from
      */
     public Map<String, Object> getBatchSummary(UUID batchJobId) {
-        BatchJob batchJob = batchJobRepository.findById(batchJobId).orElseThrow();
+        BatchJob batchJob = progressTracker.view(batchJobRepository.findById(batchJobId).orElseThrow());
         
         Map<String, Object> summary = new HashMap<>();
         summary.put("jobName", batchJob.getJobName());
@@ -320,9 +481,8 @@ public class BatchProcessingService {
         summary.put("startedAt", batchJob.getStartedAt());
         summary.put("completedAt", batchJob.getCompletedAt());
         
-        // Get document statuses
-        List<Document> documents = batchJob.getDocuments();
-        summary.put("documents", documents.stream()
+        // Get document statuses (projection - not the full documents)
+        summary.put("documents", getBatchDocuments(batchJobId).stream()
             .map(doc -> Map.of(
                 "id", doc.getId(),
                 "filename", doc.getFilename(),
@@ -0,0 +1,80 @@
+package com.documentreaderai.service;
+
+import com.documentreaderai.model.entity.BatchJob;
+import com.documentreaderai.model.entity.BatchJob.BatchStatus;
+import com.documentreaderai.model.entity.Document.DocumentStatus;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * In-memory feed of batch progress, fed by BatchProcessingService
+ *
+ * Carries per-document status transitions and the batch counters after each
+ * change, so batch pages are pushed updates instead of reloading the batch and
+ * all of its documents every few seconds. Nothing is replayed: a subscriber
+ * sees events from the moment it subscribes and takes its starting point from
+ * a snapshot (see BatchProcessingService.getBatchSummary).
+ */
+@Service
+public class BatchProgressPublisher {
+
+    private static final int EVENT_BUFFER = 1024;
+
+    private final Sinks.Many<BatchEvent> sink = Sinks.many().multicast().directBestEffort();
+
+    public void documentStatus(UUID batchJobId, UUID documentId, DocumentStatus status) {
+        emit(new DocumentStatusChanged(batchJobId, documentId, status));
+    }
+
+    public void progress(BatchJob batchJob) {
+        emit(new ProgressChanged(
+                batchJob.getId(),
+                batchJob.getStatus(),
+                batchJob.getTotalDocuments(),
+                batchJob.getProcessedCount(),
+                batchJob.getSuccessCount(),
+                batchJob.getFailureCount(),
+                batchJob.getProgressPercentage(),
+                batchJob.getEstimatedTimeRemaining()));
+    }
+
+    private void emit(BatchEvent event) {
+        // Workers finish documents concurrently - retry briefly instead of failing on contention
+        sink.emitNext(event, Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+    }
+
+    /**
+     * Events for one batch, from now on
+     */
+    public Flux<BatchEvent> events(UUID batchJobId) {
+        // Buffered per subscriber: the sink drops events for subscribers without demand
+        return sink.asFlux()
+                .filter(event -> event.batchJobId().equals(batchJobId))
+                .onBackpressureBuffer(EVENT_BUFFER, BufferOverflowStrategy.DROP_OLDEST);
+    }
+
+    public sealed interface BatchEvent permits DocumentStatusChanged, ProgressChanged {
+        UUID batchJobId();
+    }
+
+    public record DocumentStatusChanged(UUID batchJobId, UUID documentId, DocumentStatus status) implements BatchEvent {
+    }
+
+    public record ProgressChanged(UUID batchJobId, BatchStatus status, Integer totalDocuments,
+                                  Integer processedCount, Integer successCount, Integer failureCount,
+                                  double progressPercentage, Long estimatedTimeRemaining) implements BatchEvent {
+
+        public boolean isFinished() {
+            return BatchProgressPublisher.isFinished(status);
+        }
+    }
+
+    public static boolean isFinished(BatchStatus status) {
+        return status == BatchStatus.COMPLETED || status == BatchStatus.FAILED || status == BatchStatus.CANCELLED;
+    }
+}
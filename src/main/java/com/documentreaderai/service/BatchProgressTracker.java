@@ -0,0 +1,243 @@
+package com.documentreaderai.service;
+
+import com.documentreaderai.config.TaskExecutors;
+import com.documentreaderai.config.TaskExecutors.Timer;
+import com.documentreaderai.model.entity.BatchJob;
+import com.documentreaderai.repository.BatchJobRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Live progress counters for running batches
+ *
+ * Workers bump striped counters (no lock, no row read) and the totals are
+ * written behind to batch_jobs as an in-place increment - every N documents
+ * or on a timer, whichever comes first. Unflushed deltas are lost on a crash,
+ * like any in-flight work.
+ *
+ * Batches run on every node that works the queue: each node counts only its
+ * own documents, and the increments add up in the row. Views are the stored
+ * row (every node's flushed counts, and the status) plus this node's
+ * unflushed deltas, so other nodes' documents show up within one flush.
+ */
+@Service
+@Slf4j
+public class BatchProgressTracker {
+
+    private static final long IDLE_EVICT_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private final BatchJobRepository batchJobRepository;
+    private final BatchProgressPublisher progressPublisher;
+    private final int flushEvery;
+    private final ScheduledFuture<?> flusher;
+    private final Map<UUID, Progress> running = new ConcurrentHashMap<>();
+
+    // METRICS
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder flushFailures = new LongAdder();
+
+    public BatchProgressTracker(
+            BatchJobRepository batchJobRepository,
+            BatchProgressPublisher progressPublisher,
+            TaskExecutors taskExecutors,
+            @Value("${batch.progress.flush-every:25}") int flushEvery,
+            @Value("${batch.progress.flush-interval-ms:1000}") long flushIntervalMs) {
+        this.batchJobRepository = batchJobRepository;
+        this.progressPublisher = progressPublisher;
+        this.flushEvery = Math.max(1, flushEvery);
+        this.flusher = taskExecutors.timer(Timer.BATCH_PROGRESS)
+                .scheduleWithFixedDelay(this::flushAll, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.cancel(true);
+        flushAll();  // Don't drop the last deltas on a clean stop
+    }
+
+    /**
+     * Start tracking a batch - a restart while it is tracked keeps its unflushed deltas
+     */
+    public void start(BatchJob batchJob) {
+        running.computeIfAbsent(batchJob.getId(), Progress::new);
+    }
+
+    /**
+     * Count one finished document - no row read, and no lock beyond the map's
+     * own unless this one triggers a flush
+     */
+    public void record(UUID batchJobId, boolean success) {
+        // Counted inside compute, so an eviction can't drop the Progress in between.
+        // Started on another node or before a restart - only deltas are counted here
+        Progress progress = running.compute(batchJobId, (id, tracked) -> {
+            Progress counting = tracked != null ? tracked : new Progress(id);
+            counting.lastRecordNanos = System.nanoTime();
+            (success ? counting.succeeded : counting.failed).increment();
+            return counting;
+        });
+        recorded.increment();
+
+        if (progress.pending() >= flushEvery) {
+            flush(progress, false);
+        }
+    }
+
+    /**
+     * Final flush; the batch is no longer tracked afterwards. If the flush
+     * fails, or documents were counted during it, it stays tracked and the
+     * timer flushes it, like any other batch.
+     */
+    public void finish(UUID batchJobId) {
+        Progress progress = running.get(batchJobId);
+        if (progress != null && flush(progress, true)) {
+            evictIf(progress, false);
+        }
+    }
+
+    /**
+     * The stored batch (read just before) plus the deltas not flushed from this
+     * node yet. While a flush is in flight the counts may be off by that flush.
+     * Always a detached copy (safe to modify) - never save it.
+     */
+    public BatchJob view(BatchJob stored) {
+        Progress progress = running.get(stored.getId());
+        int pendingSucceeded = progress != null ? progress.pendingSucceeded() : 0;
+        int pendingFailed = progress != null ? progress.pendingFailed() : 0;
+
+        BatchJob live = BatchJob.builder()
+                .id(stored.getId())
+                .status(stored.getStatus())
+                .totalDocuments(stored.getTotalDocuments())
+                .processedCount(stored.getProcessedCount() + pendingSucceeded + pendingFailed)
+                .successCount(stored.getSuccessCount() + pendingSucceeded)
+                .failureCount(stored.getFailureCount() + pendingFailed)
+                .startedAt(stored.getStartedAt())
+                .build();
+        live.setJobName(stored.getJobName());
+        live.setDescription(stored.getDescription());
+        live.setAnalysisTemplate(stored.getAnalysisTemplate());
+        live.setCompletedAt(stored.getCompletedAt());
+        live.setCreatedAt(stored.getCreatedAt());
+        live.setUpdatedAt(stored.getUpdatedAt());
+        return live;
+    }
+
+    private void flushAll() {
+        running.values().forEach(progress -> {
+            flush(progress, false);
+            evictIf(progress, true);  // Finished elsewhere, or no longer worked on here
+        });
+    }
+
+    /**
+     * Stop tracking a batch with nothing left to flush (and, if idleOnly, no
+     * document counted for a while). Checked under the map's lock, like
+     * record's increment, so no count lands on an evicted Progress.
+     */
+    private void evictIf(Progress progress, boolean idleOnly) {
+        running.computeIfPresent(progress.batchJobId, (id, tracked) -> {
+            boolean idle = System.nanoTime() - tracked.lastRecordNanos > IDLE_EVICT_NANOS;
+            boolean evict = tracked == progress && tracked.pending() == 0 && (idle || !idleOnly);
+            return evict ? null : tracked;
+        });
+    }
+
+    /**
+     * Write the deltas since the last flush as one atomic increment and publish
+     * the stored counters. Only one thread flushes a batch; the others carry on
+     * counting. False if the deltas could not be written.
+     */
+    private boolean flush(Progress progress, boolean wait) {
+        if (wait) {
+            progress.flushLock.lock();
+        } else if (!progress.flushLock.tryLock()) {
+            return false;
+        }
+        try {
+            int succeeded = progress.succeeded.intValue();
+            int failed = progress.failed.intValue();
+            int deltaSucceeded = succeeded - progress.flushedSucceeded;
+            int deltaFailed = failed - progress.flushedFailed;
+            if (deltaSucceeded == 0 && deltaFailed == 0) {
+                return true;
+            }
+
+            batchJobRepository.incrementProgress(progress.batchJobId,
+                    deltaSucceeded + deltaFailed, deltaSucceeded, deltaFailed, LocalDateTime.now());
+            progress.flushedSucceeded = succeeded;
+            progress.flushedFailed = failed;
+            flushes.increment();
+
+            // Re-read so the published counts include the other nodes' flushes
+            batchJobRepository.findById(progress.batchJobId).map(this::view).ifPresent(live -> {
+                progressPublisher.progress(live);
+                log.info("Batch progress: {}/{} ({}% complete)",
+                        live.getProcessedCount(), live.getTotalDocuments(), (int) live.getProgressPercentage());
+            });
+            return true;
+
+        } catch (Exception e) {
+            // Deltas stay pending and go out with the next flush
+            flushFailures.increment();
+            log.warn("Failed to flush progress of batch {}: {}", progress.batchJobId, e.getMessage());
+            return false;
+        } finally {
+            progress.flushLock.unlock();
+        }
+    }
+
+    /**
+     * Counters and flush totals
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("runningBatches", running.size());
+        stats.put("recorded", recorded.sum());
+        stats.put("flushes", flushes.sum());
+        stats.put("flushFailures", flushFailures.sum());
+        stats.put("flushEvery", flushEvery);
+        return stats;
+    }
+
+    private static class Progress {
+        private final UUID batchJobId;
+        private volatile long lastRecordNanos = System.nanoTime();
+
+        private final LongAdder succeeded = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+
+        // Written under flushLock
+        private final ReentrantLock flushLock = new ReentrantLock();
+        private volatile int flushedSucceeded = 0;
+        private volatile int flushedFailed = 0;
+
+        Progress(UUID batchJobId) {
+            this.batchJobId = batchJobId;
+        }
+
+        int pendingSucceeded() {
+            return succeeded.intValue() - flushedSucceeded;
+        }
+
+        int pendingFailed() {
+            return failed.intValue() - flushedFailed;
+        }
+
+        long pending() {
+            return pendingSucceeded() + pendingFailed();
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.documentreaderai.service;
+
+import com.documentreaderai.config.TaskExecutors;
+import com.documentreaderai.config.TaskExecutors.Timer;
+import com.documentreaderai.model.entity.BatchJob.BatchStatus;
+import com.documentreaderai.model.entity.BatchWorkItem;
+import com.documentreaderai.model.entity.BatchWorkItem.WorkState;
+import com.documentreaderai.repository.BatchJobRepository;
+import com.documentreaderai.repository.BatchWorkItemRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pulls batch documents from the batch_work_items queue
+ *
+ * Every node polls for work, leases what it has room for, keeps the leases
+ * alive while the documents are in its pipeline and marks them done. A node
+ * that dies simply stops heartbeating: its leases run out and the items are
+ * claimed again, by itself after a restart or by any other node. Finished
+ * items are never redone, so a restarted batch resumes where it stopped.
+ *
+ * Each poll also stops this node's documents of batches that were paused or
+ * cancelled elsewhere; a paused document goes back to the queue uncounted.
+ */
+@Service
+@Slf4j
+public class BatchQueueWorker {
+
+    private final BatchWorkItemRepository workItemRepository;
+    private final BatchProcessingService batchProcessingService;
+    private final BatchJobRepository batchJobRepository;
+    private final BatchPipeline pipeline;
+    private final String nodeId;
+    private final Duration lease;
+    private final int maxInFlight;
+    private final int maxAttempts;
+    private final List<ScheduledFuture<?>> timers = new ArrayList<>();
+    private final Map<UUID, UUID> inFlight = new ConcurrentHashMap<>();  // item → batch
+
+    // METRICS
+    private final LongAdder claimed = new LongAdder();
+    private final LongAdder reclaimed = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder leasesLost = new LongAdder();
+    private final LongAdder abandoned = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public BatchQueueWorker(
+            BatchWorkItemRepository workItemRepository,
+            BatchProcessingService batchProcessingService,
+            BatchJobRepository batchJobRepository,
+            BatchPipeline pipeline,
+            TaskExecutors taskExecutors,
+            @Value("${batch.queue.enabled:true}") boolean enabled,
+            @Value("${batch.queue.lease-seconds:120}") long leaseSeconds,
+            @Value("${batch.queue.poll-interval-ms:2000}") long pollIntervalMs,
+            @Value("${batch.queue.max-in-flight:16}") int maxInFlight,
+            @Value("${batch.queue.max-attempts:3}") int maxAttempts) {
+        this.workItemRepository = workItemRepository;
+        this.batchProcessingService = batchProcessingService;
+        this.batchJobRepository = batchJobRepository;
+        this.pipeline = pipeline;
+        this.nodeId = hostName() + "/" + UUID.randomUUID().toString().substring(0, 8);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.maxAttempts = Math.max(1, maxAttempts);
+
+        if (enabled) {
+            ScheduledExecutorService timer = taskExecutors.timer(Timer.BATCH_QUEUE);
+            long heartbeatMs = Math.max(1000, lease.toMillis() / 3);
+            timers.add(timer.scheduleWithFixedDelay(this::poll, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS));
+            timers.add(timer.scheduleWithFixedDelay(this::heartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS));
+            log.info("✓ Batch queue worker {}: up to {} documents in flight, lease {}s", nodeId, this.maxInFlight, leaseSeconds);
+        } else {
+            log.warn("⚠️ Batch queue worker disabled - this node will not process batch documents");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timers.forEach(timer -> timer.cancel(true));
+        // Let another node (or this one after restart) take over without waiting for the lease
+        try {
+            int released = workItemRepository.release(nodeId, WorkState.PENDING, LocalDateTime.now());
+            if (released > 0) {
+                log.info("Released {} batch documents back to the queue", released);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to release batch leases: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Claim as many items as there is room for and start them
+     */
+    private void poll() {
+        try {
+            stopInactiveBatches();
+
+            int room = maxInFlight - inFlight.size();
+            if (room <= 0) {
+                return;
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            List<BatchWorkItem> items = workItemRepository.claim(nodeId, room, now, now.plus(lease));
+            items.forEach(this::start);
+
+        } catch (Exception e) {
+            log.warn("Batch queue poll failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Stop in-flight documents of batches no longer RUNNING (paused or cancelled on any node)
+     */
+    private void stopInactiveBatches() {
+        Set<UUID> batchJobIds = Set.copyOf(inFlight.values());
+        if (batchJobIds.isEmpty()) {
+            return;
+        }
+        batchJobRepository.findIdsByIdInAndStatusNot(batchJobIds, BatchStatus.RUNNING).forEach(pipeline::cancel);
+    }
+
+    private void start(BatchWorkItem item) {
+        inFlight.put(item.getId(), item.getBatchJobId());
+        claimed.increment();
+
+        if (item.getAttempts() > 1) {
+            reclaimed.increment();
+            log.info("↻ Reclaimed document {} of batch {} (attempt {})",
+                    item.getDocumentId(), item.getBatchJobId(), item.getAttempts());
+        }
+
+        // A document that keeps taking its worker down is not retried forever
+        if (item.getAttempts() > maxAttempts) {
+            String error = "Gave up after " + maxAttempts + " attempts";
+            batchProcessingService.markDocumentFailed(item.getDocumentId(), item.getBatchJobId(), error);
+            finish(item, new RuntimeException(error));
+            return;
+        }
+
+        try {
+            batchProcessingService.processWorkItem(item)
+                    .whenComplete((ignored, error) -> finish(item, error));
+        } catch (Exception e) {
+            finish(item, e);
+        }
+    }
+
+    /**
+     * Mark the item done - counted only if this node still held the lease
+     */
+    private void finish(BatchWorkItem item, Throwable error) {
+        inFlight.remove(item.getId());
+        Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+
+        if (cause instanceof CancellationException) {
+            abandoned.increment();
+            requeue(item);
+            return;
+        }
+        if (cause instanceof RejectedExecutionException) {
+            rejected.increment();
+            requeue(item);
+            return;
+        }
+
+        try {
+            int updated = workItemRepository.complete(item.getId(), nodeId,
+                    cause == null ? WorkState.DONE : WorkState.FAILED,
+                    cause == null ? null : cause.getMessage(),
+                    LocalDateTime.now());
+            if (updated == 0) {
+                // Lease ran out and another worker took it - that one counts it
+                leasesLost.increment();
+                log.warn("⚠️ Lease lost on document {} - result not counted", item.getDocumentId());
+                return;
+            }
+
+            (cause == null ? completed : failed).increment();
+            batchProcessingService.recordItemResult(item.getBatchJobId(), cause == null);
+
+        } catch (Exception e) {
+            // Stays LEASED; the lease runs out and the document is redone
+            log.error("Failed to complete work item {}", item.getId(), e);
+        }
+    }
+
+    /**
+     * A stopped (batch paused) or turned-away item goes back to PENDING uncounted -
+     * unless a cancel already closed it
+     */
+    private void requeue(BatchWorkItem item) {
+        try {
+            workItemRepository.requeue(item.getId(), nodeId, WorkState.PENDING, WorkState.LEASED, LocalDateTime.now());
+        } catch (Exception e) {
+            // Stays LEASED; the lease runs out and it is claimed once the batch runs again
+            log.warn("Failed to requeue work item {}: {}", item.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Keep the leases of in-flight items alive
+     */
+    private void heartbeat() {
+        if (inFlight.isEmpty()) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            workItemRepository.heartbeat(Set.copyOf(inFlight.keySet()), nodeId, now.plus(lease), now);
+        } catch (Exception e) {
+            log.warn("Batch lease heartbeat failed: {}", e.getMessage());
+        }
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "node";
+        }
+    }
+
+    /**
+     * Claims, reclaims and completions on this node
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("nodeId", nodeId);
+        stats.put("inFlight", inFlight.size());
+        stats.put("maxInFlight", maxInFlight);
+        stats.put("claimed", claimed.sum());
+        stats.put("reclaimed", reclaimed.sum());
+        stats.put("completed", completed.sum());
+        stats.put("failed", failed.sum());
+        stats.put("leasesLost", leasesLost.sum());
+        stats.put("abandoned", abandoned.sum());
+        stats.put("rejected", rejected.sum());
+        return stats;
+    }
+}
@@ -1,9 +1,12 @@
 package com.documentreaderai.service;
 
+import java.util.UUID;
+
 import org.springframework.stereotype.Service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
 
 @Service
 @RequiredArgsConstructor
@@ -17,27 +20,40 @@ public class DocumentAnalysisService {
      * Uses intelligent multi-model routing for best performance
      */
     public String analyzeFundAgreement(String documentText, String userPrompt) {
-        log.info("Starting multi-pass fund agreement analysis");
-        
-        StringBuilder analysis = new StringBuilder();
-        
-        // Pass 1: Extract structured data
-        analysis.append("═══ STRUCTURED DATA EXTRACTION ═══\n\n");
-        analysis.append(extractStructuredData(documentText));
-        analysis.append("\n\n");
-        
-        // Pass 2: Answer user query
-        analysis.append("═══ SPECIFIC QUERY RESPONSE ═══\n\n");
-        analysis.append(answerUserQuery(documentText, userPrompt));
-        
-        return analysis.toString();
+        return analyzeFundAgreement(null, documentText, userPrompt);
+    }
+    
+    /**
+     * Multi-pass analysis over the document's retrieval index (if it has one)
+     */
+    public String analyzeFundAgreement(UUID documentId, String documentText, String userPrompt) {
+        return analyzeFundAgreementReactive(documentId, documentText, userPrompt).block();
+    }
+    
+    /**
+     * Non-blocking multi-pass analysis - no thread is held while the model generates
+     */
+    public Mono<String> analyzeFundAgreementReactive(UUID documentId, String documentText, String userPrompt) {
+        return Mono.defer(() -> {
+                log.info("Starting multi-pass fund agreement analysis");
+                
+                // Pass 1: Extract structured data, then Pass 2: Answer user query
+                return extractStructuredData(documentId, documentText)
+                    .flatMap(structuredData -> answerUserQuery(documentId, documentText, userPrompt)
+                        .map(queryResponse -> "═══ STRUCTURED DATA EXTRACTION ═══\n\n"
+                                + structuredData
+                                + "\n\n"
+                                + "═══ SPECIFIC QUERY RESPONSE ═══\n\n"
+                                + queryResponse));
+            })
+            .contextWrite(OllamaScheduler.priorityContext());
     }
     
     /**
      * First pass: Extract key structured data
      * Uses Power Model (7B) for comprehensive extraction
      */
-    private String extractStructuredData(String documentText) {
+    private Mono<String> extractStructuredData(UUID documentId, String documentText) {
         String structuredPrompt = """
             Analyze this fund agreement document and extract the following in a structured format:
             
@@ -78,20 +94,22 @@ public class DocumentAnalysisService {
             Format response as clear bullet points.
             """;
         
-        try {
-            // ✅ FIXED: Use correct method signature with boolean parameter
-            return multiModelOllamaService.analyzeDocument(documentText, structuredPrompt, false);
-        } catch (Exception e) {
-            log.error("Structured extraction failed", e);
-            return "[Error extracting structured data: " + e.getMessage() + "]";
-        }
+        // ✅ FIXED: Use correct method signature with boolean parameter
+        // Busy fails the whole analysis, the other passes would queue too
+        // No retrieval query: the fields can be on any page, so the pass reads the pre-scanned document
+        return multiModelOllamaService.analyzeDocumentReactive(
+                    documentId, documentText, structuredPrompt, null, false)
+            .onErrorResume(e -> !(e instanceof OllamaBusyException), e -> {
+                log.error("Structured extraction failed", e);
+                return Mono.just("[Error extracting structured data: " + e.getMessage() + "]");
+            });
     }
     
     /**
      * Second pass: Answer specific user question
      * Intelligently routes to Fast Model (simple) or Power Model (complex)
      */
-    private String answerUserQuery(String documentText, String userPrompt) {
+    private Mono<String> answerUserQuery(UUID documentId, String documentText, String userPrompt) {
         String enhancedPrompt = String.format("""
             Based on the fund agreement document provided, answer this question:
             
@@ -108,14 +126,15 @@ public class DocumentAnalysisService {
             Be specific and cite sources.
             """, userPrompt);
         
-        try {
-            // ✅ FIXED: Use correct method signature
-            // System automatically routes to Fast Model (simple query) or Power Model (complex)
-            return multiModelOllamaService.analyzeDocument(documentText, enhancedPrompt, false);
-        } catch (Exception e) {
-            log.error("User query analysis failed", e);
-            return "[Error analyzing query: " + e.getMessage() + "]";
-        }
+        // ✅ FIXED: Use correct method signature
+        // System automatically routes to Fast Model (simple query) or Power Model (complex)
+        // Retrieve on the question itself, not the guideline boilerplate
+        return multiModelOllamaService.analyzeDocumentReactive(
+                    documentId, documentText, enhancedPrompt, userPrompt, false)
+            .onErrorResume(e -> !(e instanceof OllamaBusyException), e -> {
+                log.error("User query analysis failed", e);
+                return Mono.just("[Error analyzing query: " + e.getMessage() + "]");
+            });
     }
     
     /**
@@ -0,0 +1,187 @@
+package com.documentreaderai.service;
+
+import com.documentreaderai.model.dto.DocumentPageSummary;
+import com.documentreaderai.model.entity.Document;
+import com.documentreaderai.model.entity.DocumentPage;
+import com.documentreaderai.model.entity.DocumentPage.ExtractionMethod;
+import com.documentreaderai.repository.DocumentPageRepository;
+import com.documentreaderai.repository.DocumentRepository;
+import com.documentreaderai.service.ProductionPdfService.ExtractionResult;
+import com.documentreaderai.service.ProductionPdfService.PageInfo;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Extracted text, one row per page (document_pages)
+ *
+ * Written next to Document.extractedText at extraction time, so viewers,
+ * re-analysis and indexing can read the pages they need instead of loading
+ * and re-splitting the whole text on its page markers. Full-text search
+ * (DocumentSearchService) runs on these rows only; documents extracted before
+ * page storage get theirs from backfillPages.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DocumentPageService {
+
+    private static final UUID FIRST_ID = new UUID(0, 0);
+    private static final int BACKFILL_BATCH_SIZE = 20;
+
+    private final DocumentPageRepository pageRepository;
+    private final DocumentRepository documentRepository;
+    private final AtomicBoolean backfilling = new AtomicBoolean();
+
+    /**
+     * Replace the stored pages of a document with an extraction result
+     */
+    @Transactional
+    public int savePages(UUID documentId, ExtractionResult result) {
+        ExtractionMethod method = methodOf(result);
+        List<String> pageTexts = result.getPageTexts();
+
+        List<DocumentPage> pages = new ArrayList<>(result.getPages().size());
+        for (PageInfo info : result.getPages()) {
+            int index = info.getPageNumber() - 1;
+            String text = index < pageTexts.size() ? pageTexts.get(index) : "";
+            pages.add(DocumentPage.builder()
+                    .documentId(documentId)
+                    .pageNumber(info.getPageNumber())
+                    .text(text)
+                    .charCount(text.length())
+                    .extractionMethod(method)
+                    .ocr(info.isOcr())
+                    .build());
+        }
+
+        pageRepository.deleteByDocumentId(documentId);
+        pageRepository.flush();  // Old rows gone before the unique (document, page) rows go in
+        pageRepository.saveAll(pages);
+        log.debug("Stored {} pages of document {}", pages.size(), documentId);
+        return pages.size();
+    }
+
+    /**
+     * Store pages for up to limit documents that have extracted text but no
+     * page rows, cut from the text on its page markers (one page if it has none)
+     */
+    public Map<String, Object> backfillPages(int limit) {
+        if (!backfilling.compareAndSet(false, true)) {
+            throw new IllegalStateException("Page backfill already running");
+        }
+        try {
+            long startTime = System.currentTimeMillis();
+            int documents = 0;
+            int pages = 0;
+            int failed = 0;
+            UUID after = FIRST_ID;
+
+            while (documents + failed < limit) {
+                List<Document> batch = documentRepository.findWithoutPagesAfter(
+                        after, PageRequest.of(0, Math.min(BACKFILL_BATCH_SIZE, limit - documents - failed)));
+                if (batch.isEmpty()) {
+                    break;
+                }
+
+                for (Document document : batch) {
+                    try {
+                        // One insert (own transaction); a concurrent extraction storing the same pages wins
+                        pages += pageRepository.saveAll(pagesOf(document.getId(), document.getExtractedText())).size();
+                        documents++;
+                    } catch (Exception e) {
+                        log.warn("⚠️ Page backfill failed for document {}: {}", document.getId(), e.getMessage());
+                        failed++;
+                    }
+                    after = document.getId();
+                }
+            }
+
+            long elapsed = System.currentTimeMillis() - startTime;
+            log.info("✓ Page backfill: {} documents ({} pages) stored, {} failed in {}ms",
+                    documents, pages, failed, elapsed);
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("documents", documents);
+            result.put("pages", pages);
+            result.put("failed", failed);
+            result.put("remaining", documentRepository.countWithoutPages());
+            result.put("elapsedMs", elapsed);
+            return result;
+
+        } finally {
+            backfilling.set(false);
+        }
+    }
+
+    private static List<DocumentPage> pagesOf(UUID documentId, String extractedText) {
+        PagedText paged = PagedText.of(extractedText);
+        List<Integer> pageNumbers = new ArrayList<>(paged.getPageNumbers());
+        List<String> pageTexts = new ArrayList<>(paged.getPageTexts());
+        String unpaged = paged.getUnpagedText();
+        if (pageTexts.isEmpty()) {
+            pageNumbers.add(1);
+            pageTexts.add(unpaged);
+        } else if (!unpaged.isBlank()) {
+            // OCR preamble belongs to the first page, trailing text (tables) to the last
+            int index = paged.isOcr() ? 0 : pageTexts.size() - 1;
+            pageTexts.set(index, paged.isOcr() ? unpaged + pageTexts.get(index) : pageTexts.get(index) + "\n" + unpaged);
+        }
+
+        ExtractionMethod method = paged.isOcr() ? ExtractionMethod.FULL_OCR : ExtractionMethod.NATIVE;
+        List<DocumentPage> pages = new ArrayList<>(pageTexts.size());
+        for (int i = 0; i < pageTexts.size(); i++) {
+            String text = pageTexts.get(i);
+            pages.add(DocumentPage.builder()
+                    .documentId(documentId)
+                    .pageNumber(pageNumbers.get(i))
+                    .text(text)
+                    .charCount(text.length())
+                    .extractionMethod(method)
+                    .ocr(paged.isOcr())
+                    .build());
+        }
+        return pages;
+    }
+
+    /**
+     * Pages [fromPage, toPage] (1-based, inclusive), in order
+     */
+    public List<DocumentPage> getPages(UUID documentId, int fromPage, int toPage) {
+        return pageRepository.findRange(documentId, Math.max(1, fromPage), toPage);
+    }
+
+    /**
+     * Every stored page in order; empty if the document has none
+     * (extracted before page storage, or not extracted yet)
+     */
+    public List<DocumentPage> getPages(UUID documentId) {
+        return getPages(documentId, 1, Integer.MAX_VALUE);
+    }
+
+    public List<DocumentPageSummary> getPageSummaries(UUID documentId) {
+        return pageRepository.findSummaries(documentId);
+    }
+
+    public void deletePages(UUID documentId) {
+        pageRepository.deleteByDocumentId(documentId);
+    }
+
+    private static ExtractionMethod methodOf(ExtractionResult result) {
+        if (result.getOcrPageCount() == 0) {
+            return ExtractionMethod.NATIVE;
+        }
+        return result.getOcrPageCount() < result.getPages().size()
+                ? ExtractionMethod.SELECTIVE_OCR
+                : ExtractionMethod.FULL_OCR;
+    }
+}
@@ -0,0 +1,127 @@
+package com.documentreaderai.service;
+
+import com.documentreaderai.model.dto.DocumentSearchHit;
+import com.documentreaderai.model.dto.DocumentSearchResult;
+import com.documentreaderai.model.dto.DocumentSearchResult.PageHit;
+import com.documentreaderai.repository.DocumentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Full-text search across every extracted document
+ *
+ * Each row of document_pages carries a generated tsvector ('simple' config:
+ * no stemming or stop words, so PANs, names and amounts match as written)
+ * behind a GIN index. Postgres keeps it current whenever pages are written,
+ * so anything with page rows is searchable (older documents get them from
+ * POST /api/storage/pages/backfill). Queries use websearch syntax
+ * ("quoted phrases", OR, -excluded) and return documents ranked by their best
+ * page, each with its best pages and hit snippets.
+ */
+@Service
+@Slf4j
+public class DocumentSearchService {
+
+    private static final int MAX_RESULTS = 100;
+    private static final int PAGES_PER_DOCUMENT = 3;
+    private static final int PAGE_HITS_PER_RESULT = 10;  // Pages ranked per document asked for
+
+    private static final String ADD_SEARCH_VECTOR =
+            "ALTER TABLE document_pages ADD COLUMN IF NOT EXISTS search_vector tsvector " +
+            "GENERATED ALWAYS AS (to_tsvector('simple', text)) STORED";
+    private static final String CREATE_SEARCH_INDEX =
+            "CREATE INDEX IF NOT EXISTS idx_document_pages_search ON document_pages USING GIN (search_vector)";
+
+    private final DocumentRepository documentRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    // METRICS
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder searchMs = new LongAdder();
+
+    public DocumentSearchService(DocumentRepository documentRepository, JdbcTemplate jdbcTemplate) {
+        this.documentRepository = documentRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Column and index Hibernate's schema update can't express (generated column, GIN).
+     * Idempotent; the first run computes the vectors of existing pages.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void createSearchIndex() {
+        try {
+            long startTime = System.currentTimeMillis();
+            jdbcTemplate.execute(ADD_SEARCH_VECTOR);
+            jdbcTemplate.execute(CREATE_SEARCH_INDEX);
+            log.info("✓ Full-text search index ready ({}ms)", System.currentTimeMillis() - startTime);
+
+            long withoutPages = documentRepository.countWithoutPages();
+            if (withoutPages > 0) {
+                log.warn("⚠️ {} documents have no page rows and are not searchable - POST /api/storage/pages/backfill",
+                        withoutPages);
+            }
+        } catch (Exception e) {
+            log.warn("⚠️ Full-text search index not created - search unavailable: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Documents matching the query, best first, each with up to 3 matching pages
+     */
+    public List<DocumentSearchResult> search(String query, int limit) {
+        long startTime = System.currentTimeMillis();
+        int maxResults = Math.min(Math.max(1, limit), MAX_RESULTS);
+
+        List<DocumentSearchHit> hits = documentRepository.searchPages(query.trim(), maxResults * PAGE_HITS_PER_RESULT);
+
+        // Hits come best first, so a document's first hit is its best page
+        Map<UUID, List<DocumentSearchHit>> byDocument = new LinkedHashMap<>();
+        for (DocumentSearchHit hit : hits) {
+            List<DocumentSearchHit> pages = byDocument.get(hit.getDocumentId());
+            if (pages == null) {
+                if (byDocument.size() == maxResults) {
+                    continue;
+                }
+                pages = new ArrayList<>();
+                byDocument.put(hit.getDocumentId(), pages);
+            }
+            if (pages.size() < PAGES_PER_DOCUMENT) {
+                pages.add(hit);
+            }
+        }
+
+        List<DocumentSearchResult> results = new ArrayList<>(byDocument.size());
+        byDocument.forEach((documentId, pages) -> results.add(new DocumentSearchResult(
+                documentId,
+                pages.get(0).getFilename(),
+                pages.get(0).getRank(),
+                pages.stream()
+                        .map(hit -> new PageHit(hit.getPageNumber(), hit.getRank(), hit.getSnippet()))
+                        .toList())));
+
+        long elapsed = System.currentTimeMillis() - startTime;
+        searches.increment();
+        searchMs.add(elapsed);
+        log.info("Search '{}': {} documents ({} pages) in {}ms", query, results.size(), hits.size(), elapsed);
+        return results;
+    }
+
+    public Map<String, Object> getStats() {
+        long count = searches.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("searches", count);
+        stats.put("avgMs", count == 0 ? 0 : searchMs.sum() / count);
+        return stats;
+    }
+}
@@ -2,27 +2,27 @@ package com.documentreaderai.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Mono;
 
+import com.documentreaderai.config.TaskExecutors;
+import com.documentreaderai.config.TaskExecutors.Workload;
+import com.documentreaderai.model.dto.DocumentSummary;
 import com.documentreaderai.model.entity.Document;
 import com.documentreaderai.model.entity.Document.DocumentStatus;
 import com.documentreaderai.repository.DocumentRepository;
 import com.documentreaderai.service.ProductionPdfService.ExtractionResult;
 
-import org.springframework.scheduling.annotation.Async;
-import java.util.concurrent.CompletableFuture;
-
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
@@ -33,6 +33,12 @@ public class DocumentService {
 	private final ProductionPdfService pdfService; // ✅ FIXED: Use ProductionPdfService
 	private final DocumentAnalysisService documentAnalysisService;
 	private final MultiModelOllamaService multiModelOllamaService;
+	private final ExtractionCacheService extractionCacheService;
+	private final RetrievalService retrievalService;
+	private final DocumentPageService documentPageService;
+	private final OllamaScheduler ollamaScheduler;
+	private final AnalysisEventPublisher analysisEvents;
+	private final TaskExecutors taskExecutors;
 
 	private static final String UPLOAD_DIR = "./uploads/";
 
@@ -62,14 +68,14 @@ public class DocumentService {
 			String uniqueFilename = UUID.randomUUID() + "_" + originalFilename;
 			Path filePath = uploadPath.resolve(uniqueFilename);
 
-			// Save file to disk
-			Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+			// Save file to disk (hashed while streaming)
+			String contentHash = ExtractionCacheService.copyAndHash(file.getInputStream(), filePath);
 
-			log.info("File saved: {}", filePath);
+			log.info("File saved: {} (sha256 {})", filePath, contentHash);
 
 			// Create document entity
 			Document document = Document.builder().filename(originalFilename).filePath(filePath.toString())
-					.fileSize(file.getSize()).status(DocumentStatus.UPLOADED).build();
+					.fileSize(file.getSize()).contentHash(contentHash).status(DocumentStatus.UPLOADED).build();
 
 			document = documentRepository.save(document);
 
@@ -96,8 +102,9 @@ public class DocumentService {
 			document.setStatus(DocumentStatus.PROCESSING);
 			documentRepository.save(document);
 
-			// ✅ FIXED: Use ProductionPdfService with intelligent extraction
-			ExtractionResult result = pdfService.extractWithIntelligence(document.getFilePath());
+			// Intelligent extraction, served from the content-hash cache on re-uploads
+			ExtractionResult result = extractionCacheService.extract(document.getFilePath(),
+					document.getContentHash(), document.getFileSize());
 
 			// Build summary with extraction info
 			StringBuilder fullText = new StringBuilder();
@@ -109,9 +116,13 @@ public class DocumentService {
 			document.setTotalPages(result.getPages().size());
 			document.setStatus(DocumentStatus.READY);
 			documentRepository.save(document);
+			documentPageService.savePages(documentId, result);
+
+			// Page-aware chunks for retrieval at question time
+			retrievalService.indexDocument(documentId, result);
 
-			log.info("✓ Document processed: {} (Method: {}, Time: {}ms)", documentId,
-					result.usedOcr() ? "OCR" : "Native", result.getProcessingTimeMs());
+			log.info("✓ Document processed: {} (Method: {}, OCR pages: {}, Time: {}ms)", documentId,
+					result.getMethod(), result.getOcrPageCount(), result.getProcessingTimeMs());
 
 		} catch (Exception e) {
 			log.error("Error processing document: " + documentId, e);
@@ -126,46 +137,46 @@ public class DocumentService {
 
 	/**
 	 * Enhanced async analysis with multi-model AI
+	 * Returns once the document is ANALYZING; the result is saved when the model
+	 * finishes, without holding an executor thread while it generates
 	 */
-	@Async
-	@Transactional(propagation = Propagation.REQUIRES_NEW)
 	public CompletableFuture<Document> analyzeDocumentAsync(UUID documentId, String prompt) {
 		log.info("=== ASYNC ANALYSIS STARTED ===");
 
-		try {
-			Document document = documentRepository.findById(documentId)
-					.orElseThrow(() -> new RuntimeException("Document not found"));
-
-			document.setStatus(DocumentStatus.ANALYZING);
-			documentRepository.saveAndFlush(document);
-
-			// ✅ FIXED: Use DocumentAnalysisService with multi-pass analysis
-			String analysis = documentAnalysisService.analyzeFundAgreement(document.getExtractedText(), prompt);
-
-			document.setAiAnalysis(analysis);
-			document.setStatus(DocumentStatus.ANALYZED);
-			documentRepository.saveAndFlush(document);
-
-			log.info("=== ANALYSIS COMPLETED ===");
-
-			return CompletableFuture.completedFuture(document);
-
-		} catch (Exception e) {
-			log.error("=== ANALYSIS FAILED ===", e);
-
-			try {
-				Document document = documentRepository.findById(documentId).orElse(null);
-				if (document != null) {
-					document.setStatus(DocumentStatus.FAILED);
-					document.setAiAnalysis("Error: " + e.getMessage());
-					documentRepository.saveAndFlush(document);
-				}
-			} catch (Exception ex) {
-				log.error("Failed to update error status", ex);
-			}
+		Document document = documentRepository.findById(documentId)
+				.orElseThrow(() -> new RuntimeException("Document not found"));
+
+		document.setStatus(DocumentStatus.ANALYZING);
+		documentRepository.saveAndFlush(document);
+
+		// ✅ FIXED: Use DocumentAnalysisService with multi-pass analysis
+		return documentAnalysisService.analyzeFundAgreementReactive(documentId, document.getExtractedText(), prompt)
+				.publishOn(taskExecutors.scheduler(Workload.ANALYSIS)) // JPA writes below
+				.map(analysis -> {
+					Document analyzed = saveAnalysis(documentId, DocumentStatus.ANALYZED, analysis);
+					log.info("=== ANALYSIS COMPLETED ===");
+					return analyzed;
+				})
+				.onErrorResume(e -> {
+					log.error("=== ANALYSIS FAILED ===", e);
+					try {
+						saveAnalysis(documentId, DocumentStatus.FAILED, "Error: " + e.getMessage());
+					} catch (Exception ex) {
+						log.error("Failed to update error status", ex);
+					}
+					return Mono.error(new RuntimeException("Analysis failed: " + e.getMessage()));
+				})
+				.toFuture();
+	}
 
-			throw new RuntimeException("Analysis failed: " + e.getMessage());
-		}
+	private Document saveAnalysis(UUID documentId, DocumentStatus status, String analysis) {
+		Document document = documentRepository.findById(documentId)
+				.orElseThrow(() -> new RuntimeException("Document not found"));
+		document.setAiAnalysis(analysis);
+		document.setStatus(status);
+		Document saved = documentRepository.saveAndFlush(document);
+		analysisEvents.publish(documentId, status, analysis);
+		return saved;
 	}
 
 	// ==================== CRUD OPERATIONS ====================
@@ -174,8 +185,11 @@ public class DocumentService {
 		return documentRepository.findById(id).orElse(null);
 	}
 
-	public List<Document> getAllDocuments() {
-		return documentRepository.findAll();
+	/**
+	 * One page of the documents list, newest first - summaries only, never the text
+	 */
+	public Page<DocumentSummary> getDocumentPage(int page, int size) {
+		return documentRepository.findSummaries(page, size);
 	}
 
 	@Transactional
@@ -191,15 +205,26 @@ public class DocumentService {
 				log.error("Error deleting file", e);
 			}
 
+			retrievalService.deleteIndex(id);
+			documentPageService.deletePages(id);
 			documentRepository.delete(document);
 		}
 	}
 
+	/**
+	 * False when a new analysis would be rejected (model queue full)
+	 */
+	public boolean isAcceptingAnalysis() {
+		return multiModelOllamaService.isAccepting();
+	}
+
 	/**
 	 * Check AI and OCR availability
 	 */
 	public Object getSystemStatus() {
-		return Map.of("aiModels", multiModelOllamaService.checkModelsAvailability(), "ocrAvailable",
-				pdfService.isOcrAvailable());
+		return Map.of("aiModels", multiModelOllamaService.checkModelsAvailability(), "aiUsage",
+				multiModelOllamaService.getUsageStats(), "llmScheduler", ollamaScheduler.getStats(),
+				"ocrAvailable", pdfService.isOcrAvailable(), "ocrPool", pdfService.getOcrStats(),
+				"extractionCache", extractionCacheService.getStats());
 	}
 }
\ No newline at end of file
@@ -1,8 +1,9 @@
 package com.documentreaderai.service;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.UUID;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -14,11 +15,13 @@ import org.apache.poi.ss.usermodel.IndexedColors;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.springframework.stereotype.Service;
 
+import com.documentreaderai.model.dto.BatchDocumentExport;
 import com.documentreaderai.model.entity.BatchJob;
-import com.documentreaderai.model.entity.Document;
+import com.documentreaderai.repository.BatchJobRepository;
+import com.documentreaderai.repository.DocumentRepository;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -28,45 +31,85 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class ExportService {
 
+    private final DocumentRepository documentRepository;
+    private final BatchJobRepository batchJobRepository;
+    private final BatchProgressTracker progressTracker;
+
+    // Rows kept in memory per sheet; older rows are flushed to a temp file
+    private static final int ROW_WINDOW = 100;
+    
+    // Documents read per query
+    private static final int EXPORT_PAGE_SIZE = 100;
+    
+    // Column widths are estimated from the values written, up to this many characters
+    private static final int MAX_COLUMN_CHARS = 60;
+    
+    // Excel's limit for a cell
+    private static final int MAX_CELL_CHARS = 32767;
+    
     /**
-     * Export batch results to Excel
+     * Write batch results as Excel, streaming
+     * 
+     * Documents are read in keyset pages of EXPORT_PAGE_SIZE, each its own
+     * short query - no transaction or connection is held while the client
+     * downloads - and written to all data sheets in one pass; SXSSF keeps only
+     * the last ROW_WINDOW rows of each sheet in memory, so memory stays flat
+     * however large the batch is.
      */
-    public byte[] exportBatchToExcel(BatchJob batchJob) throws IOException {
+    public void writeBatchExcel(UUID batchJobId, OutputStream outputStream) throws IOException {
+        // Counters as of now, including progress not yet flushed
+        BatchJob batchJob = progressTracker.view(batchJobRepository.findById(batchJobId).orElseThrow());
         log.info("Exporting batch job to Excel: {}", batchJob.getJobName());
+        long startTime = System.currentTimeMillis();
         
-        try (Workbook workbook = new XSSFWorkbook()) {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW);
+        workbook.setCompressTempFiles(true);  // Analysis text compresses well
+        try {
+            CellStyle headerStyle = createHeaderStyle(workbook);
+            CellStyle wrapStyle = workbook.createCellStyle();
+            wrapStyle.setWrapText(true);
             
             // Sheet 1: Summary
-            createSummarySheet(workbook, batchJob);
+            createSummarySheet(workbook, batchJob, headerStyle);
             
-            // Sheet 2: Document List
-            createDocumentListSheet(workbook, batchJob);
+            // Sheets 2-4: Document List, Extracted Data, AI Analysis
+            DocumentListSheet documentList = new DocumentListSheet(workbook, headerStyle);
+            ExtractedDataSheet extractedData = new ExtractedDataSheet(workbook, headerStyle);
+            AnalysisSheet analysis = new AnalysisSheet(workbook, headerStyle, wrapStyle);
             
-            // Sheet 3: Extracted Data
-            createExtractedDataSheet(workbook, batchJob);
+            int count = 0;
+            BatchDocumentExport last = null;
+            List<BatchDocumentExport> page;
+            do {
+                page = documentRepository.findExportRowsPage(batchJobId, last, EXPORT_PAGE_SIZE);
+                for (BatchDocumentExport doc : page) {
+                    count++;
+                    String aiAnalysis = doc.getAiAnalysis();
+                    documentList.add(count, doc);
+                    extractedData.add(count, doc, aiAnalysis);
+                    analysis.add(count, doc, aiAnalysis);
+                    last = doc;
+                }
+            } while (page.size() == EXPORT_PAGE_SIZE);
             
-            // Sheet 4: AI Analysis
-            createAnalysisSheet(workbook, batchJob);
+            documentList.widths.apply();
+            extractedData.widths.apply();
             
-            // Write to byte array
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
             workbook.write(outputStream);
+            log.info("✓ Excel export completed: {} documents in {}ms", count, System.currentTimeMillis() - startTime);
             
-            log.info("Excel export completed");
-            return outputStream.toByteArray();
+        } finally {
+            workbook.dispose();  // Delete the temp files
+            workbook.close();
         }
     }
     
     /**
      * Create summary sheet
      */
-    private void createSummarySheet(Workbook workbook, BatchJob batchJob) {
+    private void createSummarySheet(Workbook workbook, BatchJob batchJob, CellStyle headerStyle) {
         Sheet sheet = workbook.createSheet("Summary");
         
-        // Create styles
-        CellStyle headerStyle = createHeaderStyle(workbook);
-        CellStyle dataStyle = workbook.createCellStyle();
-        
         int rowNum = 0;
         
         // Title
@@ -93,120 +136,119 @@ public class ExportService {
             createDataRow(sheet, rowNum++, "Completed At:", batchJob.getCompletedAt().toString());
         }
         
-        // Auto-size columns
-        sheet.autoSizeColumn(0);
-        sheet.autoSizeColumn(1);
+        sheet.setColumnWidth(0, 20 * 256);
+        sheet.setColumnWidth(1, 40 * 256);
     }
     
     /**
-     * Create document list sheet
+     * Document list sheet
      */
-    private void createDocumentListSheet(Workbook workbook, BatchJob batchJob) {
-        Sheet sheet = workbook.createSheet("Documents");
+    private class DocumentListSheet {
+        private final Sheet sheet;
+        private final ColumnWidths widths;
         
-        CellStyle headerStyle = createHeaderStyle(workbook);
-        
-        // Header row
-        Row headerRow = sheet.createRow(0);
-        String[] headers = {"#", "Filename", "Status", "Pages", "File Size (KB)"};
-        for (int i = 0; i < headers.length; i++) {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(headers[i]);
-            cell.setCellStyle(headerStyle);
+        DocumentListSheet(Workbook workbook, CellStyle headerStyle) {
+            String[] headers = {"#", "Filename", "Status", "Pages", "File Size (KB)"};
+            this.sheet = workbook.createSheet("Documents");
+            this.widths = new ColumnWidths(sheet, headers);
+            createHeaderRow(sheet, headers, headerStyle);
         }
         
-        // Data rows
-        List<Document> documents = batchJob.getDocuments();
-        for (int i = 0; i < documents.size(); i++) {
-            Document doc = documents.get(i);
-            Row row = sheet.createRow(i + 1);
+        void add(int rowNum, BatchDocumentExport doc) {
+            Row row = sheet.createRow(rowNum);
             
-            row.createCell(0).setCellValue(i + 1);
-            row.createCell(1).setCellValue(doc.getFilename());
-            row.createCell(2).setCellValue(doc.getStatus().toString());
+            row.createCell(0).setCellValue(rowNum);
+            row.createCell(1).setCellValue(widths.fit(1, doc.getFilename()));
+            row.createCell(2).setCellValue(widths.fit(2, doc.getStatus().toString()));
             row.createCell(3).setCellValue(doc.getTotalPages() != null ? doc.getTotalPages() : 0);
             row.createCell(4).setCellValue(doc.getFileSize() / 1024.0);
         }
-        
-        // Auto-size columns
-        for (int i = 0; i < headers.length; i++) {
-            sheet.autoSizeColumn(i);
-        }
     }
     
     /**
-     * Create extracted data sheet
+     * Extracted data sheet
      */
-    private void createExtractedDataSheet(Workbook workbook, BatchJob batchJob) {
-        Sheet sheet = workbook.createSheet("Extracted Data");
-        
-        CellStyle headerStyle = createHeaderStyle(workbook);
+    private class ExtractedDataSheet {
+        private final Sheet sheet;
+        private final ColumnWidths widths;
         
-        // Header row
-        Row headerRow = sheet.createRow(0);
-        String[] headers = {"Filename", "Names", "PAN Numbers", "Amounts", "Dates"};
-        for (int i = 0; i < headers.length; i++) {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(headers[i]);
-            cell.setCellStyle(headerStyle);
+        ExtractedDataSheet(Workbook workbook, CellStyle headerStyle) {
+            String[] headers = {"Filename", "Names", "PAN Numbers", "Amounts", "Dates"};
+            this.sheet = workbook.createSheet("Extracted Data");
+            this.widths = new ColumnWidths(sheet, headers);
+            createHeaderRow(sheet, headers, headerStyle);
         }
         
-        // Extract data from each document
-        List<Document> documents = batchJob.getDocuments();
-        for (int i = 0; i < documents.size(); i++) {
-            Document doc = documents.get(i);
-            Row row = sheet.createRow(i + 1);
+        void add(int rowNum, BatchDocumentExport doc, String aiAnalysis) {
+            Row row = sheet.createRow(rowNum);
             
-            row.createCell(0).setCellValue(doc.getFilename());
+            row.createCell(0).setCellValue(widths.fit(0, doc.getFilename()));
             
             // Extract structured data
-            if (doc.getAiAnalysis() != null) {
-                row.createCell(1).setCellValue(extractField(doc.getAiAnalysis(), "name"));
-                row.createCell(2).setCellValue(extractField(doc.getAiAnalysis(), "PAN"));
-                row.createCell(3).setCellValue(extractField(doc.getAiAnalysis(), "amount|commitment"));
-                row.createCell(4).setCellValue(extractField(doc.getAiAnalysis(), "date"));
+            if (aiAnalysis != null) {
+                row.createCell(1).setCellValue(widths.fit(1, extractField(aiAnalysis, "name")));
+                row.createCell(2).setCellValue(widths.fit(2, extractField(aiAnalysis, "PAN")));
+                row.createCell(3).setCellValue(widths.fit(3, extractField(aiAnalysis, "amount|commitment")));
+                row.createCell(4).setCellValue(widths.fit(4, extractField(aiAnalysis, "date")));
             }
         }
-        
-        // Auto-size columns
-        for (int i = 0; i < headers.length; i++) {
-            sheet.autoSizeColumn(i);
-        }
     }
     
     /**
-     * Create AI analysis sheet
+     * AI analysis sheet
      */
-    private void createAnalysisSheet(Workbook workbook, BatchJob batchJob) {
-        Sheet sheet = workbook.createSheet("AI Analysis");
-        
-        CellStyle headerStyle = createHeaderStyle(workbook);
-        CellStyle wrapStyle = workbook.createCellStyle();
-        wrapStyle.setWrapText(true);
+    private class AnalysisSheet {
+        private final Sheet sheet;
+        private final CellStyle wrapStyle;
         
-        // Header row
-        Row headerRow = sheet.createRow(0);
-        headerRow.createCell(0).setCellValue("Filename");
-        headerRow.createCell(1).setCellValue("AI Analysis");
-        headerRow.getCell(0).setCellStyle(headerStyle);
-        headerRow.getCell(1).setCellStyle(headerStyle);
+        AnalysisSheet(Workbook workbook, CellStyle headerStyle, CellStyle wrapStyle) {
+            this.sheet = workbook.createSheet("AI Analysis");
+            this.wrapStyle = wrapStyle;
+            createHeaderRow(sheet, new String[] {"Filename", "AI Analysis"}, headerStyle);
+            sheet.setColumnWidth(0, 8000);
+            sheet.setColumnWidth(1, 20000);
+        }
         
-        // Data rows
-        List<Document> documents = batchJob.getDocuments();
-        for (int i = 0; i < documents.size(); i++) {
-            Document doc = documents.get(i);
-            Row row = sheet.createRow(i + 1);
+        void add(int rowNum, BatchDocumentExport doc, String aiAnalysis) {
+            Row row = sheet.createRow(rowNum);
             
             row.createCell(0).setCellValue(doc.getFilename());
             Cell analysisCell = row.createCell(1);
-            analysisCell.setCellValue(doc.getAiAnalysis() != null ? doc.getAiAnalysis() : "N/A");
+            analysisCell.setCellValue(aiAnalysis != null ? truncate(aiAnalysis) : "N/A");
             analysisCell.setCellStyle(wrapStyle);
             
             row.setHeightInPoints(100);
         }
+    }
+    
+    /**
+     * Column widths from the longest value seen - autoSizeColumn would need
+     * every row in memory and measures each one with the font renderer
+     */
+    private static class ColumnWidths {
+        private final Sheet sheet;
+        private final int[] maxChars;
+        
+        ColumnWidths(Sheet sheet, String[] headers) {
+            this.sheet = sheet;
+            this.maxChars = new int[headers.length];
+            for (int i = 0; i < headers.length; i++) {
+                maxChars[i] = headers[i].length();
+            }
+        }
         
-        sheet.setColumnWidth(0, 8000);
-        sheet.setColumnWidth(1, 20000);
+        String fit(int column, String value) {
+            if (value != null && value.length() > maxChars[column]) {
+                maxChars[column] = Math.min(value.length(), MAX_COLUMN_CHARS);
+            }
+            return value;
+        }
+        
+        void apply() {
+            for (int i = 0; i < maxChars.length; i++) {
+                sheet.setColumnWidth(i, (maxChars[i] + 2) * 256);
+            }
+        }
     }
     
     /**
@@ -219,7 +261,7 @@ public class ExportService {
         csv.append("Filename,Status,Pages,Names,PAN,Amounts,Dates\n");
         
         // Data rows
-        for (Document doc : batchJob.getDocuments()) {
+        for (BatchDocumentExport doc : documentRepository.findExportRowsByBatchJobId(batchJob.getId())) {
             csv.append(escapeCsv(doc.getFilename())).append(",");
             csv.append(doc.getStatus()).append(",");
             csv.append(doc.getTotalPages() != null ? doc.getTotalPages() : 0).append(",");
@@ -251,6 +293,18 @@ public class ExportService {
         return style;
     }
     
+    /**
+     * Helper: Create header row
+     */
+    private void createHeaderRow(Sheet sheet, String[] headers, CellStyle headerStyle) {
+        Row headerRow = sheet.createRow(0);
+        for (int i = 0; i < headers.length; i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(headers[i]);
+            cell.setCellStyle(headerStyle);
+        }
+    }
+    
     /**
      * Helper: Create data row
      */
@@ -272,6 +326,13 @@ public class ExportService {
         return "N/A";
     }
     
+    /**
+     * Helper: Cut text to what an Excel cell holds
+     */
+    private static String truncate(String value) {
+        return value.length() <= MAX_CELL_CHARS ? value : value.substring(0, MAX_CELL_CHARS - 3) + "...";
+    }
+    
     /**
      * Helper: Escape CSV field
      */
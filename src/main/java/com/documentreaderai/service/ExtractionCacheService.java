@@ -0,0 +1,226 @@
+package com.documentreaderai.service;
+
+import com.documentreaderai.model.entity.ExtractionCacheEntry;
+import com.documentreaderai.repository.ExtractionCacheRepository;
+import com.documentreaderai.service.ProductionPdfService.ExtractionResult;
+import com.documentreaderai.service.ProductionPdfService.PageInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Content-hash extraction cache
+ *
+ * Re-uploads of the same PDF (same SHA-256) skip PDFBox, Tabula and OCR and get
+ * the stored ExtractionResult back. Entries are keyed by content hash AND
+ * extractor version, so changing the extraction code or OCR mode never serves
+ * stale text. Degraded results (OCR failed on some pages and the native text
+ * was kept) are not stored, so the next upload tries again. The payload holds
+ * the page texts and tables once; the full text is rebuilt from them on a hit.
+ */
+@Service
+@Slf4j
+public class ExtractionCacheService {
+
+    private final ExtractionCacheRepository cacheRepository;
+    private final ProductionPdfService pdfService;
+    private final TransactionTemplate storeTransaction;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final boolean enabled;
+
+    // METRICS
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+    private final LongAdder extractionMsSaved = new LongAdder();
+    private final LongAdder degradedNotStored = new LongAdder();
+
+    public ExtractionCacheService(
+            ExtractionCacheRepository cacheRepository,
+            ProductionPdfService pdfService,
+            PlatformTransactionManager transactionManager,
+            @Value("${extraction.cache.enabled:true}") boolean enabled) {
+        this.cacheRepository = cacheRepository;
+        this.pdfService = pdfService;
+        this.enabled = enabled;
+
+        // Cache writes must never roll back the caller's document update
+        this.storeTransaction = new TransactionTemplate(transactionManager);
+        this.storeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Save an upload to disk and return its SHA-256, hashing while the bytes stream through
+     */
+    public static String copyAndHash(InputStream source, Path target) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream in = new DigestInputStream(source, digest)) {
+                Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Extract via the cache - falls through to ProductionPdfService on a miss
+     */
+    public ExtractionResult extract(String filePath, String contentHash, Long fileSize) {
+        if (!enabled || contentHash == null) {
+            return pdfService.extractWithIntelligence(filePath);
+        }
+
+        String cacheKey = contentHash + ":" + pdfService.getExtractorVersion();
+
+        Optional<ExtractionResult> cached = lookup(cacheKey);
+        if (cached.isPresent()) {
+            ExtractionResult result = cached.get();
+            hits.increment();
+            bytesSaved.add(fileSize != null ? fileSize : 0);
+            extractionMsSaved.add(result.getProcessingTimeMs());
+            log.info("✓ Extraction cache hit: {} (saved ~{}ms)", contentHash, result.getProcessingTimeMs());
+            return result;
+        }
+
+        misses.increment();
+        ExtractionResult result = pdfService.extractWithIntelligence(filePath);
+        if (result.isDegraded()) {
+            // A transient OCR failure must not stick to this content hash
+            degradedNotStored.increment();
+            log.info("Extraction not cached (degraded): {}", result.getWarnings());
+        } else {
+            store(cacheKey, contentHash, fileSize, result);
+        }
+        return result;
+    }
+
+    private Optional<ExtractionResult> lookup(String cacheKey) {
+        try {
+            Optional<ExtractionCacheEntry> entry = cacheRepository.findById(cacheKey);
+            if (entry.isEmpty()) {
+                return Optional.empty();
+            }
+
+            CachedExtraction payload = objectMapper.readValue(entry.get().getPayload(), CachedExtraction.class);
+            cacheRepository.recordHit(cacheKey, LocalDateTime.now());
+            return Optional.of(toResult(payload));
+
+        } catch (Exception e) {
+            log.warn("Extraction cache lookup failed for {}: {}", cacheKey, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void store(String cacheKey, String contentHash, Long fileSize, ExtractionResult result) {
+        try {
+            String payload = objectMapper.writeValueAsString(toPayload(result));
+
+            ExtractionCacheEntry entry = ExtractionCacheEntry.builder()
+                    .cacheKey(cacheKey)
+                    .contentHash(contentHash)
+                    .extractorVersion(pdfService.getExtractorVersion())
+                    .fileSize(fileSize)
+                    .processingTimeMs(result.getProcessingTimeMs())
+                    .payload(payload)
+                    .build();
+
+            storeTransaction.executeWithoutResult(status -> cacheRepository.saveAndFlush(entry));
+            log.debug("Extraction cached: {}", cacheKey);
+
+        } catch (Exception e) {
+            // Concurrent upload of the same file may have stored it first
+            log.warn("Failed to cache extraction {}: {}", cacheKey, e.getMessage());
+        }
+    }
+
+    /**
+     * Cache metrics (hit rate, input bytes and extraction time saved)
+     */
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("hits", hitCount);
+        stats.put("misses", misses.sum());
+        stats.put("hitRate", total == 0 ? 0.0 : (double) hitCount / total);
+        stats.put("bytesSaved", bytesSaved.sum());
+        stats.put("extractionMsSaved", extractionMsSaved.sum());
+        stats.put("degradedNotStored", degradedNotStored.sum());
+        return stats;
+    }
+
+    // ========================== SERIALIZATION ==========================
+
+    /**
+     * Pages and tables only - the text is the pages assembled, after a preamble
+     * for full OCR (the native headers/footers). A text that is not refuses to be cached.
+     */
+    private CachedExtraction toPayload(ExtractionResult result) {
+        String tableText = result.getTableText() != null ? result.getTableText() : "";
+        String assembled = ProductionPdfService.assembleText(result.getPageTexts(), tableText);
+        if (!result.getText().endsWith(assembled)) {
+            throw new IllegalStateException("Text does not end with its assembled pages");
+        }
+        String preamble = result.getText().substring(0, result.getText().length() - assembled.length());
+
+        List<CachedPage> pages = new ArrayList<>();
+        for (PageInfo page : result.getPages()) {
+            int index = page.getPageNumber() - 1;
+            String text = index < result.getPageTexts().size() ? result.getPageTexts().get(index) : "";
+            pages.add(new CachedPage(page.getPageNumber(), page.getCharCount(), page.isLowText(), page.isOcr(), text));
+        }
+        return new CachedExtraction(preamble, tableText, result.getProcessingTimeMs(),
+                result.getOcrPageCount(), pages, result.getWarnings(), result.getInfo());
+    }
+
+    private ExtractionResult toResult(CachedExtraction payload) {
+        List<PageInfo> pages = new ArrayList<>();
+        List<String> pageTexts = new ArrayList<>();
+        for (CachedPage page : payload.pages()) {
+            pages.add(new PageInfo(page.pageNumber(), page.charCount(), page.lowText(), page.ocr()));
+            pageTexts.add(page.text());
+        }
+
+        String text = payload.preamble() + ProductionPdfService.assembleText(pageTexts, payload.tableText());
+        ExtractionResult result = new ExtractionResult(text, pageTexts, payload.tableText(), pages,
+                payload.processingTimeMs(), payload.ocrPageCount());
+        payload.warnings().forEach(result::addWarning);
+        payload.info().forEach(result::addInfo);
+        result.addInfo("Served from extraction cache");
+        return result;
+    }
+
+    // Entries in the older form (with the full text) fail to read, and are
+    // replaced by the next extraction of their file
+    record CachedExtraction(String preamble, String tableText, long processingTimeMs, int ocrPageCount,
+                            List<CachedPage> pages, List<String> warnings, List<String> info) {
+    }
+
+    record CachedPage(int pageNumber, int charCount, boolean lowText, boolean ocr, String text) {
+    }
+}
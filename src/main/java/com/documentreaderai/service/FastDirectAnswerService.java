@@ -1,11 +1,26 @@
 package com.documentreaderai.service;
 
+import com.documentreaderai.config.TaskExecutors;
+import com.documentreaderai.config.TaskExecutors.Workload;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
 
 /**
  * ULTRA-FAST Direct Answer Service
@@ -28,10 +43,53 @@ public class FastDirectAnswerService {
     private static final String MODEL = "llama3.2:3b";  // 3B model - better quality, still fast
     private static final int CONTEXT = 16384;            // 16K context (handles 8-10 pages)
     private static final Duration TIMEOUT = Duration.ofSeconds(90); // 90 seconds max
+    private static final int NUM_PREDICT = 1024;
+    private static final int RETRIEVAL_TOKENS = 3000;    // ~12000 chars of best-matching chunks
     
-    public FastDirectAnswerService() {
+    // num_ctx is added per call, sized to the prompt
+    private static final Map<String, Object> OPTIONS = Map.of(
+        "temperature", 0.1,      // Low temp = more focused
+        "num_predict", NUM_PREDICT, // Max 1024 tokens output (longer answers)
+        "num_thread", 10,        // Use all M3 cores
+        "num_gpu", 1,            // GPU acceleration
+        "top_p", 0.9,            // Focused sampling
+        "repeat_penalty", 1.1    // Avoid repetition
+    );
+    
+    // Part of the cache key - editing it invalidates the cached answers
+    private static final String DIRECT_PROMPT = """
+            You are a helpful assistant. Answer ONLY the user's question. Be direct and concise.
+            
+            DOCUMENT:
+            %s
+            
+            QUESTION: %s
+            
+            ANSWER (direct, no extra formatting):
+            """;
+    
+    private final LlmResponseCache responseCache;
+    private final RetrievalService retrievalService;
+    private final OllamaScheduler scheduler;
+    private final Scheduler analysisScheduler;  // Blocking cache / retrieval work
+    
+    // METRICS
+    private final LongAdder firstTokenCount = new LongAdder();
+    private final LongAdder firstTokenTotalMs = new LongAdder();
+    private final AtomicLong firstTokenMaxMs = new AtomicLong();
+    
+    public FastDirectAnswerService(
+            LlmResponseCache responseCache,
+            RetrievalService retrievalService,
+            OllamaScheduler scheduler,
+            TaskExecutors taskExecutors,
+            @Value("${ollama.base-url:http://localhost:11434}") String ollamaBaseUrl) {
+        this.responseCache = responseCache;
+        this.retrievalService = retrievalService;
+        this.scheduler = scheduler;
+        this.analysisScheduler = taskExecutors.scheduler(Workload.ANALYSIS);
         this.webClient = WebClient.builder()
-                .baseUrl("http://localhost:11434")
+                .baseUrl(ollamaBaseUrl)
                 .codecs(configurer -> configurer
                     .defaultCodecs()
                     .maxInMemorySize(32 * 1024 * 1024))  // 32MB
@@ -42,102 +100,191 @@ public class FastDirectAnswerService {
      * Get direct answer - NO formatting, just the answer
      */
     public String getDirectAnswer(String documentText, String userQuestion) {
-        log.info("=== FAST DIRECT ANSWER ===");
-        log.info("Question: {}", userQuestion);
-        long startTime = System.currentTimeMillis();
-        
-        try {
-            // Truncate if too long (keep first 15000 chars for 8-10 pages)
-            String processedText = documentText.length() > 15000 
-                ? documentText.substring(0, 15000) + "\n[Document truncated to fit context]"
-                : documentText;
-            
-            // CRITICAL: Simple, direct prompt
-            String prompt = buildDirectPrompt(processedText, userQuestion);
-            
-            // Call AI
-            String answer = callOllama(prompt);
-            
-            long elapsed = System.currentTimeMillis() - startTime;
-            log.info("✓ Answer received in {}ms ({} seconds)", elapsed, elapsed/1000);
-            
-            return cleanAnswer(answer);
-            
-        } catch (Exception e) {
-            log.error("Fast answer failed", e);
-            return "Error: " + e.getMessage() + "\n\nPlease check:\n1. Ollama is running (ollama serve)\n2. Model installed: ollama pull llama3.2:1b";
-        }
+        return getDirectAnswer(null, documentText, userQuestion);
+    }
+
+    /**
+     * Blocking form of getDirectAnswerReactive
+     */
+    public String getDirectAnswer(UUID documentId, String documentText, String userQuestion) {
+        return getDirectAnswerReactive(documentId, documentText, userQuestion).block();
+    }
+
+    /**
+     * Direct answer from the chunks of an indexed document that best match the question.
+     * Non-blocking: no thread is held while the model generates.
+     */
+    public Mono<String> getDirectAnswerReactive(UUID documentId, String documentText, String userQuestion) {
+        return retrieveContext(documentId, documentText, userQuestion)
+            .flatMap(processedText -> {
+                long startTime = System.currentTimeMillis();
+                
+                // CRITICAL: Simple, direct prompt
+                String prompt = buildDirectPrompt(processedText, userQuestion);
+                Map<String, Object> options = optionsFor(prompt);
+                
+                // Same question on the same document → cached answer
+                LlmResponseCache.CacheKey cacheKey = responseCache.keyFor(MODEL, options, DIRECT_PROMPT + userQuestion, processedText);
+                Optional<String> cached = responseCache.get(cacheKey);
+                if (cached.isPresent()) {
+                    log.info("✓ Answer served from cache");
+                    return Mono.just(cleanAnswer(cached.get()));
+                }
+                
+                // Call AI
+                return callOllama(prompt, options)
+                    .publishOn(analysisScheduler)
+                    .map(answer -> {
+                        responseCache.put(cacheKey, answer);
+                        
+                        long elapsed = System.currentTimeMillis() - startTime;
+                        log.info("✓ Answer received in {}ms ({} seconds)", elapsed, elapsed/1000);
+                        
+                        return cleanAnswer(answer);
+                    });
+            })
+            .onErrorResume(e -> !(e instanceof OllamaBusyException), e -> {  // Busy: caller decides (429 / retry)
+                log.error("Fast answer failed", e);
+                return Mono.just("Error: " + e.getMessage() + "\n\nPlease check:\n1. Ollama is running (ollama serve)\n2. Model installed: ollama pull llama3.2:1b");
+            })
+            .contextWrite(OllamaScheduler.priorityContext());
+    }
+
+    /**
+     * Direct answer relayed token by token as the model generates it.
+     * Tokens are raw (see cleanAnswer); a cached answer arrives as one token.
+     * Errors, including OllamaBusyException, are passed to the subscriber.
+     */
+    public Flux<String> streamDirectAnswer(UUID documentId, String documentText, String userQuestion) {
+        return retrieveContext(documentId, documentText, userQuestion)
+            .flatMapMany(processedText -> {
+                String prompt = buildDirectPrompt(processedText, userQuestion);
+                Map<String, Object> options = optionsFor(prompt);
+                
+                LlmResponseCache.CacheKey cacheKey = responseCache.keyFor(MODEL, options, DIRECT_PROMPT + userQuestion, processedText);
+                Optional<String> cached = responseCache.get(cacheKey);
+                if (cached.isPresent()) {
+                    log.info("✓ Answer served from cache");
+                    return Flux.just(cached.get());
+                }
+                
+                // Only a fully generated answer is cached - not one cut off by a disconnect
+                StringBuilder answer = new StringBuilder();
+                return streamOllama(prompt, options)
+                    .doOnNext(answer::append)
+                    .doOnComplete(() -> analysisScheduler
+                        .schedule(() -> responseCache.put(cacheKey, answer.toString())));
+            })
+            .contextWrite(OllamaScheduler.priorityContext());
+    }
+
+    /**
+     * Best-matching chunks; without an index keep the first 15000 chars (8-10 pages)
+     */
+    private Mono<String> retrieveContext(UUID documentId, String documentText, String userQuestion) {
+        return Mono.fromCallable(() -> {
+                log.info("=== FAST DIRECT ANSWER ===");
+                log.info("Question: {}", userQuestion);
+                
+                return retrievalService.retrieve(documentId, userQuestion, RETRIEVAL_TOKENS)
+                    .orElseGet(() -> documentText.length() > 15000 
+                        ? documentText.substring(0, 15000) + "\n[Document truncated to fit context]"
+                        : documentText);
+            })
+            .subscribeOn(analysisScheduler);  // Retrieval may read chunks from Postgres
+    }
+
+    /**
+     * OPTIONS plus the smallest num_ctx that fits the prompt
+     */
+    private Map<String, Object> optionsFor(String prompt) {
+        Map<String, Object> options = new HashMap<>(OPTIONS);
+        options.put("num_ctx", RetrievalService.contextSizeFor(prompt, NUM_PREDICT, CONTEXT));
+        return options;
     }
 
     /**
      * Build ultra-simple prompt for direct answers
      */
     private String buildDirectPrompt(String documentText, String userQuestion) {
-        return String.format("""
-            You are a helpful assistant. Answer ONLY the user's question. Be direct and concise.
-            
-            DOCUMENT:
-            %s
-            
-            QUESTION: %s
-            
-            ANSWER (direct, no extra formatting):
-            """, 
-            documentText, 
-            userQuestion
-        );
+        return String.format(DIRECT_PROMPT, documentText, userQuestion);
     }
 
     /**
      * Call Ollama with streaming for faster response
      */
-    private String callOllama(String prompt) {
-        try {
-            Map<String, Object> requestBody = Map.of(
-                "model", MODEL,
-                "prompt", prompt,
-                "stream", true,  // Streaming for faster perception
-                "options", Map.of(
-                    "num_ctx", CONTEXT,
-                    "temperature", 0.1,      // Low temp = more focused
-                    "num_predict", 1024,     // Max 1024 tokens output (longer answers)
-                    "num_thread", 10,        // Use all M3 cores
-                    "num_gpu", 1,            // GPU acceleration
-                    "top_p", 0.9,            // Focused sampling
-                    "repeat_penalty", 1.1    // Avoid repetition
-                )
-            );
-            
-            log.debug("→ Sending to Ollama...");
+    private Mono<String> callOllama(String prompt, Map<String, Object> options) {
+        return streamOllama(prompt, options)
+            .collect(Collectors.joining())
+            .onErrorMap(e -> !(e instanceof OllamaBusyException), e -> {
+                log.error("Ollama call failed", e);
+                return new RuntimeException("AI failed: " + e.getMessage());
+            });
+    }
+
+    /**
+     * Tokens of the streamed /api/generate response as they arrive.
+     * Time to first token is measured from subscription, so it includes the queue wait.
+     */
+    private Flux<String> streamOllama(String prompt, Map<String, Object> options) {
+        Map<String, Object> requestBody = Map.of(
+            "model", MODEL,
+            "prompt", prompt,
+            "stream", true,  // Streaming for faster perception
+            "options", options
+        );
+        
+        return Flux.defer(() -> {
+            long startNanos = System.nanoTime();
+            AtomicBoolean firstToken = new AtomicBoolean(true);
             
-            // Stream response
-            StringBuilder response = new StringBuilder();
-            webClient.post()
-                .uri("/api/generate")
-                .bodyValue(requestBody)
-                .retrieve()
-                .bodyToFlux(Map.class)
-                .timeout(TIMEOUT)
-                .doOnNext(chunk -> {
-                    if (chunk.containsKey("response")) {
-                        response.append((String) chunk.get("response"));
-                    }
+            // Wait for a slot on this model (bounded queue, interactive first)
+            return scheduler.executeStreaming(MODEL, () -> {
+                    log.debug("→ Sending to Ollama...");
+                    
+                    // Stream response
+                    return webClient.post()
+                        .uri("/api/generate")
+                        .bodyValue(requestBody)
+                        .retrieve()
+                        .bodyToFlux(Map.class)
+                        .timeout(TIMEOUT)
+                        .filter(chunk -> chunk.containsKey("response"))
+                        .map(chunk -> (String) chunk.get("response"))
+                        .doOnError(e -> log.error("Stream error", e));
                 })
-                .doOnError(e -> log.error("Stream error", e))
-                .blockLast();
-            
-            return response.toString();
-            
-        } catch (Exception e) {
-            log.error("Ollama call failed", e);
-            throw new RuntimeException("AI failed: " + e.getMessage());
-        }
+                .doOnNext(token -> {
+                    if (firstToken.compareAndSet(true, false)) {
+                        recordFirstToken(System.nanoTime() - startNanos);
+                    }
+                });
+        });
+    }
+
+    private void recordFirstToken(long nanos) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        firstTokenCount.increment();
+        firstTokenTotalMs.add(millis);
+        firstTokenMaxMs.accumulateAndGet(millis, Math::max);
+        log.debug("First token after {}ms", millis);
+    }
+
+    /**
+     * Time to first token across all model calls
+     */
+    public Map<String, Object> getStreamingStats() {
+        long count = firstTokenCount.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("generations", count);
+        stats.put("avgTimeToFirstTokenMs", count == 0 ? 0 : firstTokenTotalMs.sum() / count);
+        stats.put("maxTimeToFirstTokenMs", firstTokenMaxMs.get());
+        return stats;
     }
 
     /**
      * Clean up AI response - remove markdown, extra formatting
      */
-    private String cleanAnswer(String rawAnswer) {
+    String cleanAnswer(String rawAnswer) {
         String cleaned = rawAnswer
             .replaceAll("```json", "")
             .replaceAll("```", "")
@@ -153,6 +300,13 @@ public class FastDirectAnswerService {
         return cleaned;
     }
 
+    /**
+     * False when the model's wait queue is full (new questions would be rejected)
+     */
+    public boolean isAccepting() {
+        return scheduler.isAccepting(MODEL);
+    }
+
     /**
      * Check if Ollama is available
      */
@@ -2,24 +2,31 @@ package com.documentreaderai.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
-import org.springframework.scheduling.annotation.Async;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import com.documentreaderai.config.TaskExecutors;
+import com.documentreaderai.config.TaskExecutors.Workload;
+import com.documentreaderai.model.dto.DocumentStatusView;
+import com.documentreaderai.model.dto.DocumentSummary;
 import com.documentreaderai.model.entity.Document;
 import com.documentreaderai.model.entity.Document.DocumentStatus;
 import com.documentreaderai.repository.DocumentRepository;
+import com.documentreaderai.service.ProductionPdfService.ExtractionResult;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
-import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 /**
  * FAST Document Service
@@ -38,6 +45,12 @@ public class FastDocumentService {
     private final DocumentRepository documentRepository;
     private final FastOcrPdfService pdfService;
     private final FastDirectAnswerService aiService;
+    private final RetrievalService retrievalService;
+    private final DocumentPageService documentPageService;
+    private final DocumentSearchService documentSearchService;
+    private final OllamaScheduler ollamaScheduler;
+    private final AnalysisEventPublisher analysisEvents;
+    private final TaskExecutors taskExecutors;
 
     private static final String UPLOAD_DIR = "./uploads/";
     private static final int MAX_PAGES = 10;  // Process up to 10 pages
@@ -99,12 +112,16 @@ public class FastDocumentService {
             documentRepository.saveAndFlush(document);
 
             // Extract text (with OCR fallback)
-            String extractedText = pdfService.extractText(document.getFilePath(), MAX_PAGES);
+            ExtractionResult result = pdfService.extract(document.getFilePath(), MAX_PAGES);
 
-            document.setExtractedText(extractedText);
+            document.setExtractedText(result.getText());
             document.setTotalPages(MAX_PAGES);  // We only process 4 pages
             document.setStatus(DocumentStatus.READY);
             documentRepository.saveAndFlush(document);
+            documentPageService.savePages(documentId, result);
+
+            // Page-aware chunks for retrieval at question time
+            retrievalService.indexDocument(documentId, result);
 
             log.info("✓ Text extracted for: {}", documentId);
 
@@ -121,47 +138,85 @@ public class FastDocumentService {
 
     /**
      * FAST AI analysis - direct answer only
+     * Returns once the document is ANALYZING; the answer is saved when the model
+     * finishes, without holding an executor thread while it generates
      */
-    @Async
-    @Transactional
     public CompletableFuture<Document> analyzeDocumentAsync(UUID documentId, String question) {
         log.info("=== STARTING FAST ANALYSIS ===");
         log.info("Question: {}", question);
 
-        try {
-            Document document = documentRepository.findById(documentId)
-                    .orElseThrow(() -> new RuntimeException("Document not found"));
-
-            document.setStatus(DocumentStatus.ANALYZING);
-            documentRepository.saveAndFlush(document);
-
-            // Get direct answer
-            String answer = aiService.getDirectAnswer(document.getExtractedText(), question);
-
-            document.setAiAnalysis(answer);
-            document.setStatus(DocumentStatus.ANALYZED);
-            documentRepository.saveAndFlush(document);
-
-            log.info("✓ Analysis complete");
-
-            return CompletableFuture.completedFuture(document);
+        Document document = documentRepository.findById(documentId)
+                .orElseThrow(() -> new RuntimeException("Document not found"));
+
+        document.setStatus(DocumentStatus.ANALYZING);
+        documentRepository.saveAndFlush(document);
+
+        // Get direct answer
+        return aiService.getDirectAnswerReactive(documentId, document.getExtractedText(), question)
+                .publishOn(taskExecutors.scheduler(Workload.ANALYSIS))  // JPA writes below
+                .map(answer -> {
+                    Document analyzed = saveAnalysis(documentId, DocumentStatus.ANALYZED, answer);
+                    log.info("✓ Analysis complete");
+                    return analyzed;
+                })
+                .onErrorResume(e -> {
+                    log.error("Analysis failed", e);
+                    try {
+                        saveAnalysis(documentId, DocumentStatus.FAILED, "Error: " + e.getMessage());
+                    } catch (Exception ex) {
+                        log.error("Failed to update error status", ex);
+                    }
+                    return Mono.error(new RuntimeException("Analysis failed: " + e.getMessage()));
+                })
+                .toFuture();
+    }
 
-        } catch (Exception e) {
-            log.error("Analysis failed", e);
+    /**
+     * FAST AI analysis streamed token by token
+     * The answer is saved when the model finishes, even if the caller stops
+     * listening part-way; a cut-off stream never overwrites aiAnalysis
+     */
+    public Flux<String> streamAnalysis(UUID documentId, String question) {
+        log.info("=== STARTING STREAMED ANALYSIS ===");
+        log.info("Question: {}", question);
 
-            try {
-                Document document = documentRepository.findById(documentId).orElse(null);
-                if (document != null) {
-                    document.setStatus(DocumentStatus.FAILED);
-                    document.setAiAnalysis("Error: " + e.getMessage());
-                    documentRepository.saveAndFlush(document);
-                }
-            } catch (Exception ex) {
-                log.error("Failed to update error status", ex);
-            }
+        Document document = documentRepository.findById(documentId)
+                .orElseThrow(() -> new RuntimeException("Document not found"));
+
+        document.setStatus(DocumentStatus.ANALYZING);
+        documentRepository.saveAndFlush(document);
+
+        // One generation shared by the caller and the save below
+        Flux<String> tokens = aiService.streamDirectAnswer(documentId, document.getExtractedText(), question)
+                .cache();
+
+        tokens.collect(Collectors.joining())
+                .publishOn(taskExecutors.scheduler(Workload.ANALYSIS))  // JPA writes below
+                .subscribe(
+                        answer -> {
+                            saveAnalysis(documentId, DocumentStatus.ANALYZED, aiService.cleanAnswer(answer));
+                            log.info("✓ Streamed analysis complete");
+                        },
+                        e -> {
+                            log.error("Streamed analysis failed", e);
+                            try {
+                                saveAnalysis(documentId, DocumentStatus.FAILED, "Error: " + e.getMessage());
+                            } catch (Exception ex) {
+                                log.error("Failed to update error status", ex);
+                            }
+                        });
+
+        return tokens;
+    }
 
-            throw new RuntimeException("Analysis failed: " + e.getMessage());
-        }
+    private Document saveAnalysis(UUID documentId, DocumentStatus status, String analysis) {
+        Document document = documentRepository.findById(documentId)
+                .orElseThrow(() -> new RuntimeException("Document not found"));
+        document.setAiAnalysis(analysis);
+        document.setStatus(status);
+        Document saved = documentRepository.saveAndFlush(document);
+        analysisEvents.publish(documentId, status, analysis);
+        return saved;
     }
 
     // CRUD operations
@@ -169,8 +224,18 @@ public class FastDocumentService {
         return documentRepository.findById(id).orElse(null);
     }
 
-    public List<Document> getAllDocuments() {
-        return documentRepository.findAll();
+    /**
+     * Status row only (no extracted text), for the status endpoints
+     */
+    public DocumentStatusView getDocumentStatus(UUID id) {
+        return documentRepository.findStatusById(id).orElse(null);
+    }
+
+    /**
+     * One page of the documents list, newest first - summaries only, never the text
+     */
+    public Page<DocumentSummary> getDocumentPage(int page, int size) {
+        return documentRepository.findSummaries(page, size);
     }
 
     @Transactional
@@ -183,17 +248,31 @@ public class FastDocumentService {
             } catch (IOException e) {
                 log.error("Error deleting file", e);
             }
+            retrievalService.deleteIndex(id);
+            documentPageService.deletePages(id);
             documentRepository.delete(document);
         }
     }
 
+    /**
+     * False when a new question would be rejected (model queue full)
+     */
+    public boolean isAcceptingAnalysis() {
+        return aiService.isAccepting();
+    }
+
     /**
      * System status
      */
     public Object getSystemStatus() {
         return Map.of(
             "ocrAvailable", pdfService.isOcrReady(),
+            "ocrPool", pdfService.getOcrStats(),
             "aiAvailable", aiService.isAvailable(),
+            "llmScheduler", ollamaScheduler.getStats(),
+            "streaming", aiService.getStreamingStats(),
+            "executors", taskExecutors.getStats(),
+            "search", documentSearchService.getStats(),
             "maxPages", MAX_PAGES,
             "model", "llama3.2:3b"
         );
@@ -1,8 +1,9 @@
 package com.documentreaderai.service;
 
+import com.documentreaderai.service.ProductionPdfService.ExtractionResult;
+import com.documentreaderai.service.ProductionPdfService.PageInfo;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import net.sourceforge.tess4j.Tesseract;
-import net.sourceforge.tess4j.TesseractException;
 import org.apache.pdfbox.Loader;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.rendering.PDFRenderer;
@@ -11,6 +12,11 @@ import org.springframework.stereotype.Service;
 
 import java.awt.image.BufferedImage;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 /**
  * FAST OCR-Enabled PDF Service
@@ -22,44 +28,20 @@ import java.io.File;
  * Optimized for 3-4 pages on M3 Mac
  */
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class FastOcrPdfService {
 
-    private final Tesseract tesseract;
-    private boolean ocrReady = false;
-    
-    public FastOcrPdfService() {
-        this.tesseract = new Tesseract();
-        setupTesseract();
-    }
+    private static final int MIN_CHARS_PER_PAGE = 100;  // Below this on average, the PDF is likely scanned
 
-    /**
-     * Setup Tesseract OCR
-     */
-    private void setupTesseract() {
-        try {
-            // M3 Mac Homebrew path
-            String tessdata = "/opt/homebrew/share/tessdata";
-            
-            if (new File(tessdata).exists()) {
-                tesseract.setDatapath(tessdata);
-                tesseract.setLanguage("eng");
-                tesseract.setPageSegMode(1);  // Auto
-                tesseract.setOcrEngineMode(1); // LSTM neural net
-                ocrReady = true;
-                log.info("✓ OCR ready (Tesseract at {})", tessdata);
-            } else {
-                log.warn("⚠️ OCR not available - install: brew install tesseract");
-            }
-        } catch (Exception e) {
-            log.error("OCR setup failed", e);
-        }
-    }
+    private final TesseractPool tesseractPool;
 
     /**
-     * Extract text - tries native first, falls back to OCR
+     * Extract text - tries native first, falls back to OCR. The result keeps
+     * every processed page's text for page storage; on failure it has the
+     * error as text and no pages.
      */
-    public String extractText(String pdfPath, int maxPages) {
+    public ExtractionResult extract(String pdfPath, int maxPages) {
         log.info("=== EXTRACTING TEXT ===");
         log.info("File: {}, Max pages: {}", pdfPath, maxPages);
         long startTime = System.currentTimeMillis();
@@ -71,82 +53,124 @@ public class FastOcrPdfService {
             log.info("Processing {} of {} pages", pagesToProcess, totalPages);
             
             // Try native text first
-            String nativeText = extractNativeText(document, pagesToProcess);
+            List<String> nativePages = extractNativeText(document, pagesToProcess);
+            String nativeText = joinPages(nativePages);
             
             // Check quality
-            int avgCharsPerPage = nativeText.length() / pagesToProcess;
+            int avgCharsPerPage = nativePages.stream().mapToInt(String::length).sum() / pagesToProcess;
             log.info("Native extraction: {} chars/page", avgCharsPerPage);
             
-            if (avgCharsPerPage > 100) {
+            if (avgCharsPerPage > MIN_CHARS_PER_PAGE) {
                 // Good native text
                 long elapsed = System.currentTimeMillis() - startTime;
                 log.info("✓ Native extraction: {}ms", elapsed);
-                return nativeText;
+                return result(nativeText, nativePages, false, elapsed);
             }
             
             // Native text poor - try OCR
-            if (ocrReady) {
+            if (tesseractPool.isAvailable()) {
                 log.info("→ Low native text detected, switching to OCR...");
-                String ocrText = extractWithOcr(document, pagesToProcess);
+                List<String> ocrPages = new ArrayList<>();
+                String ocrText = extractWithOcr(document, pagesToProcess, ocrPages);
                 long elapsed = System.currentTimeMillis() - startTime;
                 log.info("✓ OCR extraction: {}ms", elapsed);
-                return ocrText;
+                return result(ocrText, ocrPages, true, elapsed);
             } else {
                 log.warn("⚠️ Poor text quality but OCR not available");
-                return nativeText + "\n\n[WARNING: Document may be image-based. Install Tesseract: brew install tesseract]";
+                return result(nativeText + "\n\n[WARNING: Document may be image-based. Install Tesseract: brew install tesseract]",
+                        nativePages, false, System.currentTimeMillis() - startTime);
             }
             
         } catch (Exception e) {
             log.error("PDF extraction failed", e);
-            return "[ERROR: Could not extract text - " + e.getMessage() + "]";
+            return new ExtractionResult("[ERROR: Could not extract text - " + e.getMessage() + "]",
+                    List.of(), "", List.of(), System.currentTimeMillis() - startTime, 0);
         }
     }
 
     /**
-     * Extract native text (fast)
+     * Extract native text (fast), one string per page
      */
-    private String extractNativeText(PDDocument document, int maxPages) throws Exception {
+    private List<String> extractNativeText(PDDocument document, int maxPages) throws Exception {
         PDFTextStripper stripper = new PDFTextStripper();
-        stripper.setStartPage(1);
-        stripper.setEndPage(maxPages);
         stripper.setSortByPosition(true);
         
-        return stripper.getText(document);
+        List<String> pageTexts = new ArrayList<>(maxPages);
+        for (int i = 1; i <= maxPages; i++) {
+            stripper.setStartPage(i);
+            stripper.setEndPage(i);
+            pageTexts.add(stripper.getText(document));
+        }
+        return pageTexts;
     }
 
     /**
-     * Extract with OCR (slower but reads images)
+     * Extract with OCR (slower but reads images); every page's text is added to pageTexts
      */
-    private String extractWithOcr(PDDocument document, int maxPages) throws Exception {
+    private String extractWithOcr(PDDocument document, int maxPages, List<String> pageTexts) throws Exception {
         PDFRenderer renderer = new PDFRenderer(document);
         StringBuilder ocrText = new StringBuilder();
         
+        // Render sequentially, OCR pages in parallel across the pool
+        List<Future<String>> pageFutures = new ArrayList<>();
         for (int i = 0; i < maxPages; i++) {
+            log.info("OCR page {}/{}...", i + 1, maxPages);
+            
+            // Render page at 300 DPI (good quality)
+            BufferedImage image = renderer.renderImageWithDPI(i, 300);
+            pageFutures.add(tesseractPool.submit(image));
+        }
+        
+        for (int i = 0; i < pageFutures.size(); i++) {
             try {
-                log.info("OCR page {}/{}...", i + 1, maxPages);
-                
-                // Render page at 300 DPI (good quality)
-                BufferedImage image = renderer.renderImageWithDPI(i, 300);
-                
-                // OCR the image
-                String pageText = tesseract.doOCR(image);
+                String pageText = pageFutures.get(i).get();
                 
                 ocrText.append("=== PAGE ").append(i + 1).append(" ===\n");
                 ocrText.append(pageText).append("\n\n");
+                pageTexts.add(pageText);
                 
-            } catch (TesseractException e) {
-                log.error("OCR failed for page {}", i + 1, e);
+            } catch (ExecutionException e) {
+                log.error("OCR failed for page {}", i + 1, e.getCause());
                 ocrText.append("[OCR failed for page ").append(i + 1).append("]\n\n");
+                pageTexts.add("");
             }
         }
         
         return ocrText.toString();
     }
 
+    /**
+     * Join pages in order with END OF PAGE markers (as ProductionPdfService does)
+     */
+    private static String joinPages(List<String> pageTexts) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 1; i <= pageTexts.size(); i++) {
+            text.append(pageTexts.get(i - 1));
+            text.append("\n\n=== END OF PAGE ").append(i).append(" ===\n\n");
+        }
+        return text.toString();
+    }
+
+    private static ExtractionResult result(String text, List<String> pageTexts, boolean ocr, long elapsed) {
+        List<PageInfo> pages = new ArrayList<>(pageTexts.size());
+        for (int i = 1; i <= pageTexts.size(); i++) {
+            String pageText = pageTexts.get(i - 1);
+            pages.add(new PageInfo(i, pageText.length(), pageText.trim().length() < MIN_CHARS_PER_PAGE, ocr));
+        }
+        return new ExtractionResult(text, pageTexts, "", pages, elapsed, ocr ? pages.size() : 0);
+    }
+
     /**
      * Check if OCR is ready
      */
     public boolean isOcrReady() {
-        return ocrReady;
+        return tesseractPool.isAvailable();
+    }
+
+    /**
+     * OCR pool metrics (queue wait, per-page latency)
+     */
+    public Map<String, Object> getOcrStats() {
+        return tesseractPool.getStats();
     }
 }
\ No newline at end of file
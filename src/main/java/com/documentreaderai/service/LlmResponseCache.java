@@ -0,0 +1,279 @@
+package com.documentreaderai.service;
+
+import com.documentreaderai.config.TaskExecutors;
+import com.documentreaderai.config.TaskExecutors.Timer;
+import com.documentreaderai.model.entity.LlmResponseCacheEntry;
+import com.documentreaderai.repository.LlmResponseCacheRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Two-tier LLM response cache
+ *
+ * Tier 1: in-memory LRU bounded by an approximate byte budget
+ * Tier 2: llm_response_cache table in Postgres (survives restarts)
+ *
+ * Stored rows expire after llm.cache.ttl-hours without a hit and are deleted
+ * by a periodic purge; an expired row that has not been purged yet is a miss.
+ *
+ * Keys cover model, generation options (num_ctx, temperature, ...), the prompt
+ * template and a digest of the document, so any change to one of them is a miss.
+ * Only low-temperature calls are cached - higher temperatures are meant to vary.
+ */
+@Service
+@Slf4j
+public class LlmResponseCache {
+
+    private final LlmResponseCacheRepository cacheRepository;
+    private final TransactionTemplate storeTransaction;
+    private final boolean enabled;
+    private final double maxTemperature;
+    private final long memoryBudgetBytes;
+    private final Duration ttl;
+    private final ScheduledFuture<?> purger;
+
+    // LRU: access-ordered, guarded by this
+    private final LinkedHashMap<String, MemoryEntry> memory = new LinkedHashMap<>(256, 0.75f, true);
+    private long memoryBytes = 0;
+
+    // METRICS
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder diskHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder purged = new LongAdder();
+
+    public LlmResponseCache(
+            LlmResponseCacheRepository cacheRepository,
+            PlatformTransactionManager transactionManager,
+            TaskExecutors taskExecutors,
+            @Value("${llm.cache.enabled:true}") boolean enabled,
+            @Value("${llm.cache.max-temperature:0.2}") double maxTemperature,
+            @Value("${llm.cache.memory-bytes:67108864}") long memoryBudgetBytes,
+            @Value("${llm.cache.ttl-hours:168}") long ttlHours,
+            @Value("${llm.cache.purge-interval-minutes:60}") long purgeIntervalMinutes) {
+        this.cacheRepository = cacheRepository;
+        this.enabled = enabled;
+        this.maxTemperature = maxTemperature;
+        this.memoryBudgetBytes = memoryBudgetBytes;
+        this.ttl = Duration.ofHours(Math.max(1, ttlHours));
+
+        // Cache writes must never roll back the caller's transaction
+        this.storeTransaction = new TransactionTemplate(transactionManager);
+        this.storeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        long interval = Math.max(1, purgeIntervalMinutes);
+        this.purger = taskExecutors.timer(Timer.LLM_CACHE_PURGE)
+                .scheduleWithFixedDelay(this::purgeExpired, interval, interval, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        purger.cancel(true);
+    }
+
+    /**
+     * Build the cache key for a call, or null if the call is not cacheable.
+     * promptTemplate is the template text plus whatever fills it besides the
+     * document (question, system prompt), so editing a template is a miss.
+     */
+    public CacheKey keyFor(String model, Map<String, Object> options, String promptTemplate, String documentText) {
+        Object temperature = options.get("temperature");
+        if (!enabled || !(temperature instanceof Number t) || t.doubleValue() > maxTemperature) {
+            bypassed.increment();
+            return null;
+        }
+
+        String documentDigest = digest(documentText);
+        String material = model + "\n" + new TreeMap<>(options) + "\n" + digest(promptTemplate) + "\n" + documentDigest;
+        return new CacheKey(digest(material), model, documentDigest);
+    }
+
+    public Optional<String> get(CacheKey key) {
+        if (key == null) {
+            return Optional.empty();
+        }
+
+        synchronized (this) {
+            MemoryEntry entry = memory.get(key.hash());
+            if (entry != null) {
+                memoryHits.increment();
+                return Optional.of(entry.response());
+            }
+        }
+
+        try {
+            Optional<LlmResponseCacheEntry> stored = cacheRepository.findById(key.hash());
+            LocalDateTime now = LocalDateTime.now();
+            if (stored.isPresent() && isExpired(stored.get(), now)) {
+                expired.increment();
+            } else if (stored.isPresent()) {
+                diskHits.increment();
+                cacheRepository.recordHit(key.hash(), now, now.plus(ttl));
+                remember(key, stored.get().getResponse());
+                return Optional.of(stored.get().getResponse());
+            }
+        } catch (Exception e) {
+            log.warn("LLM cache lookup failed: {}", e.getMessage());
+        }
+
+        misses.increment();
+        return Optional.empty();
+    }
+
+    public void put(CacheKey key, String response) {
+        if (key == null || response == null || response.isBlank()) {
+            return;
+        }
+
+        remember(key, response);
+
+        try {
+            LlmResponseCacheEntry entry = LlmResponseCacheEntry.builder()
+                    .cacheKey(key.hash())
+                    .model(key.model())
+                    .documentDigest(key.documentDigest())
+                    .response(response)
+                    .expiresAt(LocalDateTime.now().plus(ttl))
+                    .build();
+            storeTransaction.executeWithoutResult(status -> cacheRepository.saveAndFlush(entry));
+        } catch (Exception e) {
+            // Concurrent identical call may have stored it first
+            log.warn("Failed to persist LLM response: {}", e.getMessage());
+        }
+    }
+
+    private static boolean isExpired(LlmResponseCacheEntry entry, LocalDateTime now) {
+        return entry.getExpiresAt() == null || entry.getExpiresAt().isBefore(now);
+    }
+
+    private synchronized void remember(CacheKey key, String response) {
+        MemoryEntry entry = new MemoryEntry(key.model(), key.documentDigest(), response);
+        MemoryEntry previous = memory.put(key.hash(), entry);
+        if (previous != null) {
+            memoryBytes -= previous.sizeBytes();
+        }
+        memoryBytes += entry.sizeBytes();
+
+        // Evict least-recently-used until within budget
+        Iterator<MemoryEntry> it = memory.values().iterator();
+        while (memoryBytes > memoryBudgetBytes && it.hasNext()) {
+            memoryBytes -= it.next().sizeBytes();
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    // ========================== INVALIDATION ==========================
+
+    // The monitor guards memory only - the DELETE runs outside it, so a
+    // virtual thread is never pinned to its carrier for a database round trip
+
+    public int invalidateAll() {
+        synchronized (this) {
+            memory.clear();
+            memoryBytes = 0;
+        }
+        return cacheRepository.deleteAllEntries();
+    }
+
+    public int invalidateModel(String model) {
+        synchronized (this) {
+            memory.values().removeIf(entry -> {
+                boolean matches = entry.model().equals(model);
+                if (matches) memoryBytes -= entry.sizeBytes();
+                return matches;
+            });
+        }
+        return cacheRepository.deleteByModel(model);
+    }
+
+    /**
+     * Delete stored rows past their expiry. The memory tier is bounded by its
+     * byte budget and keeps what it holds until evicted.
+     */
+    public int purgeExpired() {
+        try {
+            int deleted = cacheRepository.deleteExpired(LocalDateTime.now());
+            purged.add(deleted);
+            if (deleted > 0) {
+                log.info("↻ Purged {} expired LLM cache entries", deleted);
+            }
+            return deleted;
+        } catch (Exception e) {
+            log.warn("LLM cache purge failed: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Cache metrics
+     */
+    public Map<String, Object> getStats() {
+        long hits = memoryHits.sum() + diskHits.sum();
+        long lookups = hits + misses.sum();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("maxTemperature", maxTemperature);
+        stats.put("memoryHits", memoryHits.sum());
+        stats.put("diskHits", diskHits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("hitRate", lookups == 0 ? 0.0 : (double) hits / lookups);
+        stats.put("bypassed", bypassed.sum());
+        stats.put("evictions", evictions.sum());
+        stats.put("expired", expired.sum());
+        stats.put("purged", purged.sum());
+        stats.put("ttlHours", ttl.toHours());
+        synchronized (this) {
+            stats.put("memoryEntries", memory.size());
+            stats.put("memoryBytes", memoryBytes);
+        }
+        stats.put("memoryBudgetBytes", memoryBudgetBytes);
+        return stats;
+    }
+
+    /**
+     * SHA-256 hex digest of a string
+     */
+    public static String digest(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest((text != null ? text : "").getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public record CacheKey(String hash, String model, String documentDigest) {
+    }
+
+    private record MemoryEntry(String model, String documentDigest, String response) {
+        long sizeBytes() {
+            return 2L * response.length() + 128;  // UTF-16 chars + entry overhead
+        }
+    }
+}
@@ -1,14 +1,28 @@
 package com.documentreaderai.service;
 
+import com.documentreaderai.config.TaskExecutors;
+import com.documentreaderai.config.TaskExecutors.Workload;
+import com.documentreaderai.model.entity.DocumentPage;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 /**
  * Advanced Multi-Model AI Service
@@ -20,12 +34,26 @@ import java.util.concurrent.TimeoutException;
  * - Vision Model (11B): Image-based PDFs → 10-15 seconds
  * 
  * This reduces analysis time from 20-30s to 5-15s!
+ * 
+ * Calls are non-blocking end to end (analyzeDocumentReactive): a generation
+ * in flight holds no thread, only the blocking bits (Postgres lookups, text
+ * pre-scan) run on the ANALYSIS pool's scheduler.
  */
 @Service
 @Slf4j
 public class MultiModelOllamaService {
 
     private final WebClient webClient;
+    private final LlmResponseCache responseCache;
+    private final RetrievalService retrievalService;
+    private final DocumentPageService documentPageService;
+    private final OllamaScheduler scheduler;
+    private final Scheduler analysisScheduler;  // Blocking cache / retrieval / pre-scan work
+    private final int retrievalTokenBudget;
+    private final boolean mapReduceEnabled;
+    private final int mapChunkChars;
+    private final int mapOverlapChars;
+    private final int mapConcurrency;
     
     // MODEL CONFIGURATION
     private static final String FAST_MODEL = "llama3.2:1b";          // Quick routing
@@ -36,6 +64,7 @@ public class MultiModelOllamaService {
     private static final int FAST_CONTEXT = 4096;
     private static final int POWER_CONTEXT = 32768;    // Qwen supports 32K!
     private static final int VISION_CONTEXT = 8192;
+    private static final int POWER_MAX_CONTEXT = 16384;  // What the power model actually runs with
     
     // TIMEOUTS
  // TIMEOUTS (increased for M4 Mac)
@@ -47,10 +76,97 @@ public class MultiModelOllamaService {
     private static final int MAX_FAST_CHARS = 8000;
     private static final int MAX_POWER_CHARS = 120000;  // Qwen handles 120K chars!
     private static final int MAX_VISION_CHARS = 30000;
+    private static final int NUM_PREDICT = 2048;
+    private static final int MAP_NUM_PREDICT = 512;      // Findings per chunk stay short
+    
+    // RETRIEVAL (fast model budget stays within FAST_CONTEXT)
+    private static final int FAST_RETRIEVAL_TOKENS = 1500;
+    
+    // LOCAL PRE-SCAN
+    private static final int MAX_FILTERED_CHARS = 80000;
+    private static final int MIN_PAGE_SCORE = 3;
+    private static final int PRE_SCAN_CACHE_SIZE = 64;
+    private static final Pattern PAGE_START_MARKER = Pattern.compile("(?m)^=== PAGE \\d+ ===$");
+    private static final Pattern LONG_NUMBER = Pattern.compile("\\d{4,}");
+    
+    // System prompt, document, user request - part of the cache key
+    private static final String PROMPT_WRAPPER = """
+            %s
+            
+            <document>
+            %s
+            </document>
+            
+            USER REQUEST:
+            %s
+            
+            Provide a detailed, structured response.
+            """;
+    
+    // Indicators of important information (lowercase)
+    private static final String[] KEY_INDICATORS = {
+        // Financial
+        "rs.", "inr", "₹", "rupees", "lakhs", "crores",
+        "amount", "commitment", "contribution", "payment", "fee",
+        
+        // Identity
+        "pan", "name", "investor", "contributor",
+        
+        // Dates
+        "date", "dated", "day of", "executed",
+        
+        // Key terms
+        "lock-in", "period", "management", "carried interest",
+        "whereas", "witnesseth", "party", "agreement"
+    };
+    
+    // E-stamp paper / registration boilerplate in front of the agreement
+    private static final String[] STAMP_INDICATORS = {
+        "e-stamp", "stamp duty", "certificate no", "certificate issued date",
+        "unique doc", "purchased by", "stamp duty paid by", "account reference"
+    };
+    
+    // METRICS
+    private final LongAdder analyses = new LongAdder();
+    private final LongAdder modelCalls = new LongAdder();
+    private final LongAdder mapReduceRuns = new LongAdder();
+    private final LongAdder mapCalls = new LongAdder();
+    private final LongAdder mapCallFailures = new LongAdder();
+    private final LongAdder mapReduceMs = new LongAdder();
+    
+    // Document id + text digest → filtered text (LRU); the filter reads the
+    // document's stored pages, so equal texts of two documents are not one entry
+    private final Map<String, String> preScanCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > PRE_SCAN_CACHE_SIZE;
+        }
+    };
 
-    public MultiModelOllamaService() {
+    public MultiModelOllamaService(
+            LlmResponseCache responseCache,
+            RetrievalService retrievalService,
+            DocumentPageService documentPageService,
+            OllamaScheduler scheduler,
+            TaskExecutors taskExecutors,
+            @Value("${ollama.base-url:http://localhost:11434}") String ollamaBaseUrl,
+            @Value("${llm.retrieval.token-budget:4000}") int retrievalTokenBudget,
+            @Value("${llm.map-reduce.enabled:true}") boolean mapReduceEnabled,
+            @Value("${llm.map-reduce.concurrency:2}") int mapConcurrency,
+            @Value("${llm.map-reduce.chunk-chars:24000}") int mapChunkChars,
+            @Value("${llm.map-reduce.overlap-chars:1000}") int mapOverlapChars) {
+        this.responseCache = responseCache;
+        this.retrievalService = retrievalService;
+        this.documentPageService = documentPageService;
+        this.scheduler = scheduler;
+        this.analysisScheduler = taskExecutors.scheduler(Workload.ANALYSIS);
+        this.retrievalTokenBudget = retrievalTokenBudget;
+        this.mapReduceEnabled = mapReduceEnabled;
+        this.mapChunkChars = mapChunkChars;
+        this.mapOverlapChars = Math.min(mapOverlapChars, mapChunkChars / 4);
+        this.mapConcurrency = Math.max(1, mapConcurrency);
         this.webClient = WebClient.builder()
-                .baseUrl("http://localhost:11434")
+                .baseUrl(ollamaBaseUrl)
                 .codecs(configurer -> configurer
                     .defaultCodecs()
                     .maxInMemorySize(64 * 1024 * 1024))  // 64MB buffer
@@ -61,55 +177,206 @@ public class MultiModelOllamaService {
      * Main entry point - intelligently routes to appropriate model
      */
     public String analyzeDocument(String documentText, String userPrompt, boolean isImageBased) {
-        try {
-            log.info("=== MULTI-MODEL ANALYSIS STARTED ===");
-            log.info("Document length: {} chars, Image-based: {}", documentText.length(), isImageBased);
+        return analyzeDocument(null, documentText, userPrompt, userPrompt, isImageBased);
+    }
 
-            if (isImageBased) {
-                return analyzeWithVision(documentText, userPrompt);
-            }
+    /**
+     * Blocking form of analyzeDocumentReactive, for callers on their own worker threads
+     */
+    public String analyzeDocument(UUID documentId, String documentText, String userPrompt,
+                                  String retrievalQuery, boolean isImageBased) {
+        return analyzeDocumentReactive(documentId, documentText, userPrompt, retrievalQuery, isImageBased).block();
+    }
+
+    /**
+     * Entry point for indexed documents - sends only the chunks that best match
+     * retrievalQuery, falling back to the local pre-scan when there is no index.
+     * A null retrievalQuery asks about the whole document (e.g. every field of the
+     * structured pass): no retrieval, the pre-scanned pages instead.
+     */
+    public Mono<String> analyzeDocumentReactive(UUID documentId, String documentText, String userPrompt,
+                                                String retrievalQuery, boolean isImageBased) {
+        return Mono.defer(() -> {
+                log.info("=== MULTI-MODEL ANALYSIS STARTED ===");
+                analyses.increment();
+                log.info("Document length: {} chars, Image-based: {}", documentText.length(), isImageBased);
+
+                if (isImageBased) {
+                    return analyzeWithVision(documentText, userPrompt);
+                }
+
+                // Retrieval may read chunks from Postgres, the pre-scan is CPU work - keep both off the event loop
+                boolean simpleQuery = isSimpleQuery(userPrompt);
+                return Mono.fromCallable(() -> prepareContext(documentId, documentText, retrievalQuery, simpleQuery))
+                        .subscribeOn(analysisScheduler)
+                        .flatMap(context -> {
+                            if (simpleQuery) {
+                                return analyzeWithFastModel(context.text(), userPrompt);  // Use filtered
+                            } else if (context.wholeDocument() && exceedsPowerContext(context.text())) {
+                                // Whole-document request too long for one call (retrieved chunks always fit)
+                                return analyzeWithMapReduce(documentId, documentText, userPrompt);
+                            } else {
+                                return analyzeWithPowerModel(context.text(), userPrompt);  // Use filtered
+                            }
+                        });
+            })
+            .onErrorResume(e -> !(e instanceof OllamaBusyException), e -> {  // Busy: caller decides (429 / retry)
+                log.error("Analysis failed", e);
+                return Mono.just(handleAnalysisError(e));
+            })
+            .contextWrite(OllamaScheduler.priorityContext());
+    }
+
+    /**
+     * Retrieved chunks, or the pre-scanned document when there is no index
+     */
+    private AnalysisContext prepareContext(UUID documentId, String documentText, String retrievalQuery,
+                                           boolean simpleQuery) {
+        int tokenBudget = simpleQuery ? FAST_RETRIEVAL_TOKENS : retrievalTokenBudget;
+        Optional<String> retrieved = retrievalQuery == null ? Optional.empty()
+                : retrievalService.retrieve(documentId, retrievalQuery, tokenBudget);
+        
+        // Whole document or no index → pre-scan to filter boilerplate (local, cached per document)
+        String filteredText = retrieved.orElseGet(() -> preScanAndFilter(documentId, documentText));
+        log.info("{} text length: {} chars (reduced by ~{}%)", 
+                 retrieved.isPresent() ? "Retrieved" : "Filtered",
+                 filteredText.length(), 
+                 ((documentText.length() - filteredText.length()) * 100 / Math.max(1, documentText.length())));
+        
+        return new AnalysisContext(filteredText, retrieved.isEmpty());
+    }
 
-            // NEW: Always pre-scan to filter boilerplate
-            String filteredText = preScanAndFilter(documentText);
-            log.info("Filtered text length: {} chars (reduced by ~{}%)", 
-                     filteredText.length(), 
-                     ((documentText.length() - filteredText.length()) * 100 / documentText.length()));
+    /**
+     * wholeDocument: pre-scanned pages (no query, or no index), not retrieved chunks
+     */
+    private record AnalysisContext(String text, boolean wholeDocument) {
+    }
 
-            if (isSimpleQuery(userPrompt)) {
-                return analyzeWithFastModel(filteredText, userPrompt);  // Use filtered
-            } else {
-                return analyzeWithPowerModel(filteredText, userPrompt);  // Use filtered
+    /**
+     * Local pre-scan: keep only pages that carry agreement content (no LLM call).
+     * Deterministic, so the result is computed once per document and reused
+     * across every prompt run against it. A new extraction changes the text,
+     * and with it the key.
+     */
+    private String preScanAndFilter(UUID documentId, String fullText) {
+        String key = documentId + ":" + LlmResponseCache.digest(fullText);
+        synchronized (preScanCache) {
+            String cached = preScanCache.get(key);
+            if (cached != null) {
+                return cached;
             }
+        }
+        
+        long startTime = System.currentTimeMillis();
+        String filtered = filterRelevantPages(documentId, fullText, MAX_FILTERED_CHARS);
+        log.info("Local pre-scan: {} → {} chars in {}ms",
+                 fullText.length(), filtered.length(), System.currentTimeMillis() - startTime);
+        
+        synchronized (preScanCache) {
+            preScanCache.put(key, filtered);
+        }
+        return filtered;
+    }
 
-        } catch (Exception e) {
-            log.error("Analysis failed", e);
-            return handleAnalysisError(e);
+    /**
+     * Score every page on the key-line indicators, drop stamp paper and
+     * boilerplate, then keep the best pages (in page order) within maxChars.
+     * Pages come from document_pages when stored, else from the text's page markers.
+     */
+    private String filterRelevantPages(UUID documentId, String fullText, int maxChars) {
+        PagedText paged = PagedText.of(fullText);
+        List<String> pageTexts = paged.getPageTexts();
+        List<Integer> pageNumbers = paged.getPageNumbers();
+        // Tables + extraction info after native pages, any preamble before OCR pages
+        String trailer = pageTexts.isEmpty() ? "" : paged.getUnpagedText();
+        
+        List<DocumentPage> stored = documentId != null ? documentPageService.getPages(documentId) : List.of();
+        if (!stored.isEmpty()) {
+            pageTexts = stored.stream().map(DocumentPage::getText).toList();
+            pageNumbers = stored.stream().map(DocumentPage::getPageNumber).toList();
+        }
+        
+        if (pageTexts.isEmpty()) {
+            // No page markers - fall back to line filtering
+            return fullText.length() <= maxChars ? fullText : extractKeyLines(fullText, maxChars);
+        }
+        
+        int[] scores = new int[pageTexts.size()];
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < pageTexts.size(); i++) {
+            scores[i] = scorePage(pageTexts.get(i));
+            if (scores[i] >= MIN_PAGE_SCORE) {
+                candidates.add(i);
+            }
+        }
+        if (candidates.isEmpty()) {
+            for (int i = 0; i < pageTexts.size(); i++) candidates.add(i);
+        }
+        
+        // Highest-scoring pages first until the budget is used
+        candidates.sort((a, b) -> Integer.compare(scores[b], scores[a]));
+        boolean[] keep = new boolean[pageTexts.size()];
+        int budget = maxChars - Math.min(trailer.length(), maxChars / 4);
+        for (int i : candidates) {
+            int length = pageTexts.get(i).length();
+            if (length <= budget) {
+                keep[i] = true;
+                budget -= length;
+            }
+        }
+        
+        StringBuilder filtered = new StringBuilder();
+        for (int i = 0; i < pageTexts.size(); i++) {
+            if (keep[i]) {
+                filtered.append("=== PAGE ").append(pageNumbers.get(i)).append(" ===\n");
+                filtered.append(pageTexts.get(i).trim()).append("\n\n");
+            }
         }
+        filtered.append(truncateText(trailer.trim(), Math.max(0, maxChars - filtered.length())));
+        
+        return filtered.toString();
     }
 
-    // NEW METHOD: Quick pre-scan to skip stamps/boilerplate
-    private String preScanAndFilter(String fullText) {
-        // Use fast model to identify start of actual content
-        String scanPrompt = "Scan this doc text. Identify page where actual agreement starts (after stamps). Extract only sections with: commitment, PAN, fees, lock-in, signatures. Output ONLY the filtered text (max 80K chars).";
-        String fastScanResult = callOllama(FAST_MODEL, "Quick scanner", fullText, scanPrompt, FAST_CONTEXT, 0.0, FAST_TIMEOUT);
-        
-        // Fallback: Heuristic skip first 10 pages (stamps pattern)
-        if (fastScanResult.contains("Not found") || fastScanResult.length() < 1000) {
-            String[] pages = fullText.split("<PAGE");  // Assuming <PAGE> tags
-            if (pages.length > 15) {
-                return String.join("\n", pages).substring(  // Rough skip first 10 pages
-                    fullText.indexOf("<PAGE 11>")  // Adjust based on your doc
-                );
+    /**
+     * Page relevance: distinct key indicators + lines with amounts/dates,
+     * penalized for e-stamp paper boilerplate
+     */
+    private int scorePage(String pageText) {
+        String lower = pageText.toLowerCase();
+        
+        int score = 0;
+        for (String indicator : KEY_INDICATORS) {
+            if (lower.contains(indicator)) {
+                score++;
+            }
+        }
+        
+        int numberLines = 0;
+        for (String line : pageText.split("\n")) {
+            if (numberLines < 3 && LONG_NUMBER.matcher(line).find()) {
+                numberLines++;
+            }
+        }
+        score += numberLines;
+        
+        int stampHits = 0;
+        for (String indicator : STAMP_INDICATORS) {
+            if (lower.contains(indicator)) {
+                stampHits++;
             }
         }
-        return fastScanResult.length() > 80000 ? fastScanResult.substring(0, 80000) : fastScanResult;
+        if (stampHits >= 2) {
+            score -= 2 * stampHits;
+        }
+        
+        return score;
     }
 
     /**
      * FAST MODEL (1B) - Quick queries, simple extraction
      * Use cases: Check if PAN exists, get name, simple yes/no
      */
-    private String analyzeWithFastModel(String documentText, String userPrompt) {
+    private Mono<String> analyzeWithFastModel(String documentText, String userPrompt) {
         log.info("→ Using FAST MODEL ({})", FAST_MODEL);
         long startTime = System.currentTimeMillis();
         
@@ -120,27 +387,23 @@ public class MultiModelOllamaService {
             Be concise and direct. Extract specific information only.
             """;
         
-        String result = callOllama(
+        return callOllama(
             FAST_MODEL, 
             systemPrompt, 
-            documentText,
+            processedText,
             userPrompt,
             FAST_CONTEXT,
+            NUM_PREDICT,
             0.0,  // Low temperature for accuracy
             FAST_TIMEOUT
-        );
-        
-        long elapsed = System.currentTimeMillis() - startTime;
-        log.info("✓ Fast analysis completed in {}ms", elapsed);
-        
-        return result;
+        ).doOnSuccess(result -> log.info("✓ Fast analysis completed in {}ms", System.currentTimeMillis() - startTime));
     }
 
     /**
      * POWER MODEL (7B) - Complex analysis, fund agreements
      * Use cases: Full fund agreement analysis, complex extraction
      */
-    private String analyzeWithPowerModel(String documentText, String userPrompt) {
+    private Mono<String> analyzeWithPowerModel(String documentText, String userPrompt) {
         log.info("→ Using POWER MODEL ({})", POWER_MODEL);
         long startTime = System.currentTimeMillis();
         
@@ -167,27 +430,181 @@ public class MultiModelOllamaService {
             Format output clearly with headers and bullet points.
             """;
         
-        String result = callOllama(
+        return callOllama(
                 POWER_MODEL,
                 systemPrompt,
                 processedText,
                 userPrompt,
-                16384,  // Reduced from 32768
+                POWER_MAX_CONTEXT,  // Max - actual num_ctx sized to the prompt
+                NUM_PREDICT,
                 0.05,   // Lower temp for consistency
                 Duration.ofSeconds(60)  // Halved timeout
-            );
+            ).doOnSuccess(result -> {
+                long elapsed = System.currentTimeMillis() - startTime;
+                log.info("✓ Power analysis completed in {}ms ({} seconds)", elapsed, elapsed/1000);
+            });
+    }
+
+    /**
+     * True if the text would not fit in one power-model call (it would be truncated)
+     */
+    private boolean exceedsPowerContext(String text) {
+        return mapReduceEnabled
+                && RetrievalService.estimateTokens(text) + NUM_PREDICT > POWER_MAX_CONTEXT - FAST_CONTEXT / 4;
+    }
+
+    /**
+     * MAP-REDUCE (7B) - Documents too long for one call
+     * Map: extract findings from page-aligned chunks, a bounded number at a time
+     * Reduce: merge the findings per field with page citations
+     */
+    private Mono<String> analyzeWithMapReduce(UUID documentId, String documentText, String userPrompt) {
+        long startTime = System.currentTimeMillis();
+        mapReduceRuns.increment();
+        
+        // Every relevant page (no budget) - boilerplate and stamp paper still dropped
+        List<String> chunks = splitForMap(filterRelevantPages(documentId, documentText, Integer.MAX_VALUE));
+        log.info("→ Using MAP-REDUCE ({}): {} chunks", POWER_MODEL, chunks.size());
+        
+        String mapPrompt = """
+            You are reading ONE EXCERPT of a longer fund agreement.
+            Report only what this excerpt states that is relevant to the request below,
+            one finding per line as: FIELD: exact value (Page n)
+            Use the nearest "=== PAGE n ===" marker above a value as its page.
+            Quote values exactly. Do not guess values that are not in the excerpt.
+            If the excerpt contains nothing relevant, reply exactly: NONE
+            """;
+        
+        String reducePrompt = """
+            You are an expert financial document analyzer specializing in fund agreements.
+            Below are findings extracted separately from consecutive excerpts of ONE document.
+            Merge them into one answer to the user request:
+            1. One entry per field, with the exact value and its page citation
+            2. If excerpts disagree, list every value with its page
+            3. Ignore "not found" when another excerpt found the value
+            4. If a requested field appears in no excerpt, state "Not found in document"
+            Never add values that are not in the findings.
+            
+            Format output clearly with headers and bullet points.
+            """;
         
-        long elapsed = System.currentTimeMillis() - startTime;
-        log.info("✓ Power analysis completed in {}ms ({} seconds)", elapsed, elapsed/1000);
+        // At most mapConcurrency map calls in flight, results kept in chunk order
+        return Flux.fromIterable(chunks)
+            .flatMapSequential(chunk -> mapChunk(mapPrompt, chunk, userPrompt), mapConcurrency)
+            .collectList()
+            .flatMap(results -> {
+                StringBuilder findings = new StringBuilder();
+                for (int i = 0; i < results.size(); i++) {
+                    String result = results.get(i).trim();
+                    if (!result.isEmpty() && !result.equalsIgnoreCase("NONE")) {
+                        findings.append("--- EXCERPT ").append(i + 1).append(" ---\n").append(result).append("\n\n");
+                    }
+                }
+                long mapElapsed = System.currentTimeMillis() - startTime;
+                log.info("✓ Map phase: {} chunks in {}ms", chunks.size(), mapElapsed);
+                
+                if (findings.length() == 0) {
+                    mapReduceMs.add(System.currentTimeMillis() - startTime);
+                    return Mono.just("No information relevant to the request was found in any section of the document.");
+                }
+                
+                return callOllama(
+                        POWER_MODEL,
+                        reducePrompt,
+                        findings.toString(),
+                        userPrompt,
+                        POWER_MAX_CONTEXT,
+                        NUM_PREDICT,
+                        0.05,
+                        POWER_TIMEOUT
+                    ).doOnSuccess(result -> {
+                        long elapsed = System.currentTimeMillis() - startTime;
+                        mapReduceMs.add(elapsed);
+                        log.info("✓ Map-reduce analysis completed in {}ms (map {}ms, reduce {}ms)",
+                                 elapsed, mapElapsed, elapsed - mapElapsed);
+                    });
+            });
+    }
+
+    /**
+     * One map call - a failed chunk is reported, not fatal
+     */
+    private Mono<String> mapChunk(String mapPrompt, String chunk, String userPrompt) {
+        return callOllama(POWER_MODEL, mapPrompt, chunk, userPrompt,
+                    POWER_MAX_CONTEXT, MAP_NUM_PREDICT, 0.0, POWER_TIMEOUT)
+            .doOnSubscribe(subscription -> mapCalls.increment())
+            .onErrorResume(e -> !(e instanceof OllamaBusyException), e -> {
+                mapCallFailures.increment();
+                log.warn("Map call failed: {}", e.getMessage());
+                return Mono.just("[Excerpt could not be analyzed: " + e.getMessage() + "]");
+            });
+    }
+
+    /**
+     * Page-aligned chunks of ~mapChunkChars, each starting with the last
+     * mapOverlapChars of the previous one so values split across a boundary survive
+     */
+    private List<String> splitForMap(String text) {
+        // Segments start at each page marker; oversized segments split on lines
+        List<String> segments = new ArrayList<>();
+        Matcher marker = PAGE_START_MARKER.matcher(text);
+        int segmentStart = 0;
+        while (marker.find()) {
+            if (marker.start() > segmentStart) {
+                addSegments(segments, text.substring(segmentStart, marker.start()));
+            }
+            segmentStart = marker.start();
+        }
+        addSegments(segments, text.substring(segmentStart));
         
-        return result;
+        List<String> chunks = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String segment : segments) {
+            if (current.length() + segment.length() > mapChunkChars && current.length() > 0) {
+                chunks.add(current.toString());
+                current = new StringBuilder(overlapTail(current));
+            }
+            current.append(segment);
+        }
+        if (!current.toString().isBlank()) {
+            chunks.add(current.toString());
+        }
+        return chunks;
+    }
+
+    private void addSegments(List<String> segments, String segment) {
+        if (segment.length() <= mapChunkChars) {
+            segments.add(segment);
+            return;
+        }
+        StringBuilder part = new StringBuilder();
+        for (String line : segment.split("\n")) {
+            if (part.length() + line.length() > mapChunkChars && part.length() > 0) {
+                segments.add(part.toString());
+                part.setLength(0);
+            }
+            part.append(line).append('\n');
+        }
+        segments.add(part.toString());
+    }
+
+    /**
+     * Last mapOverlapChars of a chunk, starting on a line boundary
+     */
+    private String overlapTail(CharSequence chunk) {
+        if (mapOverlapChars <= 0) {
+            return "";
+        }
+        String tail = chunk.subSequence(Math.max(0, chunk.length() - mapOverlapChars), chunk.length()).toString();
+        int lineStart = tail.indexOf('\n');
+        return lineStart >= 0 ? tail.substring(lineStart + 1) : tail;
     }
 
     /**
      * VISION MODEL (11B) - Image-based PDFs
      * Use cases: Scanned documents, images with text
      */
-    private String analyzeWithVision(String documentText, String userPrompt) {
+    private Mono<String> analyzeWithVision(String documentText, String userPrompt) {
         log.info("→ Using VISION MODEL ({})", VISION_MODEL);
         log.warn("⚠️ Vision model for image-based PDFs - requires image input");
         
@@ -197,72 +614,80 @@ public class MultiModelOllamaService {
     }
 
     /**
-     * Core Ollama API call
+     * Core Ollama API call - cache lookup, then a slot on the model, then the
+     * streamed generation collected without blocking
      */
-    private String callOllama(
+    private Mono<String> callOllama(
             String model, 
             String systemPrompt,
             String documentText,
             String userPrompt,
-            int contextSize,
+            int maxContextSize,
+            int numPredict,
             double temperature,
             Duration timeout) {
         
-        try {
-            String fullPrompt = String.format("""
-                %s
-                
-                <document>
-                %s
-                </document>
-                
-                USER REQUEST:
-                %s
-                
-                Provide a detailed, structured response.
-                """, 
-                systemPrompt, 
-                documentText, 
-                userPrompt
+        String fullPrompt = String.format(PROMPT_WRAPPER, systemPrompt, documentText, userPrompt);
+        
+        // Smaller prompt → smaller num_ctx → less KV cache to fill on CPU
+        Map<String, Object> options = Map.of(
+                "num_ctx", RetrievalService.contextSizeFor(fullPrompt, numPredict, maxContextSize),
+                "temperature", temperature,
+                "num_thread", 10,  // Upped for M4
+                "num_gpu", 1,
+                "num_predict", numPredict  // Cap output length
             );
-            
-            Map<String, Object> requestBody = Map.of(
-                    "model", model,
-                    "prompt", fullPrompt,
-                    "stream", true,  // ENABLE STREAMING
-                    "options", Map.of(
-                        "num_ctx", contextSize,
-                        "temperature", temperature,
-                        "num_thread", 10,  // Upped for M4
-                        "num_gpu", 1,
-                        "num_predict", 2048  // Cap output length
-                    )
-                );
-            
+        
+        // Same model + options + prompt + document → reuse the earlier answer
+        LlmResponseCache.CacheKey cacheKey = responseCache.keyFor(
+                model, options, PROMPT_WRAPPER + systemPrompt + "\n" + userPrompt, documentText);
+        
+        Map<String, Object> requestBody = Map.of(
+                "model", model,
+                "prompt", fullPrompt,
+                "stream", true,  // ENABLE STREAMING
+                "options", options
+            );
+        
+        // Cache lookups and writes may hit Postgres
+        return Mono.fromCallable(() -> responseCache.get(cacheKey))
+            .subscribeOn(analysisScheduler)
+            .flatMap(cached -> {
+                if (cached.isPresent()) {
+                    log.info("✓ LLM cache hit ({})", model);
+                    return Mono.just(cached.get());
+                }
+                
+                // Wait for a slot on this model (bounded queue, interactive first)
+                return scheduler.executeReactive(model, () -> generate(requestBody, timeout))
+                    .publishOn(analysisScheduler)
+                    .doOnNext(response -> responseCache.put(cacheKey, response));
+            })
+            .onErrorMap(e -> !(e instanceof OllamaBusyException), e -> {
+                log.error("Ollama API call failed", e);
+                return new RuntimeException("AI analysis failed: " + e.getMessage());
+            });
+    }
+
+    /**
+     * Streamed /api/generate call, tokens joined as they arrive
+     */
+    private Mono<String> generate(Map<String, Object> requestBody, Duration timeout) {
+        return Mono.defer(() -> {
             log.debug("Sending request to Ollama...");
+            modelCalls.increment();
             
-         // Handle streaming response
-            StringBuilder streamedResponse = new StringBuilder();
-            webClient.post()
+            return webClient.post()
                 .uri("/api/generate")
                 .bodyValue(requestBody)
                 .retrieve()
                 .bodyToFlux(Map.class)  // Flux for streaming
                 .timeout(timeout)
-                .doOnNext(resp -> {
-                    if (resp.containsKey("response")) {
-                        streamedResponse.append((String) resp.get("response"));
-                    }
-                })
+                .filter(resp -> resp.containsKey("response"))
+                .map(resp -> (String) resp.get("response"))
                 .doOnError(e -> log.error("Stream error", e))
-                .blockLast();  // Wait for completion
-
-            return streamedResponse.toString();
-            
-        } catch (Exception e) {
-            log.error("Ollama API call failed", e);
-            throw new RuntimeException("AI analysis failed: " + e.getMessage());
-        }
+                .collect(Collectors.joining());
+        });
     }
 
     /**
@@ -303,23 +728,6 @@ public class MultiModelOllamaService {
     private String extractKeyLines(String text, int maxChars) {
         StringBuilder important = new StringBuilder();
         
-        // Indicators of important information
-        String[] indicators = {
-            // Financial
-            "Rs.", "INR", "₹", "rupees", "lakhs", "crores",
-            "amount", "commitment", "contribution", "payment", "fee",
-            
-            // Identity
-            "PAN", "name", "investor", "contributor",
-            
-            // Dates
-            "date", "dated", "day of", "executed",
-            
-            // Key terms
-            "lock-in", "period", "management", "carried interest",
-            "whereas", "witnesseth", "party", "agreement"
-        };
-        
         String[] lines = text.split("\n");
         int currentLength = 0;
         
@@ -331,8 +739,9 @@ public class MultiModelOllamaService {
             
             // Check if line contains important indicators
             boolean isImportant = false;
-            for (String indicator : indicators) {
-                if (trimmed.toLowerCase().contains(indicator.toLowerCase())) {
+            String lower = trimmed.toLowerCase();
+            for (String indicator : KEY_INDICATORS) {
+                if (lower.contains(indicator)) {
                     isImportant = true;
                     break;
                 }
@@ -406,7 +815,7 @@ public class MultiModelOllamaService {
     /**
      * Handle analysis errors gracefully
      */
-    private String handleAnalysisError(Exception e) {
+    private String handleAnalysisError(Throwable e) {
         if (e instanceof TimeoutException) {
             return """
                 ⏱️ Analysis Timeout
@@ -438,6 +847,31 @@ public class MultiModelOllamaService {
         );
     }
 
+    /**
+     * Model call metrics (calls per analysis after cache hits, map-reduce runs)
+     */
+    public Map<String, Object> getUsageStats() {
+        long analysisCount = analyses.sum();
+        long runs = mapReduceRuns.sum();
+        
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("analyses", analysisCount);
+        stats.put("modelCalls", modelCalls.sum());
+        stats.put("callsPerAnalysis", analysisCount == 0 ? 0.0 : (double) modelCalls.sum() / analysisCount);
+        stats.put("mapReduceRuns", runs);
+        stats.put("mapCalls", mapCalls.sum());
+        stats.put("mapCallFailures", mapCallFailures.sum());
+        stats.put("avgMapReduceMs", runs == 0 ? 0 : mapReduceMs.sum() / runs);
+        return stats;
+    }
+
+    /**
+     * False when the power model's wait queue is full (new analyses would be rejected)
+     */
+    public boolean isAccepting() {
+        return scheduler.isAccepting(POWER_MODEL);
+    }
+
     /**
      * Health check - verify models are available
      */
@@ -0,0 +1,21 @@
+package com.documentreaderai.service;
+
+/**
+ * Thrown when an Ollama call is not admitted - the model's wait queue is full
+ * or the call waited too long for a slot. Maps to HTTP 429.
+ */
+public class OllamaBusyException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String model;
+
+    public OllamaBusyException(String model, String message) {
+        super(message);
+        this.model = model;
+    }
+
+    public String getModel() {
+        return model;
+    }
+}
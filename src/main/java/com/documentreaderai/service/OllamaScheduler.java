@@ -0,0 +1,345 @@
+package com.documentreaderai.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Admission control for Ollama calls
+ *
+ * Every model gets a concurrency limit and a bounded wait queue. Waiting
+ * calls are served interactive-first, then in arrival order. A call is
+ * rejected with OllamaBusyException when the queue is full or when it waits
+ * longer than its priority's timeout - so a burst of batch work can never
+ * pile 10 requests onto qwen2.5:7b at once.
+ *
+ * Priority is taken from the subscriber context, which the service entry
+ * points fill from the calling thread (see withPriority); anything not marked
+ * otherwise is INTERACTIVE. Waiting for a slot never holds a thread.
+ */
+@Service
+@Slf4j
+public class OllamaScheduler {
+
+    public enum Priority {
+        INTERACTIVE, BATCH
+    }
+
+    private static final ThreadLocal<Priority> CURRENT_PRIORITY = ThreadLocal.withInitial(() -> Priority.INTERACTIVE);
+
+    private final int defaultLimit;
+    private final Map<String, Integer> modelLimits;
+    private final int maxQueue;
+    private final Duration interactiveTimeout;
+    private final Duration batchTimeout;
+    private final Map<String, ModelLane> lanes = new ConcurrentHashMap<>();
+
+    public OllamaScheduler(
+            @Value("${ollama.scheduler.max-concurrent:2}") int defaultLimit,
+            @Value("${ollama.scheduler.model-limits:}") String modelLimits,
+            @Value("${ollama.scheduler.max-queue:16}") int maxQueue,
+            @Value("${ollama.scheduler.interactive-timeout-seconds:60}") long interactiveTimeoutSeconds,
+            @Value("${ollama.scheduler.batch-timeout-seconds:600}") long batchTimeoutSeconds) {
+        this.defaultLimit = Math.max(1, defaultLimit);
+        this.modelLimits = parseModelLimits(modelLimits);
+        this.maxQueue = maxQueue;
+        this.interactiveTimeout = Duration.ofSeconds(interactiveTimeoutSeconds);
+        this.batchTimeout = Duration.ofSeconds(batchTimeoutSeconds);
+
+        log.info("✓ Ollama scheduler: {} concurrent per model (overrides: {}), queue {}",
+                this.defaultLimit, this.modelLimits, maxQueue);
+    }
+
+    /**
+     * "qwen2.5:7b=1,llama3.2:3b=2" → per-model limits
+     */
+    private static Map<String, Integer> parseModelLimits(String spec) {
+        Map<String, Integer> limits = new HashMap<>();
+        for (String entry : spec.split(",")) {
+            int separator = entry.lastIndexOf('=');
+            if (separator > 0) {
+                limits.put(entry.substring(0, separator).trim(),
+                        Math.max(1, Integer.parseInt(entry.substring(separator + 1).trim())));
+            }
+        }
+        return limits;
+    }
+
+    // ========================== PRIORITY ==========================
+
+    /**
+     * Run work with the given priority for every Ollama call it makes on this thread
+     */
+    public static <T> T withPriority(Priority priority, Supplier<T> work) {
+        Priority previous = CURRENT_PRIORITY.get();
+        CURRENT_PRIORITY.set(priority);
+        try {
+            return work.get();
+        } finally {
+            CURRENT_PRIORITY.set(previous);
+        }
+    }
+
+    public static Priority currentPriority() {
+        return CURRENT_PRIORITY.get();
+    }
+
+    // ========================== ADMISSION ==========================
+
+    /**
+     * Subscribe to a reactive Ollama call once the model has a free slot.
+     * Waiting holds no thread; the slot is freed on completion, error or cancel.
+     * Priority comes from the subscriber context (see priorityContext).
+     */
+    public <T> Mono<T> executeReactive(String model, Supplier<Mono<T>> call) {
+        ModelLane lane = lane(model);
+        return Mono.deferContextual(context -> {
+            Slot slot = new Slot(lane, context.getOrDefault(Priority.class, Priority.INTERACTIVE));
+            return Mono.usingWhen(slot.acquire(), granted -> call.get(), granted -> slot.release());
+        });
+    }
+
+    /**
+     * executeReactive for a token stream - the slot is held until the last token
+     */
+    public <T> Flux<T> executeStreaming(String model, Supplier<Flux<T>> call) {
+        ModelLane lane = lane(model);
+        return Flux.deferContextual(context -> {
+            Slot slot = new Slot(lane, context.getOrDefault(Priority.class, Priority.INTERACTIVE));
+            return Flux.usingWhen(slot.acquire(), granted -> call.get(), granted -> slot.release());
+        });
+    }
+
+    /**
+     * Carry the calling thread's priority into a reactive pipeline built on it
+     */
+    public static Function<Context, Context> priorityContext() {
+        Priority priority = currentPriority();
+        return context -> context.hasKey(Priority.class) ? context : context.put(Priority.class, priority);
+    }
+
+    /**
+     * False when a new call for this model would be rejected right away
+     */
+    public boolean isAccepting(String model) {
+        return lane(model).queueDepth() < maxQueue;
+    }
+
+    private ModelLane lane(String model) {
+        return lanes.computeIfAbsent(model, m -> new ModelLane(m, modelLimits.getOrDefault(m, defaultLimit)));
+    }
+
+    /**
+     * Per-model queue depth, active calls, waits and rejections
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("maxQueue", maxQueue);
+        lanes.values().stream()
+                .sorted(Comparator.comparing(lane -> lane.model))
+                .forEach(lane -> stats.put(lane.model, lane.getStats()));
+        return stats;
+    }
+
+    /**
+     * Concurrency slots + priority wait queue for one model
+     */
+    private class ModelLane {
+        private final String model;
+        private final int limit;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final PriorityQueue<Waiter> waiting = new PriorityQueue<>(
+                Comparator.comparing((Waiter w) -> w.priority).thenComparingLong(w -> w.sequence));
+        private int active = 0;
+        private long sequence = 0;
+        private int maxQueueDepth = 0;
+
+        // METRICS
+        private final LongAdder admitted = new LongAdder();
+        private final LongAdder queued = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder timedOut = new LongAdder();
+        private final LongAdder totalWaitNanos = new LongAdder();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+
+        ModelLane(String model, int limit) {
+            this.model = model;
+            this.limit = limit;
+        }
+
+        /**
+         * Completes when the call may start - right away, or when a slot is handed over
+         */
+        CompletableFuture<Boolean> acquire(Priority priority) {
+            lock.lock();
+            try {
+                if (active < limit && waiting.isEmpty()) {
+                    active++;
+                    admitted.increment();
+                    return CompletableFuture.completedFuture(true);
+                }
+
+                if (waiting.size() >= maxQueue) {
+                    rejected.increment();
+                    return CompletableFuture.failedFuture(new OllamaBusyException(model, model + " is busy: "
+                            + waiting.size() + " requests already waiting, try again shortly"));
+                }
+
+                Waiter waiter = new Waiter(priority, sequence++);
+                waiting.add(waiter);
+                queued.increment();
+                maxQueueDepth = Math.max(maxQueueDepth, waiting.size());
+
+                Duration timeout = priority == Priority.BATCH ? batchTimeout : interactiveTimeout;
+                CompletableFuture.delayedExecutor(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                        .execute(() -> expire(waiter, timeout));
+
+                // Cancelled by the caller → leave the queue
+                waiter.granted.whenComplete((granted, error) -> {
+                    if (error instanceof CancellationException) {
+                        remove(waiter);
+                    }
+                });
+                return waiter.granted;
+
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void expire(Waiter waiter, Duration timeout) {
+            if (remove(waiter)) {
+                timedOut.increment();
+                waiter.granted.completeExceptionally(new OllamaBusyException(model,
+                        model + " is busy: no slot within " + timeout.toSeconds() + "s"));
+            }
+        }
+
+        private boolean remove(Waiter waiter) {
+            lock.lock();
+            try {
+                return waiting.remove(waiter);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Hand the slot straight to the next live waiter, or free it
+         */
+        void release() {
+            lock.lock();
+            try {
+                Waiter next;
+                while ((next = waiting.poll()) != null) {
+                    if (next.granted.complete(true)) {
+                        admitted.increment();
+                        long waited = System.nanoTime() - next.queuedAt;
+                        totalWaitNanos.add(waited);
+                        maxWaitNanos.accumulateAndGet(waited, Math::max);
+                        return;
+                    }
+                }
+                active--;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int queueDepth() {
+            lock.lock();
+            try {
+                return waiting.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        Map<String, Object> getStats() {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            lock.lock();
+            try {
+                stats.put("limit", limit);
+                stats.put("active", active);
+                stats.put("queueDepth", waiting.size());
+                stats.put("maxQueueDepth", maxQueueDepth);
+            } finally {
+                lock.unlock();
+            }
+            long queuedCount = queued.sum();
+            stats.put("admitted", admitted.sum());
+            stats.put("queued", queuedCount);
+            stats.put("rejected", rejected.sum());
+            stats.put("timedOut", timedOut.sum());
+            stats.put("avgWaitMs", queuedCount == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.sum() / queuedCount));
+            stats.put("maxWaitMs", TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()));
+            return stats;
+        }
+    }
+
+    /**
+     * One admission: the grant from a lane and its idempotent release
+     */
+    private static class Slot {
+        private final ModelLane lane;
+        private final CompletableFuture<Boolean> grant;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Slot(ModelLane lane, Priority priority) {
+            this.lane = lane;
+            this.grant = lane.acquire(priority);
+        }
+
+        Mono<Boolean> acquire() {
+            return Mono.fromFuture(grant, true)
+                    .doOnCancel(() -> {
+                        if (!grant.cancel(false) && !grant.isCompletedExceptionally()) {
+                            releaseNow();  // Granted just as the caller went away
+                        }
+                    });
+        }
+
+        Mono<Void> release() {
+            return Mono.fromRunnable(this::releaseNow);
+        }
+
+        // Idempotent - a cancel can race with the hand-over
+        private void releaseNow() {
+            if (released.compareAndSet(false, true)) {
+                lane.release();
+            }
+        }
+    }
+
+    private static class Waiter {
+        private final Priority priority;
+        private final long sequence;
+        private final long queuedAt = System.nanoTime();
+        private final CompletableFuture<Boolean> granted = new CompletableFuture<>();
+
+        Waiter(Priority priority, long sequence) {
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.documentreaderai.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Extracted text cut back into pages on the markers extraction writes:
+ * "=== END OF PAGE n ===" after each page of native text, "=== PAGE n ==="
+ * before each page of OCR output
+ */
+final class PagedText {
+
+    private static final Pattern PAGE_END_MARKER = Pattern.compile("\\s*=== END OF PAGE (\\d+) ===\\s*");
+    private static final Pattern PAGE_START_MARKER = Pattern.compile("=== PAGE (\\d+) ===\\s*");
+
+    private final List<Integer> pageNumbers;
+    private final List<String> pageTexts;
+    private final String unpagedText;  // After the last end marker, before the first start marker, or all of it
+    private final boolean ocr;
+
+    private PagedText(List<Integer> pageNumbers, List<String> pageTexts, String unpagedText, boolean ocr) {
+        this.pageNumbers = Collections.unmodifiableList(pageNumbers);
+        this.pageTexts = Collections.unmodifiableList(pageTexts);
+        this.unpagedText = unpagedText;
+        this.ocr = ocr;
+    }
+
+    static PagedText of(String extractedText) {
+        List<Integer> pageNumbers = new ArrayList<>();
+        List<String> pageTexts = new ArrayList<>();
+
+        Matcher marker = PAGE_END_MARKER.matcher(extractedText);
+        int pageStart = 0;
+        while (marker.find()) {
+            pageTexts.add(extractedText.substring(pageStart, marker.start()));
+            pageNumbers.add(Integer.parseInt(marker.group(1)));
+            pageStart = marker.end();
+        }
+        if (!pageTexts.isEmpty()) {
+            return new PagedText(pageNumbers, pageTexts, extractedText.substring(pageStart), false);
+        }
+
+        // OCR output marks the start of each page instead
+        marker = PAGE_START_MARKER.matcher(extractedText);
+        Integer pageNumber = null;
+        pageStart = 0;
+        StringBuilder preamble = new StringBuilder();
+        while (marker.find()) {
+            String text = extractedText.substring(pageStart, marker.start());
+            if (pageNumber == null) {
+                preamble.append(text);
+            } else {
+                pageTexts.add(text);
+                pageNumbers.add(pageNumber);
+            }
+            pageNumber = Integer.parseInt(marker.group(1));
+            pageStart = marker.end();
+        }
+        if (pageNumber == null) {
+            return new PagedText(pageNumbers, pageTexts, extractedText, false);
+        }
+        pageTexts.add(extractedText.substring(pageStart));
+        pageNumbers.add(pageNumber);
+        return new PagedText(pageNumbers, pageTexts, preamble.toString(), true);
+    }
+
+    List<Integer> getPageNumbers() { return pageNumbers; }
+    List<String> getPageTexts() { return pageTexts; }
+    String getUnpagedText() { return unpagedText; }
+    boolean isOcr() { return ocr; }
+}
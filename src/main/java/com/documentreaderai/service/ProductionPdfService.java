@@ -1,13 +1,17 @@
 package com.documentreaderai.service;
 
+import com.documentreaderai.config.TaskExecutors;
+import com.documentreaderai.config.TaskExecutors.Workload;
 import lombok.extern.slf4j.Slf4j;
-import net.sourceforge.tess4j.Tesseract;
-import net.sourceforge.tess4j.TesseractException;
 import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.contentstream.operator.Operator;
+import org.apache.pdfbox.pdfparser.PDFStreamParser;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.rendering.PDFRenderer;
 import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import technology.tabula.*;
 import technology.tabula.extractors.SpreadsheetExtractionAlgorithm;
@@ -16,8 +20,13 @@ import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 /**
  * Production-Grade PDF Processing Service
@@ -28,52 +37,47 @@ import java.util.List;
  * 3. Advanced table extraction (Tabula)
  * 4. Page-by-page processing with progress
  * 5. Quality metrics and reporting
+ * 6. Page-parallel native extraction for large documents
  */
 @Service
 @Slf4j
 public class ProductionPdfService {
 
-    private final Tesseract tesseract;
-    private boolean ocrAvailable = false;
+    private final TesseractPool tesseractPool;
+    
+    // Bump whenever extraction output changes - invalidates the extraction cache
+    private static final String EXTRACTOR_VERSION = "4";
     
     // QUALITY THRESHOLDS
     private static final int MIN_TEXT_PER_PAGE = 50;  // chars per page
     private static final double IMAGE_PDF_THRESHOLD = 0.7;  // 70% low-text pages
+    
+    // PARALLEL EXTRACTION
+    private static final int PARALLEL_MIN_PAGES = 16;    // Below this, one stripper is faster
+    private static final int MIN_PAGES_PER_RANGE = 8;    // Each range re-parses the file, keep ranges chunky
+    
+    // TABLE DETECTION
+    private static final int MIN_RULING_OPERATORS = 4;   // Lines/rectangles needed before running Tabula
 
-    public ProductionPdfService() {
-        this.tesseract = new Tesseract();
-        initializeTesseract();
-    }
+    private final OcrMode ocrMode;
+    private final boolean parallelExtraction;
+    private final int extractionThreads;
+    private final ThreadPoolTaskExecutor extractionExecutor;
 
-    private void initializeTesseract() {
-        try {
-            // Try common Tesseract data locations
-            String[] tessdataPaths = {
-                "/opt/homebrew/share/tessdata",      // Homebrew M1/M2/M3/M4
-                "/usr/local/share/tessdata",         // Standard macOS
-                "/usr/share/tesseract-ocr/tessdata", // Linux
-                System.getenv("TESSDATA_PREFIX")     // Environment variable
-            };
-            
-            for (String path : tessdataPaths) {
-                if (path != null && new File(path).exists()) {
-                    tesseract.setDatapath(path);
-                    tesseract.setLanguage("eng");
-                    tesseract.setPageSegMode(1);  // Auto page segmentation with OSD
-                    tesseract.setOcrEngineMode(1); // Neural nets LSTM engine
-                    ocrAvailable = true;
-                    log.info("✓ OCR initialized with tessdata: {}", path);
-                    return;
-                }
-            }
-            
-            log.warn("⚠️ Tesseract data not found - OCR disabled");
-            log.warn("To enable OCR on M4 Mac: brew install tesseract");
-            
-        } catch (Exception e) {
-            log.error("Failed to initialize Tesseract", e);
-            ocrAvailable = false;
-        }
+    public ProductionPdfService(
+            TesseractPool tesseractPool,
+            @Value("${pdf.ocr.mode:OFF}") OcrMode ocrMode,
+            @Value("${pdf.extraction.parallel.enabled:true}") boolean parallelExtraction,
+            TaskExecutors taskExecutors) {
+        this.tesseractPool = tesseractPool;
+        this.ocrMode = ocrMode;
+        this.parallelExtraction = parallelExtraction;
+        // Sized by pdf.extraction.parallel.threads (see AsyncConfig)
+        this.extractionExecutor = taskExecutors.get(Workload.PDF_PAGES);
+        this.extractionThreads = extractionExecutor.getCorePoolSize();
+        
+        log.info("Native extraction: parallel={}, threads={}, OCR mode={}",
+                parallelExtraction, this.extractionThreads, ocrMode);
     }
 
     /**
@@ -95,12 +99,16 @@ public class ProductionPdfService {
             log.info("Quality: {} - {}", quality.level, quality.description);
             
             // Phase 3: Decide strategy
-            if (quality.level == QualityLevel.HIGH || quality.level == QualityLevel.MEDIUM) {
+            boolean hasLowTextPages = nativeResult.getPages().stream().anyMatch(PageInfo::isLowText);
+            
+            if (ocrMode == OcrMode.SELECTIVE && isOcrAvailable() && hasLowTextPages) {
+                // OCR only the scanned pages, keep native text for the rest
+                return extractWithSelectiveOCR(document, nativeResult);
+            } else if (quality.level == QualityLevel.HIGH || quality.level == QualityLevel.MEDIUM) {
                 // Native text is good enough
                 log.info("✓ Using native text extraction");
                 return nativeResult;
-//            } else if (ocrAvailable && quality.level == QualityLevel.LOW) {
-            } else if (false) { 
+            } else if (ocrMode == OcrMode.FULL && isOcrAvailable()) {
                 // Need OCR
                 log.info("→ Switching to OCR extraction (image-based PDF detected)");
                 return extractWithOCR(document, filePath, nativeResult);
@@ -112,6 +120,11 @@ public class ProductionPdfService {
                 return nativeResult;
             }
             
+        } catch (InterruptedException | InterruptedIOException e) {
+            // Cancelled - no partial result, so nothing half-done gets cached
+            Thread.currentThread().interrupt();
+            log.info("PDF extraction interrupted: {}", filePath);
+            throw new CancellationException("PDF extraction interrupted");
         } catch (Exception e) {
             log.error("PDF extraction failed", e);
             throw new RuntimeException("Failed to extract PDF: " + e.getMessage());
@@ -125,43 +138,183 @@ public class ProductionPdfService {
         log.debug("Extracting native text...");
         long startTime = System.currentTimeMillis();
         
-        PDFTextStripper stripper = new PDFTextStripper();
-        stripper.setSortByPosition(true);
-        stripper.setAddMoreFormatting(true);
+        int pageCount = document.getNumberOfPages();
+        List<String> pageTexts = parallelExtraction && pageCount >= PARALLEL_MIN_PAGES && extractionThreads > 1
+                ? stripPagesInParallel(filePath, pageCount)
+                : stripPages(document, 1, pageCount);
         
-        StringBuilder fullText = new StringBuilder();
         List<PageInfo> pages = new ArrayList<>();
-        
-        // Extract page by page for progress tracking
-        for (int i = 1; i <= document.getNumberOfPages(); i++) {
-            stripper.setStartPage(i);
-            stripper.setEndPage(i);
-            
-            String pageText = stripper.getText(document);
-            fullText.append(pageText);
-            fullText.append("\n\n=== END OF PAGE ").append(i).append(" ===\n\n");
-            
+        for (int i = 1; i <= pageCount; i++) {
+            String pageText = pageTexts.get(i - 1);
             pages.add(new PageInfo(i, pageText.length(), pageText.trim().length() < MIN_TEXT_PER_PAGE));
         }
         
         // Extract tables if document looks structured
-        String tableData = extractTables(filePath);
+        String tableData = extractTables(document);
+        
+        long elapsed = System.currentTimeMillis() - startTime;
+        log.info("Native extraction completed in {}ms", elapsed);
+        
+        return new ExtractionResult(assembleText(pageTexts, tableData), pageTexts, tableData, pages, elapsed, 0);
+    }
+
+    /**
+     * Join pages in order with END OF PAGE markers, tables appended at the end
+     * (also how the extraction cache rebuilds a stored result's text)
+     */
+    static String assembleText(List<String> pageTexts, String tableData) {
+        StringBuilder fullText = new StringBuilder();
+        for (int i = 1; i <= pageTexts.size(); i++) {
+            fullText.append(pageTexts.get(i - 1));
+            fullText.append("\n\n=== END OF PAGE ").append(i).append(" ===\n\n");
+        }
+        
         if (!tableData.isEmpty()) {
             fullText.append("\n\n=== EXTRACTED TABLES ===\n\n").append(tableData);
         }
+        return fullText.toString();
+    }
+
+    /**
+     * Strip pages [startPage, endPage] one at a time (1-based, inclusive)
+     */
+    private List<String> stripPages(PDDocument document, int startPage, int endPage) throws IOException {
+        PDFTextStripper stripper = new PDFTextStripper();
+        stripper.setSortByPosition(true);
+        stripper.setAddMoreFormatting(true);
         
-        long elapsed = System.currentTimeMillis() - startTime;
-        log.info("Native extraction completed in {}ms", elapsed);
+        List<String> pageTexts = new ArrayList<>(endPage - startPage + 1);
+        for (int i = startPage; i <= endPage; i++) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("Text extraction interrupted at page " + i);
+            }
+            stripper.setStartPage(i);
+            stripper.setEndPage(i);
+            pageTexts.add(stripper.getText(document));
+        }
+        return pageTexts;
+    }
+
+    /**
+     * Split the document into page ranges and strip them on the extraction pool.
+     * PDDocument is not thread-safe, so every range opens its own copy of the file.
+     */
+    private List<String> stripPagesInParallel(String filePath, int pageCount) throws IOException {
+        int rangeCount = Math.max(1, Math.min(extractionThreads, pageCount / MIN_PAGES_PER_RANGE));
+        int rangeSize = (pageCount + rangeCount - 1) / rangeCount;
+        log.debug("Parallel extraction: {} pages in {} ranges of {}", pageCount, rangeCount, rangeSize);
+        
+        List<Future<List<String>>> futures = new ArrayList<>();
+        for (int start = 1; start <= pageCount; start += rangeSize) {
+            int from = start;
+            int to = Math.min(start + rangeSize - 1, pageCount);
+            futures.add(extractionExecutor.submit(() -> {
+                try (PDDocument copy = Loader.loadPDF(new File(filePath))) {
+                    return stripPages(copy, from, to);
+                }
+            }));
+        }
+        
+        List<String> pageTexts = new ArrayList<>(pageCount);
+        try {
+            for (Future<List<String>> future : futures) {
+                pageTexts.addAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(f -> f.cancel(true));
+            throw new InterruptedIOException("Parallel extraction interrupted");
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            throw new IOException("Parallel extraction failed: " + e.getCause().getMessage(), e.getCause());
+        }
+        return pageTexts;
+    }
+
+    /**
+     * Selective OCR - only low-text pages (scanned signatures, stamps) are OCR'd
+     * and spliced back into the native text in page order
+     */
+    private ExtractionResult extractWithSelectiveOCR(PDDocument document, ExtractionResult nativeResult)
+            throws InterruptedException {
+        List<Integer> lowTextPages = nativeResult.getPages().stream()
+                .filter(PageInfo::isLowText)
+                .map(PageInfo::getPageNumber)
+                .toList();
+        log.info("→ Selective OCR on {} of {} pages", lowTextPages.size(), nativeResult.getPages().size());
+        long startTime = System.currentTimeMillis();
+        List<Future<String>> pageFutures = new ArrayList<>();
         
-        return new ExtractionResult(fullText.toString(), pages, elapsed, false);
+        try {
+            PDFRenderer renderer = new PDFRenderer(document);
+            
+            // Render here, OCR across the pool
+            for (int pageNumber : lowTextPages) {
+                checkInterrupted(pageNumber);
+                BufferedImage image = renderer.renderImageWithDPI(pageNumber - 1, 300);
+                pageFutures.add(tesseractPool.submit(image));
+            }
+            
+            List<String> pageTexts = new ArrayList<>(nativeResult.getPageTexts());
+            List<PageInfo> pages = new ArrayList<>(nativeResult.getPages());
+            List<String> failedPages = new ArrayList<>();
+            int ocrPageCount = 0;
+            
+            for (int i = 0; i < lowTextPages.size(); i++) {
+                int index = lowTextPages.get(i) - 1;
+                try {
+                    String ocrText = pageFutures.get(i).get();
+                    
+                    // Keep the native text if OCR found nothing better
+                    if (ocrText.trim().length() > pageTexts.get(index).trim().length()) {
+                        pageTexts.set(index, ocrText);
+                        pages.set(index, new PageInfo(index + 1, ocrText.length(),
+                                ocrText.trim().length() < MIN_TEXT_PER_PAGE, true));
+                        ocrPageCount++;
+                    }
+                } catch (ExecutionException e) {
+                    log.error("OCR failed for page {}", index + 1, e.getCause());
+                    failedPages.add(String.valueOf(index + 1));
+                }
+            }
+            
+            long ocrElapsed = System.currentTimeMillis() - startTime;
+            log.info("✓ Selective OCR completed in {}ms ({} pages replaced)", ocrElapsed, ocrPageCount);
+            
+            ExtractionResult result = new ExtractionResult(
+                    assembleText(pageTexts, nativeResult.getTableText()),
+                    pageTexts,
+                    nativeResult.getTableText(),
+                    pages,
+                    nativeResult.getProcessingTimeMs() + ocrElapsed,
+                    ocrPageCount);
+            result.addInfo("Selective OCR: " + lowTextPages.size() + " low-text pages scanned in "
+                    + (ocrElapsed / 1000) + " seconds");
+            if (!failedPages.isEmpty()) {
+                result.addFailure("OCR failed for pages " + String.join(", ", failedPages));
+            }
+            
+            return result;
+            
+        } catch (InterruptedException e) {
+            // Cancelled: stop the pages not OCR'd yet and give up on the document
+            pageFutures.forEach(f -> f.cancel(true));
+            throw e;
+        } catch (Exception e) {
+            log.error("Selective OCR failed", e);
+            nativeResult.addFailure("OCR extraction failed: " + e.getMessage());
+            return nativeResult;
+        }
     }
 
     /**
      * OCR extraction for image-based PDFs
      */
-    private ExtractionResult extractWithOCR(PDDocument document, String filePath, ExtractionResult nativeResult) {
+    private ExtractionResult extractWithOCR(PDDocument document, String filePath, ExtractionResult nativeResult)
+            throws InterruptedException {
         log.info("Starting OCR extraction...");
         long startTime = System.currentTimeMillis();
+        List<Future<String>> pageFutures = new ArrayList<>();
         
         try {
             PDFRenderer renderer = new PDFRenderer(document);
@@ -175,59 +328,92 @@ public class ProductionPdfService {
             }
             
             List<PageInfo> ocrPages = new ArrayList<>();
+            List<String> ocrPageTexts = new ArrayList<>();
+            List<String> failedPages = new ArrayList<>();
             
+            // Render pages here (PDFRenderer is not thread-safe), OCR them across the pool
             for (int i = 0; i < document.getNumberOfPages(); i++) {
+                checkInterrupted(i + 1);
+                log.debug("OCR processing page {}/{}...", i + 1, document.getNumberOfPages());
+                
+                // Render page to image at 300 DPI (good quality)
+                BufferedImage image = renderer.renderImageWithDPI(i, 300);
+                pageFutures.add(tesseractPool.submit(image));
+            }
+            
+            for (int i = 0; i < pageFutures.size(); i++) {
                 try {
-                    log.debug("OCR processing page {}/{}...", i + 1, document.getNumberOfPages());
-                    
-                    // Render page to image at 300 DPI (good quality)
-                    BufferedImage image = renderer.renderImageWithDPI(i, 300);
-                    
-                    // OCR the image
-                    String pageText = tesseract.doOCR(image);
+                    String pageText = pageFutures.get(i).get();
                     
                     ocrText.append(pageText);
                     ocrText.append("\n\n=== END OF PAGE ").append(i + 1).append(" ===\n\n");
                     
-                    ocrPages.add(new PageInfo(i + 1, pageText.length(), false));
+                    ocrPages.add(new PageInfo(i + 1, pageText.length(), false, true));
+                    ocrPageTexts.add(pageText);
                     
-                } catch (TesseractException e) {
-                    log.error("OCR failed for page {}", i + 1, e);
+                } catch (ExecutionException e) {
+                    log.error("OCR failed for page {}", i + 1, e.getCause());
                     ocrText.append("[OCR failed for page ").append(i + 1).append("]\n\n");
-                    ocrPages.add(new PageInfo(i + 1, 0, true));
+                    ocrPages.add(new PageInfo(i + 1, 0, true, true));
+                    ocrPageTexts.add("");
+                    failedPages.add(String.valueOf(i + 1));
                 }
             }
             
             long elapsed = System.currentTimeMillis() - startTime;
             log.info("✓ OCR extraction completed in {}ms ({} seconds)", elapsed, elapsed / 1000);
             
-            ExtractionResult result = new ExtractionResult(ocrText.toString(), ocrPages, elapsed, true);
+            ExtractionResult result = new ExtractionResult(ocrText.toString(), ocrPageTexts, "", ocrPages, elapsed,
+                    ocrPages.size());
             result.addInfo("OCR processing took " + (elapsed / 1000) + " seconds");
+            if (!failedPages.isEmpty()) {
+                result.addFailure("OCR failed for pages " + String.join(", ", failedPages));
+            }
             
             return result;
             
+        } catch (InterruptedException e) {
+            pageFutures.forEach(f -> f.cancel(true));
+            throw e;
         } catch (Exception e) {
             log.error("OCR extraction failed", e);
-            nativeResult.addWarning("OCR extraction failed: " + e.getMessage());
+            nativeResult.addFailure("OCR extraction failed: " + e.getMessage());
             return nativeResult;
         }
     }
 
     /**
-     * Extract tables using Tabula
+     * Per-page cancellation point for the OCR loops
+     */
+    private static void checkInterrupted(int pageNumber) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException("OCR interrupted at page " + pageNumber);
+        }
+    }
+
+    /**
+     * Extract tables using Tabula, reusing the already-open document.
+     * Only pages that draw ruling lines are handed to Tabula.
      */
-    private String extractTables(String filePath) {
+    private String extractTables(PDDocument document) {
         try {
             log.debug("Attempting table extraction...");
             
-            PDDocument document = Loader.loadPDF(new File(filePath));
+            // Don't close: ObjectExtractor.close() closes the shared document
+            ObjectExtractor objectExtractor = new ObjectExtractor(document);
             SpreadsheetExtractionAlgorithm extractor = new SpreadsheetExtractionAlgorithm();
             
             StringBuilder tables = new StringBuilder();
             int tableCount = 0;
+            int ruledPages = 0;
             
             for (int pageNum = 0; pageNum < document.getNumberOfPages(); pageNum++) {
-                Page page = new ObjectExtractor(document).extract(pageNum + 1);
+                if (!looksRuled(document.getPage(pageNum))) {
+                    continue;
+                }
+                ruledPages++;
+                
+                Page page = objectExtractor.extract(pageNum + 1);
                 List<Table> pageTables = extractor.extract(page);
                 
                 for (Table table : pageTables) {
@@ -247,8 +433,7 @@ public class ProductionPdfService {
                 }
             }
             
-            document.close();
-            
+            log.debug("Table pre-check: {}/{} pages ruled", ruledPages, document.getNumberOfPages());
             if (tableCount > 0) {
                 log.info("✓ Extracted {} tables", tableCount);
             }
@@ -261,6 +446,29 @@ public class ProductionPdfService {
         }
     }
 
+    /**
+     * Cheap ruled-page check: scan the content stream tokens for line and
+     * rectangle operators without running the text/graphics engine.
+     * SpreadsheetExtractionAlgorithm only finds tables bounded by rulings.
+     */
+    private boolean looksRuled(PDPage page) {
+        try {
+            PDFStreamParser parser = new PDFStreamParser(page);
+            int rulings = 0;
+            for (Object token = parser.parseNextToken(); token != null; token = parser.parseNextToken()) {
+                if (token instanceof Operator operator) {
+                    String name = operator.getName();
+                    if (("re".equals(name) || "l".equals(name)) && ++rulings >= MIN_RULING_OPERATORS) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        } catch (IOException e) {
+            return true;  // Can't tell - let Tabula decide
+        }
+    }
+
     /**
      * Analyze extraction quality
      */
@@ -309,41 +517,77 @@ public class ProductionPdfService {
      * Check if OCR is available
      */
     public boolean isOcrAvailable() {
-        return ocrAvailable;
+        return tesseractPool.isAvailable();
+    }
+
+    /**
+     * Identifies the extraction output format and settings (cache key component)
+     */
+    public String getExtractorVersion() {
+        return EXTRACTOR_VERSION + "-" + ocrMode + (isOcrAvailable() ? "" : "-noocr");
+    }
+
+    /**
+     * OCR pool metrics (queue wait, per-page latency)
+     */
+    public Map<String, Object> getOcrStats() {
+        return tesseractPool.getStats();
     }
 
     // ========================== RESULT CLASSES ==========================
 
     public static class ExtractionResult {
         private final String text;
+        private final List<String> pageTexts;
+        private final String tableText;
         private final List<PageInfo> pages;
         private final long processingTimeMs;
-        private final boolean usedOcr;
+        private final int ocrPageCount;
         private final List<String> warnings = new ArrayList<>();
         private final List<String> info = new ArrayList<>();
+        private boolean degraded = false;  // Part of the extraction failed and was worked around
 
-        public ExtractionResult(String text, List<PageInfo> pages, long processingTimeMs, boolean usedOcr) {
+        public ExtractionResult(String text, List<String> pageTexts, String tableText, List<PageInfo> pages,
+                                long processingTimeMs, int ocrPageCount) {
             this.text = text;
+            this.pageTexts = pageTexts;
+            this.tableText = tableText;
             this.pages = pages;
             this.processingTimeMs = processingTimeMs;
-            this.usedOcr = usedOcr;
+            this.ocrPageCount = ocrPageCount;
         }
 
         public String getText() { return text; }
+        public List<String> getPageTexts() { return pageTexts; }
+        public String getTableText() { return tableText; }
         public List<PageInfo> getPages() { return pages; }
         public long getProcessingTimeMs() { return processingTimeMs; }
-        public boolean usedOcr() { return usedOcr; }
+        public boolean usedOcr() { return ocrPageCount > 0; }
+        public int getOcrPageCount() { return ocrPageCount; }
         public List<String> getWarnings() { return warnings; }
         public List<String> getInfo() { return info; }
 
         public void addWarning(String warning) { warnings.add(warning); }
         public void addInfo(String info) { this.info.add(info); }
 
+        /**
+         * A failure (e.g. OCR) the result falls back around - may go away on retry
+         */
+        public void addFailure(String warning) {
+            warnings.add(warning);
+            degraded = true;
+        }
+
+        public boolean isDegraded() { return degraded; }
+
         public String getSummary() {
             StringBuilder summary = new StringBuilder();
             summary.append("Extraction completed in ").append(processingTimeMs).append("ms\n");
-            summary.append("Method: ").append(usedOcr ? "OCR" : "Native text").append("\n");
+            summary.append("Method: ").append(getMethod()).append("\n");
             summary.append("Pages: ").append(pages.size()).append("\n");
+            if (ocrPageCount > 0) {
+                summary.append("OCR pages: ").append(ocrPageCount).append("/").append(pages.size()).append("\n");
+            }
             summary.append("Total characters: ").append(text.length()).append("\n");
             
             if (!warnings.isEmpty()) {
@@ -358,22 +602,34 @@ public class ProductionPdfService {
             
             return summary.toString();
         }
+
+        public String getMethod() {
+            if (ocrPageCount == 0) return "Native text";
+            return ocrPageCount < pages.size() ? "Native text + selective OCR" : "OCR";
+        }
     }
 
     public static class PageInfo {
         private final int pageNumber;
         private final int charCount;
         private final boolean lowText;
+        private final boolean ocr;
 
         public PageInfo(int pageNumber, int charCount, boolean lowText) {
+            this(pageNumber, charCount, lowText, false);
+        }
+
+        public PageInfo(int pageNumber, int charCount, boolean lowText, boolean ocr) {
             this.pageNumber = pageNumber;
             this.charCount = charCount;
             this.lowText = lowText;
+            this.ocr = ocr;
         }
 
         public int getPageNumber() { return pageNumber; }
         public int getCharCount() { return charCount; }
         public boolean isLowText() { return lowText; }
+        public boolean isOcr() { return ocr; }
     }
 
     private static class DocumentQuality {
@@ -389,4 +645,10 @@ public class ProductionPdfService {
     private enum QualityLevel {
         HIGH, MEDIUM, LOW
     }
+
+    public enum OcrMode {
+        OFF,        // Native text only
+        SELECTIVE,  // OCR only low-text pages and splice them in
+        FULL        // OCR every page of image-based PDFs
+    }
 }
\ No newline at end of file
@@ -0,0 +1,305 @@
+package com.documentreaderai.service;
+
+import com.documentreaderai.model.entity.DocumentChunk;
+import com.documentreaderai.repository.DocumentChunkRepository;
+import com.documentreaderai.service.ProductionPdfService.ExtractionResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * BM25 retrieval over page-aware document chunks
+ *
+ * At extraction time every page is cut into ~1000 char chunks (never crossing a
+ * page boundary) and stored in document_chunks. At question time the chunks are
+ * scored with BM25 against the question and the best ones are returned, in page
+ * order, within a token budget - so the model sees page 40 when the answer is on
+ * page 40, and the prompt (and num_ctx) stays small.
+ *
+ * The inverted index is rebuilt from the stored chunks on first use and kept in
+ * a small LRU.
+ */
+@Service
+@Slf4j
+public class RetrievalService {
+
+    private static final int CHUNK_CHARS = 1000;
+    private static final int INDEX_CACHE_SIZE = 32;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MIN_CONTEXT = 2048;
+    private static final int CONTEXT_MARGIN = 256;  // Template + tokenizer slack
+    private static final Pattern TOKEN_SPLIT = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Set<String> STOP_WORDS = Set.of(
+        "the", "and", "for", "are", "was", "with", "this", "that", "from", "shall", "will",
+        "any", "all", "such", "its", "has", "have", "been", "not", "but", "per", "under",
+        "which", "what", "who", "whom", "into", "upon", "each", "other", "than", "their", "there"
+    );
+
+    private final DocumentChunkRepository chunkRepository;
+    private final TransactionTemplate indexTransaction;
+    private final int topK;
+
+    // documentId → BM25 index (LRU)
+    private final Map<UUID, Bm25Index> indexCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, Bm25Index> eldest) {
+            return size() > INDEX_CACHE_SIZE;
+        }
+    };
+
+    public RetrievalService(
+            DocumentChunkRepository chunkRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${llm.retrieval.top-k:12}") int topK) {
+        this.chunkRepository = chunkRepository;
+        this.topK = topK;
+
+        // Index writes must never roll back the caller's document update
+        this.indexTransaction = new TransactionTemplate(transactionManager);
+        this.indexTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // ========================== INDEXING ==========================
+
+    /**
+     * Index a ProductionPdfService result (page texts + extracted tables)
+     */
+    public void indexDocument(UUID documentId, ExtractionResult result) {
+        List<String> pageTexts = result.getPageTexts();
+        List<Integer> pageNumbers = new ArrayList<>();
+        for (int i = 1; i <= pageTexts.size(); i++) pageNumbers.add(i);
+        saveChunks(documentId, pageTexts, pageNumbers, result.getTableText());
+    }
+
+    /**
+     * Index plain extracted text, splitting on page markers when present
+     */
+    public void indexDocument(UUID documentId, String extractedText) {
+        PagedText paged = PagedText.of(extractedText);
+        saveChunks(documentId, paged.getPageTexts(), paged.getPageNumbers(), paged.getUnpagedText());
+    }
+
+    private void saveChunks(UUID documentId, List<String> pageTexts, List<Integer> pageNumbers, String unpagedText) {
+        long startTime = System.currentTimeMillis();
+
+        List<DocumentChunk> chunks = new ArrayList<>();
+        for (int i = 0; i < pageTexts.size(); i++) {
+            addChunks(chunks, documentId, pageNumbers.get(i), pageTexts.get(i));
+        }
+        if (unpagedText != null) {
+            addChunks(chunks, documentId, null, unpagedText);
+        }
+
+        try {
+            indexTransaction.executeWithoutResult(status -> {
+                chunkRepository.deleteByDocumentId(documentId);
+                chunkRepository.saveAll(chunks);
+            });
+            synchronized (indexCache) {
+                indexCache.put(documentId, new Bm25Index(chunks));
+            }
+            log.info("✓ Retrieval index: {} chunks in {}ms", chunks.size(), System.currentTimeMillis() - startTime);
+        } catch (Exception e) {
+            log.warn("Failed to build retrieval index for {}: {}", documentId, e.getMessage());
+        }
+    }
+
+    /**
+     * Cut one page into chunks on line boundaries
+     */
+    private void addChunks(List<DocumentChunk> chunks, UUID documentId, Integer pageNumber, String text) {
+        StringBuilder current = new StringBuilder();
+        for (String line : text.split("\n")) {
+            if (current.length() + line.length() > CHUNK_CHARS && current.length() > 0) {
+                addChunk(chunks, documentId, pageNumber, current.toString());
+                current.setLength(0);
+            }
+            current.append(line).append('\n');
+        }
+        addChunk(chunks, documentId, pageNumber, current.toString());
+    }
+
+    private void addChunk(List<DocumentChunk> chunks, UUID documentId, Integer pageNumber, String content) {
+        if (content.isBlank()) {
+            return;
+        }
+        chunks.add(DocumentChunk.builder()
+                .documentId(documentId)
+                .chunkIndex(chunks.size())
+                .pageNumber(pageNumber)
+                .content(content.strip())
+                .build());
+    }
+
+    public void deleteIndex(UUID documentId) {
+        synchronized (indexCache) {
+            indexCache.remove(documentId);
+        }
+        chunkRepository.deleteByDocumentId(documentId);
+    }
+
+    // ========================== RETRIEVAL ==========================
+
+    /**
+     * Best chunks for a question, in page order, within tokenBudget.
+     * Empty if the document has no index (e.g. extracted before indexing existed).
+     */
+    public Optional<String> retrieve(UUID documentId, String query, int tokenBudget) {
+        if (documentId == null) {
+            return Optional.empty();
+        }
+
+        Bm25Index index = loadIndex(documentId);
+        if (index == null || index.chunks.isEmpty()) {
+            return Optional.empty();
+        }
+
+        long startTime = System.currentTimeMillis();
+        List<Integer> ranked = index.search(tokenize(query));
+
+        // Top-k by score within budget, then restore document order
+        List<Integer> selected = new ArrayList<>();
+        int tokens = 0;
+        for (int chunk : ranked) {
+            if (selected.size() >= topK) break;
+            int chunkTokens = estimateTokens(index.chunks.get(chunk).getContent());
+            if (tokens + chunkTokens > tokenBudget) continue;
+            selected.add(chunk);
+            tokens += chunkTokens;
+        }
+        if (selected.isEmpty()) {
+            return Optional.empty();
+        }
+        selected.sort(Comparator.naturalOrder());
+
+        StringBuilder context = new StringBuilder();
+        Integer currentPage = null;
+        for (int chunk : selected) {
+            DocumentChunk documentChunk = index.chunks.get(chunk);
+            if (documentChunk.getPageNumber() != null && !documentChunk.getPageNumber().equals(currentPage)) {
+                context.append("=== PAGE ").append(documentChunk.getPageNumber()).append(" ===\n");
+            }
+            context.append(documentChunk.getContent()).append("\n\n");
+            currentPage = documentChunk.getPageNumber();
+        }
+
+        log.info("Retrieved {}/{} chunks (~{} tokens) in {}ms",
+                selected.size(), index.chunks.size(), tokens, System.currentTimeMillis() - startTime);
+        return Optional.of(context.toString());
+    }
+
+    private Bm25Index loadIndex(UUID documentId) {
+        synchronized (indexCache) {
+            Bm25Index cached = indexCache.get(documentId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        List<DocumentChunk> chunks = chunkRepository.findByDocumentIdOrderByChunkIndex(documentId);
+        if (chunks.isEmpty()) {
+            return null;
+        }
+
+        Bm25Index index = new Bm25Index(chunks);
+        synchronized (indexCache) {
+            indexCache.put(documentId, index);
+        }
+        return index;
+    }
+
+    /**
+     * Rough token estimate for English/legal text (~4 chars per token)
+     */
+    public static int estimateTokens(String text) {
+        return text.length() / 4 + 1;
+    }
+
+    /**
+     * Smallest power-of-two num_ctx that fits the prompt plus the answer, up to maxContext
+     */
+    public static int contextSizeFor(String prompt, int numPredict, int maxContext) {
+        int needed = estimateTokens(prompt) + numPredict + CONTEXT_MARGIN;
+        int size = MIN_CONTEXT;
+        while (size < needed && size < maxContext) {
+            size *= 2;
+        }
+        return Math.min(size, maxContext);
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SPLIT.split(text.toLowerCase())) {
+            if (token.length() > 1 && !STOP_WORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * In-memory inverted index with BM25 scoring
+     */
+    private static class Bm25Index {
+        private final List<DocumentChunk> chunks;
+        private final Map<String, Map<Integer, Integer>> postings = new HashMap<>();  // term → chunk → tf
+        private final int[] lengths;
+        private final double averageLength;
+
+        Bm25Index(List<DocumentChunk> chunks) {
+            this.chunks = chunks;
+            this.lengths = new int[chunks.size()];
+
+            long totalLength = 0;
+            for (int i = 0; i < chunks.size(); i++) {
+                List<String> tokens = tokenize(chunks.get(i).getContent());
+                lengths[i] = tokens.size();
+                totalLength += tokens.size();
+                for (String token : tokens) {
+                    postings.computeIfAbsent(token, t -> new HashMap<>()).merge(i, 1, Integer::sum);
+                }
+            }
+            this.averageLength = chunks.isEmpty() ? 0 : (double) totalLength / chunks.size();
+        }
+
+        /**
+         * Chunk indexes with a positive score, best first
+         */
+        List<Integer> search(List<String> queryTerms) {
+            Map<Integer, Double> scores = new HashMap<>();
+            int n = chunks.size();
+
+            for (String term : Set.copyOf(queryTerms)) {
+                Map<Integer, Integer> termPostings = postings.get(term);
+                if (termPostings == null) continue;
+
+                int df = termPostings.size();
+                double idf = Math.log(1 + (n - df + 0.5) / (df + 0.5));
+
+                termPostings.forEach((chunk, tf) -> {
+                    double norm = tf + K1 * (1 - B + B * lengths[chunk] / averageLength);
+                    scores.merge(chunk, idf * tf * (K1 + 1) / norm, Double::sum);
+                });
+            }
+
+            List<Integer> ranked = new ArrayList<>(scores.keySet());
+            ranked.sort((a, b) -> Double.compare(scores.get(b), scores.get(a)));
+            return ranked;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.documentreaderai.service;
+
+import com.documentreaderai.model.ZstdText;
+import com.documentreaderai.model.dto.TextStorageStats;
+import com.documentreaderai.model.entity.Document;
+import com.documentreaderai.repository.DocumentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Compressed storage of document text (storage.compression.*)
+ *
+ * New text is written in the configured form (DocumentTextCompression);
+ * this moves existing rows to it: plain TEXT →
+ * Zstd bytea when enabled, back to TEXT when disabled. Rows are
+ * rewritten one at a time, each only if it hasn't changed since it was read,
+ * so the migration can run next to live traffic and be resumed at any point.
+ */
+@Service
+@Slf4j
+public class TextCompressionService {
+
+    private static final UUID FIRST_ID = new UUID(0, 0);
+
+    private final DocumentRepository documentRepository;
+    private final boolean enabled;
+    private final int level;
+    private final int batchSize;
+    private final AtomicBoolean migrating = new AtomicBoolean();
+
+    public TextCompressionService(
+            DocumentRepository documentRepository,
+            @Value("${storage.compression.enabled:false}") boolean enabled,
+            @Value("${storage.compression.level:3}") int level,
+            @Value("${storage.compression.migration-batch-size:20}") int batchSize) {
+        this.documentRepository = documentRepository;
+        this.enabled = enabled;
+        this.level = level;
+        this.batchSize = Math.max(1, batchSize);
+
+        if (enabled) {
+            log.info("✓ Document text stored compressed (zstd level {})", level);
+        }
+    }
+
+    /**
+     * Rewrite up to limit documents whose text is not in the configured form
+     */
+    public Map<String, Object> migrate(int limit) {
+        if (!migrating.compareAndSet(false, true)) {
+            throw new IllegalStateException("Text compression migration already running");
+        }
+        try {
+            long startTime = System.currentTimeMillis();
+            int rewritten = 0;
+            int skipped = 0;
+            UUID after = FIRST_ID;
+
+            while (rewritten + skipped < limit) {
+                PageRequest next = PageRequest.of(0, Math.min(batchSize, limit - rewritten - skipped));
+                List<Document> documents = enabled
+                        ? documentRepository.findWithPlainTextAfter(after, next)
+                        : documentRepository.findWithCompressedTextAfter(after, next);
+                if (documents.isEmpty()) {
+                    break;
+                }
+
+                for (Document document : documents) {
+                    if (rewrite(document)) {
+                        rewritten++;
+                    } else {
+                        skipped++;  // Changed meanwhile - written in the new form already, or next run
+                    }
+                    after = document.getId();
+                }
+            }
+
+            long elapsed = System.currentTimeMillis() - startTime;
+            log.info("✓ Text compression migration: {} documents rewritten, {} skipped in {}ms",
+                    rewritten, skipped, elapsed);
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("target", enabled ? "compressed" : "plain");
+            result.put("rewritten", rewritten);
+            result.put("skipped", skipped);
+            result.put("elapsedMs", elapsed);
+            result.put("storage", getStats());
+            return result;
+
+        } finally {
+            migrating.set(false);
+        }
+    }
+
+    private boolean rewrite(Document document) {
+        String text = document.getExtractedText();
+        String analysis = document.getAiAnalysis();
+        return documentRepository.rewriteText(document.getId(), document.getUpdatedAt(),
+                enabled ? null : text,
+                enabled ? ZstdText.compress(text, level) : null,
+                enabled ? null : analysis,
+                enabled ? ZstdText.compress(analysis, level) : null) == 1;
+    }
+
+    /**
+     * Rows and stored bytes per form
+     */
+    public Map<String, Object> getStats() {
+        TextStorageStats storage = documentRepository.getTextStorageStats();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("compressionEnabled", enabled);
+        stats.put("documents", storage.getDocuments());
+        stats.put("plainRows", storage.getPlainRows());
+        stats.put("compressedRows", storage.getCompressedRows());
+        stats.put("plainBytes", storage.getPlainBytes());
+        stats.put("compressedBytes", storage.getCompressedBytes());
+        stats.put("migrating", migrating.get());
+        return stats;
+    }
+}
@@ -200,6 +200,14 @@
                             <i class="fas fa-stop"></i> Cancel
                         </button>
                     </c:if>
+                    <c:if test="${batchJob.status == 'PAUSED'}">
+                        <button class="btn btn-primary" onclick="resumeJob()">
+                            <i class="fas fa-play"></i> Resume
+                        </button>
+                        <button class="btn btn-danger" onclick="cancelJob()">
+                            <i class="fas fa-stop"></i> Cancel
+                        </button>
+                    </c:if>
                     <button class="btn btn-outline-primary" onclick="location.reload()">
                         <i class="fas fa-sync"></i> Refresh
                     </button>
@@ -228,7 +236,7 @@
                             </tr>
                         </thead>
                         <tbody id="documentsTable">
-                            <c:forEach items="${batchJob.documents}" var="doc" varStatus="status">
+                            <c:forEach items="${documents}" var="doc" varStatus="status">
                                 <tr class="doc-item status-${doc.status.toString().toLowerCase()}" 
                                     data-doc-id="${doc.id}">
                                     <td>${status.index + 1}</td>
@@ -279,76 +287,105 @@
         const batchJobId = '${batchJob.id}';
         const isRunning = '${batchJob.status}' === 'RUNNING';
         
-        // Auto-refresh if job is running
+        // Progress is pushed by the server while the job runs - no polling
         if (isRunning) {
-            setInterval(updateProgress, 3000); // Update every 3 seconds
+            watchProgress();
         }
         
-        async function updateProgress() {
-            try {
-                const response = await fetch(`/api/batch/${batchJobId}/summary`);
-                const data = await response.json();
-                
-                // Update progress
-                document.getElementById('processedCount').textContent = data.processedCount;
-                document.getElementById('progressPercent').textContent = data.progressPercentage.toFixed(1);
-                
-                const progressBar = document.getElementById('mainProgressBar');
-                progressBar.style.width = data.progressPercentage + '%';
-                
-                // Update statistics
-                document.getElementById('successDocs').textContent = data.successCount;
-                document.getElementById('failedDocs').textContent = data.failureCount;
-                document.getElementById('remainingDocs').textContent = 
-                    data.totalDocuments - data.processedCount;
-                
-                // Update ETA
-                if (data.estimatedTimeRemaining) {
-                    const minutes = Math.floor(data.estimatedTimeRemaining / 60);
-                    const seconds = data.estimatedTimeRemaining % 60;
-                    document.getElementById('eta').textContent = 
-                        `${minutes}m ${seconds}s`;
+        function watchProgress() {
+            const source = new EventSource('/api/batch/' + batchJobId + '/events');
+            
+            // Full state on (re)connect, then changes
+            source.addEventListener('snapshot', e => {
+                const data = JSON.parse(e.data);
+                updateCounters(data);
+                data.documents.forEach(doc => updateDocumentStatus(doc.id, doc.status));
+                if (isFinished(data.status)) {
+                    finish(source);
                 }
-                
-                // Update document statuses
-                data.documents.forEach(doc => {
-                    const row = document.querySelector(`tr[data-doc-id="${doc.filename}"]`);
-                    if (row) {
-                        const statusCell = row.querySelector('.doc-status');
-                        if (statusCell) {
-                            statusCell.textContent = doc.status;
-                        }
-                    }
-                });
-                
-                // Reload page if completed
-                if (data.status === 'COMPLETED' || data.status === 'FAILED') {
-                    setTimeout(() => location.reload(), 2000);
+            });
+            
+            source.addEventListener('document', e => {
+                const event = JSON.parse(e.data);
+                updateDocumentStatus(event.documentId, event.status);
+            });
+            
+            source.addEventListener('progress', e => {
+                const data = JSON.parse(e.data);
+                updateCounters(data);
+                if (isFinished(data.status)) {
+                    finish(source);
                 }
-                
-            } catch (error) {
-                console.error('Error updating progress:', error);
+            });
+            
+            // EventSource reconnects on its own and gets a fresh snapshot
+            source.onerror = () => console.log('Progress stream interrupted, reconnecting...');
+        }
+        
+        function isFinished(status) {
+            return status === 'COMPLETED' || status === 'FAILED' || status === 'CANCELLED';
+        }
+        
+        function finish(source) {
+            source.close();
+            setTimeout(() => location.reload(), 2000);
+        }
+        
+        function updateCounters(data) {
+            // Update progress
+            document.getElementById('processedCount').textContent = data.processedCount;
+            document.getElementById('progressPercent').textContent = data.progressPercentage.toFixed(1);
+            
+            const progressBar = document.getElementById('mainProgressBar');
+            progressBar.style.width = data.progressPercentage + '%';
+            
+            // Update statistics
+            document.getElementById('successDocs').textContent = data.successCount;
+            document.getElementById('failedDocs').textContent = data.failureCount;
+            document.getElementById('remainingDocs').textContent = 
+                data.totalDocuments - data.processedCount;
+            
+            // Update ETA
+            if (data.estimatedTimeRemaining) {
+                const minutes = Math.floor(data.estimatedTimeRemaining / 60);
+                const seconds = data.estimatedTimeRemaining % 60;
+                document.getElementById('eta').textContent = minutes + 'm ' + seconds + 's';
+            }
+        }
+        
+        function updateDocumentStatus(docId, status) {
+            const row = document.querySelector('tr[data-doc-id="' + docId + '"]');
+            if (row) {
+                const statusClass = 'status-' + status.toLowerCase();
+                row.className = 'doc-item ' + statusClass;
+                row.querySelector('.status-indicator').className = 'status-indicator ' + statusClass;
+                row.querySelector('.doc-status').textContent = status;
             }
         }
         
         function exportToExcel() {
-            window.location.href = `/api/batch/${batchJobId}/export/excel`;
+            window.location.href = '/api/batch/' + batchJobId + '/export/excel';
         }
         
         function exportToCSV() {
-            window.location.href = `/api/batch/${batchJobId}/export/csv`;
+            window.location.href = '/api/batch/' + batchJobId + '/export/csv';
         }
         
         function pauseJob() {
             if (confirm('Pause this batch job?')) {
-                fetch(`/api/batch/${batchJobId}/pause`, { method: 'POST' })
+                fetch('/api/batch/' + batchJobId + '/pause', { method: 'POST' })
                     .then(() => location.reload());
             }
         }
         
+        function resumeJob() {
+            fetch('/api/batch/' + batchJobId + '/resume', { method: 'POST' })
+                .then(() => location.reload());
+        }
+        
         function cancelJob() {
             if (confirm('Cancel this batch job? This cannot be undone.')) {
-                fetch(`/api/batch/${batchJobId}/cancel`, { method: 'POST' })
+                fetch('/api/batch/' + batchJobId + '/cancel', { method: 'POST' })
                     .then(() => location.reload());
             }
         }
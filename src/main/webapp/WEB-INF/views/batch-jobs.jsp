@@ -148,6 +148,11 @@
                                                     <i class="fas fa-times"></i> Failed
                                                 </span>
                                             </c:when>
+                                            <c:when test="${job.status == 'PAUSED'}">
+                                                <span class="badge bg-warning text-dark">
+                                                    <i class="fas fa-pause"></i> Paused
+                                                </span>
+                                            </c:when>
                                             <c:when test="${job.status == 'CANCELLED'}">
                                                 <span class="badge bg-secondary">Cancelled</span>
                                             </c:when>
@@ -355,8 +355,37 @@
             document.getElementById('page' + pageNum).classList.add('active');
             // Scroll to page
             document.getElementById('page' + pageNum).scrollIntoView({ behavior: 'smooth', block: 'center' });
+            loadPageText(pageNum);
         }
 
+        // Page text is fetched per page as it scrolls into view, not with the document
+        const loadedPages = new Set();
+
+        function loadPageText(pageNum) {
+            if (loadedPages.has(pageNum)) {
+                return;
+            }
+            loadedPages.add(pageNum);
+            fetch('/api/documents/' + documentId + '/pages/text?from=' + pageNum + '&to=' + pageNum)
+                .then(response => response.ok ? response.json() : [])
+                .then(pages => {
+                    if (pages.length === 0) {
+                        return;  // Not stored (not extracted yet) - keep the placeholder
+                    }
+                    const content = document.querySelector('#page' + pageNum + ' .page-content');
+                    content.textContent = pages[0].text.trim() || '(no text on this page)';
+                })
+                .catch(() => loadedPages.delete(pageNum));
+        }
+
+        const pageObserver = new IntersectionObserver(entries => {
+            entries.filter(entry => entry.isIntersecting).forEach(entry => {
+                loadPageText(parseInt(entry.target.id.substring(4)));
+                pageObserver.unobserve(entry.target);
+            });
+        }, { rootMargin: '200px' });
+        document.querySelectorAll('.page-thumbnail').forEach(page => pageObserver.observe(page));
+
         function togglePanel() {
             document.getElementById('analysisPanel').classList.toggle('collapsed');
         }
@@ -370,46 +399,82 @@
             
             const prompt = document.getElementById('promptInput').value;
             
-            // Show loading
+            // Show loading until the first token arrives
             document.getElementById('loadingOverlay').classList.add('show');
             
-            // Send analysis request
-            fetch(`/api/documents/${documentId}/analyze`, {
+            // Stream the answer as the model writes it (saved to the document when done).
+            // A POST, so fetch reads the event stream instead of EventSource.
+            let answer = null;
+            const fail = message => {
+                document.getElementById('loadingOverlay').classList.remove('show');
+                alert('Analysis failed: ' + message);
+            };
+            
+            const handleEvent = (type, data) => {
+                if (type === 'token') {
+                    if (answer === null) {
+                        answer = showStreamedAnswer();
+                        document.getElementById('loadingOverlay').classList.remove('show');
+                    }
+                    answer.textContent += JSON.parse(data).t;
+                } else if (type === 'error') {
+                    fail(JSON.parse(data).error);
+                }
+            };
+            
+            fetch('/api/documents/' + documentId + '/analyze/stream', {
                 method: 'POST',
-                headers: {
-                    'Content-Type': 'application/json',
-                },
+                headers: { 'Content-Type': 'application/json', 'Accept': 'text/event-stream' },
                 body: JSON.stringify({ prompt: prompt })
             })
-            .then(response => response.json())
-            .then(data => {
-                // Poll for status
-                checkAnalysisStatus();
-            })
-            .catch(error => {
-                console.error('Error:', error);
+            .then(async response => {
+                if (!response.ok) {
+                    // e.g. 429 when the model queue is full
+                    throw new Error('AI model is busy or unavailable, please try again shortly');
+                }
+                
+                const reader = response.body.getReader();
+                const decoder = new TextDecoder();
+                let buffer = '';
+                for (;;) {
+                    const { value, done } = await reader.read();
+                    if (done) break;
+                    buffer += decoder.decode(value, { stream: true });
+                    
+                    // Events are separated by a blank line
+                    let end;
+                    while ((end = buffer.indexOf('\n\n')) >= 0) {
+                        let type = 'message';
+                        const data = [];
+                        buffer.substring(0, end).split('\n').forEach(line => {
+                            if (line.startsWith('event:')) type = line.substring(6).trim();
+                            else if (line.startsWith('data:')) data.push(line.substring(5));
+                        });
+                        buffer = buffer.substring(end + 2);
+                        handleEvent(type, data.join('\n'));
+                    }
+                }
                 document.getElementById('loadingOverlay').classList.remove('show');
-                alert('Analysis failed: ' + error.message);
-            });
+            })
+            .catch(e => fail(e.message));
             
             return false;
         }
 
-        function checkAnalysisStatus() {
-            fetch(`/api/documents/${documentId}/status`)
-                .then(response => response.json())
-                .then(data => {
-                    if (data.status === 'ANALYZED') {
-                        // Analysis complete, reload page
-                        location.reload();
-                    } else if (data.status === 'FAILED') {
-                        document.getElementById('loadingOverlay').classList.remove('show');
-                        alert('Analysis failed: ' + data.error);
-                    } else {
-                        // Still processing, check again
-                        setTimeout(checkAnalysisStatus, 2000);
-                    }
-                });
+        function showStreamedAnswer() {
+            const section = document.createElement('div');
+            section.className = 'analysis-section';
+            section.innerHTML = '<h5><i class="fas fa-info-circle"></i> Analysis Results</h5>';
+            
+            const answer = document.createElement('div');
+            answer.style.whiteSpace = 'pre-wrap';
+            answer.style.fontFamily = "'Courier New', monospace";
+            section.appendChild(answer);
+            
+            const content = document.getElementById('analysisContent');
+            content.innerHTML = '';
+            content.appendChild(section);
+            return answer;
         }
 
         function refreshAnalysis() {
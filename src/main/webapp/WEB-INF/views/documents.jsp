@@ -146,6 +146,27 @@
 					    </div>
 					</c:forEach>
                 </div>
+
+                <!-- Pagination -->
+                <c:if test="${page.totalPages > 1}">
+                    <nav class="d-flex justify-content-between align-items-center mb-4">
+                        <span class="text-muted">
+                            ${page.number * page.size + 1}-${page.number * page.size + page.numberOfElements}
+                            of ${page.totalElements} documents
+                        </span>
+                        <ul class="pagination mb-0">
+                            <li class="page-item ${page.first ? 'disabled' : ''}">
+                                <a class="page-link" href="/documents?page=${page.number - 1}&size=${page.size}">&laquo; Newer</a>
+                            </li>
+                            <li class="page-item disabled">
+                                <span class="page-link">Page ${page.number + 1} of ${page.totalPages}</span>
+                            </li>
+                            <li class="page-item ${page.last ? 'disabled' : ''}">
+                                <a class="page-link" href="/documents?page=${page.number + 1}&size=${page.size}">Older &raquo;</a>
+                            </li>
+                        </ul>
+                    </nav>
+                </c:if>
             </c:otherwise>
         </c:choose>
     </div>
@@ -180,67 +201,71 @@
 	      
 	      <!-- Status Checking Script -->
 	      <script>
-	          var checkInterval;
+	          var statusSource;
+	          var progressTimer;
 	          var progressValue = 0;
 	          
-			  function checkDocumentStatus(documentId) {
-			      $.ajax({
-			          url: '/api/documents/' + documentId + '/status',
-			          method: 'GET',
-			          success: function(data) {
-			              console.log('Status:', data);
-			              
-			              if (data.status === 'ANALYZING') {
-			                  // Still processing
-			                  $('#statusMessage').text('AI is analyzing your document...');
-			                  $('#statusDetail').text('Mistral is processing the text');
-			                  
-			                  // Fake progress (just for UX)
-			                  progressValue = Math.min(progressValue + 5, 90);
-			                  $('#progressBar').css('width', progressValue + '%').text(progressValue + '%');
-			                  
-			              } else if (data.status === 'ANALYZED') {
-			                  // Complete!
-			                  $('#statusMessage').text('✅ Analysis Complete!');
-			                  $('#statusDetail').text('Redirecting...');
-			                  $('#progressBar').removeClass('progress-bar-animated')
-			                                  .addClass('bg-success')
-			                                  .css('width', '100%')
-			                                  .text('100%');
-			                  
-			                  clearInterval(checkInterval);  // ← STOP POLLING
-			                  
-			                  // Redirect to analysis page
-			                  setTimeout(function() {
-			                      window.location.href = '/analyze/' + documentId;
-			                  }, 1500);
-			                  
-			              } else if (data.status === 'FAILED') {
-			                  // Error
-			                  $('#statusMessage').text('❌ Analysis Failed');
-			                  $('#statusDetail').text(data.error || 'An error occurred');
-			                  $('#progressBar').removeClass('progress-bar-animated')
-			                                  .addClass('bg-danger')
-			                                  .css('width', '100%')
-			                                  .text('Error');
-			                  
-			                  clearInterval(checkInterval);  // ← STOP POLLING
-			                  
-			                  setTimeout(function() {
-			                      location.reload();
-			                  }, 3000);
-			              } else {
-			                  // Unknown status - stop polling
-			                  console.log('Unknown status:', data.status);
-			                  clearInterval(checkInterval);  // ← ADD THIS
-			                  location.reload();
-			              }
-			          },
-			          error: function(xhr, status, error) {
-			              console.error('Error checking status:', error);
-			              // Don't stop polling on error - might be temporary
-			          }
+			  function showDocumentStatus(documentId, data) {
+			      console.log('Status:', data);
+			      
+			      if (data.status === 'ANALYZING') {
+			          // Still processing
+			          $('#statusMessage').text('AI is analyzing your document...');
+			          $('#statusDetail').text('Mistral is processing the text');
+			          
+			      } else if (data.status === 'ANALYZED') {
+			          // Complete!
+			          $('#statusMessage').text('✅ Analysis Complete!');
+			          $('#statusDetail').text('Redirecting...');
+			          $('#progressBar').removeClass('progress-bar-animated')
+			                          .addClass('bg-success')
+			                          .css('width', '100%')
+			                          .text('100%');
+			          
+			          stopWatching();
+			          
+			          // Redirect to analysis page
+			          setTimeout(function() {
+			              window.location.href = '/analyze/' + documentId;
+			          }, 1500);
+			          
+			      } else if (data.status === 'FAILED') {
+			          // Error
+			          $('#statusMessage').text('❌ Analysis Failed');
+			          $('#statusDetail').text(data.error || 'An error occurred');
+			          $('#progressBar').removeClass('progress-bar-animated')
+			                          .addClass('bg-danger')
+			                          .css('width', '100%')
+			                          .text('Error');
+			          
+			          stopWatching();
+			          
+			          setTimeout(function() {
+			              location.reload();
+			          }, 3000);
+			      } else {
+			          // Unknown status - stop watching
+			          console.log('Unknown status:', data.status);
+			          stopWatching();
+			          location.reload();
+			      }
+			  }
+			  
+			  // The server pushes status changes - no polling
+			  function watchDocumentStatus(documentId) {
+			      statusSource = new EventSource('/api/documents/' + documentId + '/status/stream');
+			      statusSource.addEventListener('status', function(e) {
+			          showDocumentStatus(documentId, JSON.parse(e.data));
 			      });
+			      // EventSource reconnects on its own after a dropped connection
+			      statusSource.onerror = function() {
+			          console.log('Status stream interrupted, reconnecting...');
+			      };
+			  }
+			  
+			  function stopWatching() {
+			      statusSource.close();
+			      clearInterval(progressTimer);
 			  }
 	          
 	          $(document).ready(function() {
@@ -253,13 +278,16 @@
 	                  var modal = new bootstrap.Modal(document.getElementById('statusModal'));
 	                  modal.show();
 	                  
-	                  // Start checking status
 	                  progressValue = 10;
 	                  $('#progressBar').css('width', '10%').text('10%');
 	                  
-	                  checkInterval = setInterval(function() {
-	                      checkDocumentStatus(analyzingDocId);
-	                  }, 2000); // Check every 2 seconds
+	                  // Fake progress (just for UX)
+	                  progressTimer = setInterval(function() {
+	                      progressValue = Math.min(progressValue + 5, 90);
+	                      $('#progressBar').css('width', progressValue + '%').text(progressValue + '%');
+	                  }, 2000);
+	                  
+	                  watchDocumentStatus(analyzingDocId);
 	              }
 	              
 	              // Auto-refresh if any document is analyzing (fallback)
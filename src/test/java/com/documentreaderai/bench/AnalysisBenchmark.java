@@ -0,0 +1,200 @@
+package com.documentreaderai.bench;
+
+import com.documentreaderai.config.TaskExecutors;
+import com.documentreaderai.repository.LlmResponseCacheRepository;
+import com.documentreaderai.service.DocumentAnalysisService;
+import com.documentreaderai.service.DocumentPageService;
+import com.documentreaderai.service.LlmResponseCache;
+import com.documentreaderai.service.MultiModelOllamaService;
+import com.documentreaderai.service.OllamaScheduler;
+import com.documentreaderai.service.ProductionPdfService;
+import com.documentreaderai.service.ProductionPdfService.OcrMode;
+import com.documentreaderai.service.RetrievalService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Fund agreement analysis against a stub Ollama: model calls, prompt tokens
+ * and local overhead per analysis
+ *
+ *   bench/run-benchmark.sh AnalysisBenchmark [--runs N] [--port P] [file.pdf ...]
+ *
+ * Extracts every distinct PDF in uploads/ (or the files given) with OCR off,
+ * then runs analyzeFundAgreement (structured pass + question) against an HTTP
+ * stub of /api/generate that answers instantly with a fixed ~200-token reply.
+ * Reported per analysis:
+ *   - calls and prompt tokens per model, as Ollama would process them (capped at num_ctx)
+ *   - local ms: wall time with the stub, i.e. everything but generation
+ *     (first analysis of a document = cold pre-scan, then the median of N warm runs)
+ *   - model s: SIMULATED generation time from the assumed CPU rates below -
+ *     an estimate for comparing call patterns, not a measurement
+ *
+ * The response cache is disabled so every run makes its calls, and there is no
+ * retrieval index (documents without one take the local pre-scan). Runs with
+ * map-reduce on and off.
+ */
+public class AnalysisBenchmark {
+
+    private static final String QUESTION = "Summarize the capital commitment, fees and lock-in terms";
+    private static final String ANSWER = "Contributor: Not found in document. ".repeat(22);  // ~800 chars
+
+    // ASSUMED rates (tokens/s) of a CPU-only laptop - prompt processing, generation
+    private static final Map<String, double[]> RATES = Map.of(
+            "llama3.2:1b", new double[] {400, 40},
+            "qwen2.5:7b", new double[] {60, 8});
+
+    public static void main(String[] args) throws Exception {
+        Benchmarks.quietLogging();
+
+        int runs = 5;
+        int port = 11434;
+        List<String> files = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--runs" -> runs = Integer.parseInt(args[++i]);
+                case "--port" -> port = Integer.parseInt(args[++i]);
+                default -> files.add(args[i]);
+            }
+        }
+
+        StubOllama ollama = new StubOllama(port);
+        ProductionPdfService pdfService = new ProductionPdfService(null, OcrMode.OFF, false, Benchmarks.taskExecutors(0));
+
+        System.out.printf("Stub Ollama on port %d, warm runs: %d%n", port, runs);
+        System.out.println("model s = SIMULATED at assumed rates " + describeRates() + "\n");
+        System.out.printf("%-50s %8s %-11s %6s %-26s %8s %8s %9s%n",
+                "file", "chars", "map-reduce", "calls", "prompt tokens by model", "cold ms", "warm ms", "model s");
+
+        for (Path pdf : Benchmarks.pdfs(files)) {
+            String text = pdfService.extractWithIntelligence(pdf.toString()).getText();
+            for (boolean mapReduce : new boolean[] {true, false}) {
+                DocumentAnalysisService analysis = new DocumentAnalysisService(service(port, mapReduce));
+
+                ollama.reset();
+                long start = System.nanoTime();
+                analysis.analyzeFundAgreement(text, QUESTION);
+                long coldMs = (System.nanoTime() - start) / 1_000_000;
+                Map<String, long[]> perModel = ollama.snapshot();
+
+                long[] samples = new long[runs];
+                for (int run = 0; run < runs; run++) {
+                    start = System.nanoTime();
+                    analysis.analyzeFundAgreement(text, QUESTION);
+                    samples[run] = (System.nanoTime() - start) / 1_000_000;
+                }
+
+                System.out.printf("%-50.50s %8d %-11s %6d %-26s %8d %8d %9.0f%n",
+                        Benchmarks.displayName(pdf), text.length(), mapReduce ? "on" : "off",
+                        perModel.values().stream().mapToLong(c -> c[0]).sum(), describeTokens(perModel),
+                        coldMs, Benchmarks.median(samples), simulatedSeconds(perModel));
+            }
+        }
+
+        ollama.stop();
+        System.exit(0);
+    }
+
+    private static MultiModelOllamaService service(int port, boolean mapReduce) {
+        TaskExecutors taskExecutors = Benchmarks.taskExecutors(0);
+        LlmResponseCache cache = new LlmResponseCache(mock(LlmResponseCacheRepository.class),
+                mock(PlatformTransactionManager.class), taskExecutors, false, 0.2, 0, 168, 60);
+        OllamaScheduler scheduler = new OllamaScheduler(2, "", 64, 600, 600);
+        return new MultiModelOllamaService(cache, mock(RetrievalService.class), mock(DocumentPageService.class),
+                scheduler, taskExecutors, "http://localhost:" + port, 4000, mapReduce, 2, 24000, 1000);
+    }
+
+    private static String describeTokens(Map<String, long[]> perModel) {
+        StringBuilder description = new StringBuilder();
+        perModel.forEach((model, counts) -> description.append(description.length() > 0 ? " " : "")
+                .append(model.substring(model.indexOf(':') + 1)).append('=').append(counts[1]));
+        return description.toString();
+    }
+
+    private static double simulatedSeconds(Map<String, long[]> perModel) {
+        double seconds = 0;
+        for (Map.Entry<String, long[]> entry : perModel.entrySet()) {
+            double[] rates = RATES.get(entry.getKey());
+            seconds += entry.getValue()[1] / rates[0] + entry.getValue()[2] / rates[1];
+        }
+        return seconds;
+    }
+
+    private static String describeRates() {
+        StringBuilder description = new StringBuilder();
+        RATES.forEach((model, rates) -> description.append(String.format("%s %.0f/%.0f tok/s, ", model, rates[0], rates[1])));
+        return description.substring(0, description.length() - 2) + " (prompt/generation)";
+    }
+
+    /**
+     * /api/generate answering with one NDJSON chunk; counts calls, prompt and
+     * output tokens per model
+     */
+    private static class StubOllama {
+
+        private final HttpServer server;
+        private final ObjectMapper mapper = new ObjectMapper();
+        private final Map<String, LongAdder[]> counts = new ConcurrentHashMap<>();
+
+        StubOllama(int port) throws IOException {
+            server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+            server.createContext("/api/generate", this::generate);
+            server.start();
+        }
+
+        @SuppressWarnings("unchecked")
+        private void generate(HttpExchange exchange) throws IOException {
+            Map<String, Object> request = mapper.readValue(exchange.getRequestBody(), Map.class);
+            Map<String, Object> options = (Map<String, Object>) request.get("options");
+            int numCtx = ((Number) options.get("num_ctx")).intValue();
+            int numPredict = ((Number) options.get("num_predict")).intValue();
+
+            // Ollama truncates the prompt to the context window
+            int promptTokens = Math.min(RetrievalService.estimateTokens((String) request.get("prompt")), numCtx);
+            int outputTokens = Math.min(RetrievalService.estimateTokens(ANSWER), numPredict);
+            LongAdder[] model = counts.computeIfAbsent((String) request.get("model"),
+                    m -> new LongAdder[] {new LongAdder(), new LongAdder(), new LongAdder()});
+            model[0].increment();
+            model[1].add(promptTokens);
+            model[2].add(outputTokens);
+
+            byte[] body = (mapper.writeValueAsString(Map.of("response", ANSWER, "done", false)) + "\n"
+                    + mapper.writeValueAsString(Map.of("response", "", "done", true)) + "\n")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/x-ndjson");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+
+        void reset() {
+            counts.clear();
+        }
+
+        Map<String, long[]> snapshot() {
+            Map<String, long[]> snapshot = new TreeMap<>();
+            counts.forEach((model, c) -> snapshot.put(model, new long[] {c[0].sum(), c[1].sum(), c[2].sum()}));
+            return snapshot;
+        }
+
+        void stop() {
+            server.stop(0);
+        }
+    }
+}
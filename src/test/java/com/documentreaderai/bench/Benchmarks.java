@@ -0,0 +1,86 @@
+package com.documentreaderai.bench;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.documentreaderai.config.AsyncConfig;
+import com.documentreaderai.config.TaskExecutors;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Shared setup for the benchmarks in this package
+ */
+final class Benchmarks {
+
+    private Benchmarks() {
+    }
+
+    /**
+     * Keep the services' INFO logging out of the measurements
+     */
+    static void quietLogging() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        ((Logger) LoggerFactory.getLogger("org.apache.pdfbox")).setLevel(Level.ERROR);  // Font fallbacks
+    }
+
+    /**
+     * The application's pools with the default settings, except the page pool
+     */
+    static TaskExecutors taskExecutors(int pageThreads) {
+        return new AsyncConfig(null, false).taskExecutors(8, 500, 2, 8, 0, 16, pageThreads, 0, 30);
+    }
+
+    /**
+     * The files given, or every distinct PDF in uploads/ (re-uploads share content)
+     */
+    static List<Path> pdfs(List<String> files) throws IOException {
+        if (!files.isEmpty()) {
+            return files.stream().map(Paths::get).toList();
+        }
+        Set<String> seen = new HashSet<>();
+        List<Path> distinct = new ArrayList<>();
+        try (Stream<Path> uploads = Files.list(Paths.get("uploads"))) {
+            for (Path pdf : uploads.filter(p -> p.toString().endsWith(".pdf")).sorted().toList()) {
+                if (seen.add(sha256(Files.readAllBytes(pdf)))) {
+                    distinct.add(pdf);
+                }
+            }
+        }
+        return distinct;
+    }
+
+    static long median(long[] samples) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    /**
+     * Filename without the upload UUID prefix
+     */
+    static String displayName(Path pdf) {
+        String name = pdf.getFileName().toString();
+        return name.length() > 37 && name.charAt(36) == '_' ? name.substring(37) : name;
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.documentreaderai.bench;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HTTP load on the analysis endpoints of a running application
+ *
+ *   bench/run-benchmark.sh LoadBenchmark --url http://localhost:18080 [--clients 32]
+ *       [--watchers 32] [--seconds 60] documentId [documentId ...]
+ *
+ * Meant to run against a stub Ollama (StubOllamaServer) - bench/load-benchmark.sh
+ * sets both up. For --seconds, each client streams analyses back to back
+ * (POST /analyze/stream, a new question each time so the cache never answers),
+ * and each watcher re-opens GET /status/stream as soon as it ends. Documents
+ * are spread over the clients. Reports completed analyses per second and their
+ * latency; 429s (model queue full) are counted, not retried early.
+ */
+public class LoadBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String url = "http://localhost:18080";
+        int clients = 32;
+        int watchers = 32;
+        int seconds = 60;
+        List<String> documents = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--url" -> url = args[++i];
+                case "--clients" -> clients = Integer.parseInt(args[++i]);
+                case "--watchers" -> watchers = Integer.parseInt(args[++i]);
+                case "--seconds" -> seconds = Integer.parseInt(args[++i]);
+                default -> documents.add(args[i]);
+            }
+        }
+        if (documents.isEmpty()) {
+            throw new IllegalArgumentException("At least one document id is required");
+        }
+
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        LongAdder rejected = new LongAdder();
+        LongAdder errors = new LongAdder();
+        Set<String> errorKinds = ConcurrentHashMap.newKeySet();
+        LongAdder statusStreams = new LongAdder();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            String base = url + "/api/documents/" + documents.get(c % documents.size());
+            int client = c;
+            threads.add(new Thread(() -> {
+                for (int n = 0; System.nanoTime() < deadline; n++) {
+                    String body = "{\"prompt\":\"What is the capital commitment? (client " + client + ", run " + n + ")\"}";
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(base + "/analyze/stream"))
+                            .header("Content-Type", "application/json")
+                            .timeout(Duration.ofSeconds(120))
+                            .POST(HttpRequest.BodyPublishers.ofString(body))
+                            .build();
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<InputStream> response = http.send(request, HttpResponse.BodyHandlers.ofInputStream());
+                        if (response.statusCode() == 429) {
+                            response.body().close();
+                            rejected.increment();
+                            Thread.sleep(200);
+                        } else {
+                            String last = readEvents(response.body());
+                            if (response.statusCode() == 200 && last.equals("done")) {
+                                latencies.add(System.nanoTime() - start);
+                            } else {
+                                errors.increment();
+                                errorKinds.add("analyze: HTTP " + response.statusCode() + ", last event '" + last + "'");
+                            }
+                        }
+                    } catch (Exception e) {
+                        errors.increment();
+                        errorKinds.add("analyze: " + e);
+                    }
+                }
+            }));
+        }
+        for (int w = 0; w < watchers; w++) {
+            String base = url + "/api/documents/" + documents.get(w % documents.size());
+            threads.add(new Thread(() -> {
+                while (System.nanoTime() < deadline) {
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(base + "/status/stream"))
+                            .timeout(Duration.ofSeconds(120))
+                            .GET()
+                            .build();
+                    try {
+                        HttpResponse<InputStream> response = http.send(request, HttpResponse.BodyHandlers.ofInputStream());
+                        readEvents(response.body());
+                        statusStreams.increment();
+                    } catch (Exception e) {
+                        errors.increment();
+                        errorKinds.add("status: " + e);
+                    }
+                }
+            }));
+        }
+
+        long start = System.nanoTime();
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        System.out.printf("clients=%d watchers=%d seconds=%.0f%n", clients, watchers, elapsed);
+        System.out.printf("analyses %d (%.1f/s), p50 %.0f ms, p95 %.0f ms, rejected %d, errors %d%n",
+                sorted.length, sorted.length / elapsed, percentile(sorted, 0.50), percentile(sorted, 0.95),
+                rejected.sum(), errors.sum());
+        System.out.printf("status streams %d (%.1f/s)%n", statusStreams.sum(), statusStreams.sum() / elapsed);
+        errorKinds.forEach(kind -> System.out.println("  error: " + kind));
+    }
+
+    /**
+     * Read an SSE response to its end; the name of the last event
+     */
+    private static String readEvents(InputStream body) throws Exception {
+        String last = "";
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            for (String line; (line = reader.readLine()) != null; ) {
+                if (line.startsWith("event:")) {
+                    last = line.substring("event:".length()).trim();
+                }
+            }
+        }
+        return last;
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted.length == 0 ? 0 : sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))] / 1e6;
+    }
+}
@@ -0,0 +1,94 @@
+package com.documentreaderai.bench;
+
+import com.documentreaderai.config.TaskExecutors;
+import com.documentreaderai.service.ProductionPdfService;
+import com.documentreaderai.service.ProductionPdfService.ExtractionResult;
+import com.documentreaderai.service.ProductionPdfService.OcrMode;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Native text extraction: sequential vs page-parallel, by thread count
+ *
+ *   bench/run-benchmark.sh PdfExtractionBenchmark [--runs N] [--threads 2,4,8] [file.pdf ...]
+ *
+ * Runs extractWithIntelligence with OCR off on every distinct PDF in uploads/
+ * (or the files given): 3 warm-up runs per mode, then N timed runs (default 5)
+ * interleaved across modes, median reported. Threads default to 2, 4 and the core count. Exits non-zero if a
+ * parallel run's text differs from the sequential one.
+ */
+public class PdfExtractionBenchmark {
+
+    private static final int WARMUP_RUNS = 3;
+
+    public static void main(String[] args) throws Exception {
+        Benchmarks.quietLogging();
+
+        int runs = 5;
+        TreeSet<Integer> threadCounts = new TreeSet<>(List.of(2, 4, Runtime.getRuntime().availableProcessors()));
+        threadCounts.remove(1);
+        List<String> files = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--runs" -> runs = Integer.parseInt(args[++i]);
+                case "--threads" -> {
+                    threadCounts.clear();
+                    for (String count : args[++i].split(",")) threadCounts.add(Integer.parseInt(count.trim()));
+                }
+                default -> files.add(args[i]);
+            }
+        }
+
+        System.out.printf("Cores: %d, timed runs: %d%n%n", Runtime.getRuntime().availableProcessors(), runs);
+        System.out.printf("%-60s %6s %-11s %12s %8s%n", "file", "pages", "mode", "median ms", "speedup");
+
+        boolean identical = true;
+        for (Path pdf : Benchmarks.pdfs(files)) {
+            String name = Benchmarks.displayName(pdf);
+            List<String> modes = new ArrayList<>(List.of("sequential"));
+            List<ProductionPdfService> services = new ArrayList<>(List.of(service(false, 1)));
+            for (int threads : threadCounts) {
+                modes.add(threads + " threads");
+                services.add(service(true, threads));
+            }
+
+            ExtractionResult reference = services.get(0).extractWithIntelligence(pdf.toString());
+            int pages = reference.getPages().size();
+            boolean[] same = new boolean[services.size()];
+            for (int m = 0; m < services.size(); m++) {
+                same[m] = services.get(m).extractWithIntelligence(pdf.toString()).getText().equals(reference.getText());
+                identical &= same[m];
+            }
+
+            // Warm up every mode, then interleave the timed runs so drift hits all modes alike
+            long[][] samples = new long[services.size()][runs];
+            for (int run = -WARMUP_RUNS; run < runs; run++) {
+                for (int m = 0; m < services.size(); m++) {
+                    long start = System.nanoTime();
+                    services.get(m).extractWithIntelligence(pdf.toString());
+                    if (run >= 0) {
+                        samples[m][run] = (System.nanoTime() - start) / 1_000_000;
+                    }
+                }
+            }
+
+            long sequentialMs = Benchmarks.median(samples[0]);
+            for (int m = 0; m < services.size(); m++) {
+                long ms = Benchmarks.median(samples[m]);
+                System.out.printf("%-60.60s %6d %-11s %12d %7.2fx%s%n", name, pages, modes.get(m),
+                        ms, (double) sequentialMs / ms, same[m] ? "" : "  OUTPUT DIFFERS");
+            }
+        }
+
+        System.out.println(identical ? "\nParallel output identical to sequential" : "\nParallel output DIFFERS");
+        System.exit(identical ? 0 : 1);
+    }
+
+    private static ProductionPdfService service(boolean parallel, int threads) {
+        TaskExecutors executors = Benchmarks.taskExecutors(threads);
+        return new ProductionPdfService(null, OcrMode.OFF, parallel, executors);
+    }
+}
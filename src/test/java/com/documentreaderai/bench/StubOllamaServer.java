@@ -0,0 +1,84 @@
+package com.documentreaderai.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stand-in for Ollama's /api/generate for load tests: streams a fixed answer
+ * of N tokens, one every M ms, so requests spend their time waiting like they
+ * do on a real model - without needing one
+ *
+ *   bench/run-benchmark.sh StubOllamaServer [--port 11435] [--tokens 40] [--token-ms 25]
+ *
+ * Runs until killed; prints the number of generations served every 10 s.
+ */
+public class StubOllamaServer {
+
+    public static void main(String[] args) throws Exception {
+        int port = 11435;
+        int tokens = 40;
+        long tokenMs = 25;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port" -> port = Integer.parseInt(args[++i]);
+                case "--tokens" -> tokens = Integer.parseInt(args[++i]);
+                case "--token-ms" -> tokenMs = Long.parseLong(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+
+        ObjectMapper mapper = new ObjectMapper();
+        LongAdder served = new LongAdder();
+        int answerTokens = tokens;
+        long delayMs = tokenMs;
+
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.setExecutor(Executors.newCachedThreadPool());  // One thread per stream, like a real server's
+        server.createContext("/api/generate", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().set("Content-Type", "application/x-ndjson");
+            exchange.sendResponseHeaders(200, 0);  // Chunked
+            try (OutputStream out = exchange.getResponseBody()) {
+                for (int i = 0; i < answerTokens; i++) {
+                    Thread.sleep(delayMs);
+                    write(out, mapper, Map.of("response", i == 0 ? "Capital" : " commitment", "done", false));
+                }
+                write(out, mapper, Map.of("response", "", "done", true));
+                served.increment();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        server.createContext("/api/tags", StubOllamaServer::tags);
+        server.start();
+
+        System.out.printf("Stub Ollama on port %d: %d tokens, one every %d ms%n", port, tokens, tokenMs);
+        while (true) {
+            Thread.sleep(10_000);
+            System.out.printf("%d generations served%n", served.sum());
+        }
+    }
+
+    private static void write(OutputStream out, ObjectMapper mapper, Map<String, Object> chunk) throws IOException {
+        out.write((mapper.writeValueAsString(chunk) + "\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private static void tags(HttpExchange exchange) throws IOException {
+        byte[] body = "{\"models\":[]}".getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.documentreaderai.bench;
+
+import com.documentreaderai.model.ZstdText;
+import com.documentreaderai.repository.EmbeddedPostgresTest;
+import com.documentreaderai.service.ProductionPdfService;
+import com.documentreaderai.service.ProductionPdfService.OcrMode;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Extracted text stored plain (TEXT, Postgres' own TOAST compression) vs as a
+ * Zstd frame (bytea): table size, write throughput and read latency
+ *
+ *   bench/run-benchmark.sh TextStorageBenchmark [--rows N] [--reads N] [--level L] [file.pdf ...]
+ *
+ * Extracts the text of every distinct PDF in uploads/ (or the files given, OCR
+ * off), then writes N rows per form (default 2000) cycling through those texts
+ * into an embedded Postgres, in batches of 100. Writes include compressing,
+ * reads include decoding. Reads are by random id (default 2000 per form).
+ */
+public class TextStorageBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        Benchmarks.quietLogging();
+
+        int rows = 2000;
+        int reads = 2000;
+        int level = 3;
+        List<String> files = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--rows" -> rows = Integer.parseInt(args[++i]);
+                case "--reads" -> reads = Integer.parseInt(args[++i]);
+                case "--level" -> level = Integer.parseInt(args[++i]);
+                default -> files.add(args[i]);
+            }
+        }
+
+        ProductionPdfService pdfService = new ProductionPdfService(null, OcrMode.OFF, false, Benchmarks.taskExecutors(1));
+        List<String> texts = new ArrayList<>();
+        long textBytes = 0;
+        for (Path pdf : Benchmarks.pdfs(files)) {
+            String text = pdfService.extractWithIntelligence(pdf.toString()).getText();
+            if (text != null && !text.isBlank()) {
+                texts.add(text);
+                textBytes += text.getBytes(StandardCharsets.UTF_8).length;
+            }
+        }
+        System.out.printf("Corpus: %d distinct texts, %.1f KB average; %d rows per form, Zstd level %d%n%n",
+                texts.size(), textBytes / 1024.0 / texts.size(), rows, level);
+        System.out.printf("%-6s %12s %12s %10s %10s %10s %10s%n",
+                "form", "table MB", "avg column", "rows/s", "MB/s", "read p50", "read p95");
+
+        EmbeddedPostgres postgres = EmbeddedPostgresTest.server();
+        try (Connection connection = postgres.getPostgresDatabase().getConnection()) {
+            for (boolean compressed : new boolean[] {false, true}) {
+                run(connection, texts, rows, reads, level, compressed);
+            }
+        }
+        System.exit(0);
+    }
+
+    private static void run(Connection connection, List<String> texts, int rows, int reads, int level,
+                            boolean compressed) throws Exception {
+        String table = compressed ? "bench_text_zst" : "bench_text_plain";
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + table);
+            statement.execute("CREATE TABLE " + table + " (id int PRIMARY KEY, body "
+                    + (compressed ? "bytea" : "TEXT") + ")");
+        }
+
+        long writtenBytes = 0;
+        long start = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + table + " VALUES (?, ?)")) {
+            for (int id = 0; id < rows; id++) {
+                String text = texts.get(id % texts.size());
+                writtenBytes += text.getBytes(StandardCharsets.UTF_8).length;
+                insert.setInt(1, id);
+                if (compressed) {
+                    insert.setBytes(2, ZstdText.compress(text, level));
+                } else {
+                    insert.setString(2, text);
+                }
+                insert.addBatch();
+                if (id % 100 == 99) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        double writeSeconds = (System.nanoTime() - start) / 1e9;
+
+        long tableBytes;
+        double averageColumn;
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("VACUUM ANALYZE " + table);
+            try (ResultSet size = statement.executeQuery("SELECT pg_total_relation_size('" + table
+                    + "'), avg(pg_column_size(body)) FROM " + table)) {
+                size.next();
+                tableBytes = size.getLong(1);
+                averageColumn = size.getDouble(2);
+            }
+        }
+
+        Random random = new Random(42);
+        long[] samples = new long[reads];
+        try (PreparedStatement select = connection.prepareStatement("SELECT body FROM " + table + " WHERE id = ?")) {
+            for (int i = -reads / 10; i < reads; i++) {  // First tenth warms up
+                select.setInt(1, random.nextInt(rows));
+                long readStart = System.nanoTime();
+                try (ResultSet row = select.executeQuery()) {
+                    row.next();
+                    String text = compressed ? ZstdText.decompress(row.getBytes(1)) : row.getString(1);
+                    if (text.isEmpty()) {
+                        throw new IllegalStateException("Empty text read back");
+                    }
+                }
+                if (i >= 0) {
+                    samples[i] = System.nanoTime() - readStart;
+                }
+            }
+        }
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+
+        System.out.printf("%-6s %12.1f %10.0f B %10.0f %10.1f %8.3fms %8.3fms%n",
+                compressed ? "zstd" : "plain", tableBytes / 1048576.0, averageColumn,
+                rows / writeSeconds, writtenBytes / 1048576.0 / writeSeconds,
+                Benchmarks.median(samples) / 1e6, sorted[(int) (sorted.length * 0.95)] / 1e6);
+    }
+}
@@ -0,0 +1,73 @@
+package com.documentreaderai.config;
+
+import com.documentreaderai.config.TaskExecutors.Workload;
+import com.documentreaderai.service.TesseractPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.awt.image.BufferedImage;
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class TaskExecutorsTest {
+
+    private final TaskExecutors taskExecutors = new AsyncConfig(null, false).taskExecutors(1, 1, 1, 1, 1, 1, 1, 1, 5);
+
+    @AfterEach
+    void tearDown() {
+        taskExecutors.destroy();
+    }
+
+    @Test
+    void schedulerOverflowFailsInsteadOfRunningOnTheCaller() throws Exception {
+        Scheduler scheduler = taskExecutors.scheduler(Workload.ANALYSIS);
+        Object lock = new Object();
+        synchronized (lock) {
+            // One task running, one queued - the pool is full
+            taskExecutors.get(Workload.ANALYSIS).execute(() -> { synchronized (lock) { } });
+            taskExecutors.get(Workload.ANALYSIS).execute(() -> { });
+
+            assertThatThrownBy(() -> Mono.fromCallable(() -> Thread.currentThread().getName())
+                    .subscribeOn(scheduler)
+                    .block(Duration.ofSeconds(5)))
+                    .isInstanceOf(RejectedExecutionException.class);
+        }
+    }
+
+    @Test
+    void callerRunsPoolsAreNotSchedulers() {
+        assertThatThrownBy(() -> taskExecutors.scheduler(Workload.OCR)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void schedulersAreDisposedOnShutdown() {
+        Scheduler scheduler = taskExecutors.scheduler(Workload.ANALYSIS);
+
+        taskExecutors.destroy();
+
+        assertThat(scheduler.isDisposed()).isTrue();
+        assertThatThrownBy(() -> Mono.just("late").publishOn(scheduler).block(Duration.ofSeconds(5)))
+                .isInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    void ocrPagesSubmittedAfterShutdownFailAndGiveBackTheirSlot() {
+        TesseractPool tesseractPool = new TesseractPool(taskExecutors);
+        BufferedImage page = new BufferedImage(1, 1, BufferedImage.TYPE_BYTE_GRAY);
+
+        taskExecutors.destroy();
+
+        // More submits than in-flight slots: a leaked slot would block the last one forever
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            for (int i = 0; i < tesseractPool.getSize() * 2 + 1; i++) {
+                assertThatThrownBy(() -> tesseractPool.submit(page)).isInstanceOf(RejectedExecutionException.class);
+            }
+        });
+    }
+}
@@ -0,0 +1,150 @@
+package com.documentreaderai.repository;
+
+import com.documentreaderai.model.entity.BatchJob;
+import com.documentreaderai.model.entity.BatchJob.BatchStatus;
+import com.documentreaderai.model.entity.BatchWorkItem;
+import com.documentreaderai.model.entity.BatchWorkItem.WorkState;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * claim against a real Postgres - the lease query is native SQL (FOR UPDATE
+ * SKIP LOCKED) that no in-memory database runs
+ */
+class BatchWorkItemRepositoryTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private BatchWorkItemRepository workItemRepository;
+
+    @Autowired
+    private BatchJobRepository batchJobRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @Test
+    void leasesPendingItemsOfRunningBatchesOnly() {
+        UUID running = batch(BatchStatus.RUNNING);
+        UUID paused = batch(BatchStatus.PAUSED);
+        UUID pending = item(running, WorkState.PENDING, null, null);
+        item(running, WorkState.DONE, null, null);
+        item(paused, WorkState.PENDING, null, null);
+
+        List<BatchWorkItem> claimed = workItemRepository.claim("node-a", 10, now, now.plusMinutes(2));
+
+        assertThat(claimed).extracting(BatchWorkItem::getId).containsExactly(pending);
+        BatchWorkItem leased = workItemRepository.findById(pending).orElseThrow();
+        assertThat(leased.getState()).isEqualTo(WorkState.LEASED);
+        assertThat(leased.getLeaseOwner()).isEqualTo("node-a");
+        assertThat(leased.getAttempts()).isEqualTo(1);
+        assertThat(workItemRepository.claim("node-b", 10, now, now.plusMinutes(2))).isEmpty();
+    }
+
+    @Test
+    void reclaimsItemsWhoseLeaseRanOut() {
+        UUID batch = batch(BatchStatus.RUNNING);
+        UUID expired = item(batch, WorkState.LEASED, "node-a", now.minusSeconds(1));
+        item(batch, WorkState.LEASED, "node-a", now.plusMinutes(1));
+
+        List<BatchWorkItem> claimed = workItemRepository.claim("node-b", 10, now, now.plusMinutes(2));
+
+        assertThat(claimed).singleElement().satisfies(item -> {
+            assertThat(item.getId()).isEqualTo(expired);
+            assertThat(item.getLeaseOwner()).isEqualTo("node-b");
+            assertThat(item.getAttempts()).isEqualTo(2);
+        });
+    }
+
+    @Test
+    void skipsRowsAnotherNodeIsClaiming() throws Exception {
+        UUID batch = batch(BatchStatus.RUNNING);
+        for (int i = 0; i < 3; i++) {
+            item(batch, WorkState.PENDING, null, null);
+        }
+
+        ExecutorService otherNode = Executors.newSingleThreadExecutor();
+        try {
+            // Node A holds the lock on the oldest item while node B claims
+            List<BatchWorkItem> claimedByB = new TransactionTemplate(transactionManager).execute(status -> {
+                List<UUID> lockedByA = workItemRepository.lockClaimable(1, now);
+                assertThat(lockedByA).hasSize(1);
+                try {
+                    List<BatchWorkItem> claimed = otherNode.submit(
+                            () -> workItemRepository.claim("node-b", 10, now, now.plusMinutes(2))).get();
+                    assertThat(claimed).extracting(BatchWorkItem::getId).doesNotContain(lockedByA.get(0));
+                    return claimed;
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+
+            assertThat(claimedByB).hasSize(2);
+        } finally {
+            otherNode.shutdownNow();
+        }
+    }
+
+    @Test
+    void concurrentClaimsNeverLeaseAnItemTwice() throws Exception {
+        UUID batch = batch(BatchStatus.RUNNING);
+        for (int i = 0; i < 40; i++) {
+            item(batch, WorkState.PENDING, null, null);
+        }
+
+        ExecutorService nodes = Executors.newFixedThreadPool(4);
+        try {
+            List<Callable<List<UUID>>> claimers = new ArrayList<>();
+            for (int node = 0; node < 4; node++) {
+                String owner = "node-" + node;
+                claimers.add(() -> {
+                    List<UUID> mine = new ArrayList<>();
+                    List<BatchWorkItem> claimed;
+                    while (!(claimed = workItemRepository.claim(owner, 3, now, now.plusMinutes(2))).isEmpty()) {
+                        claimed.forEach(item -> mine.add(item.getId()));
+                    }
+                    return mine;
+                });
+            }
+
+            List<UUID> all = new ArrayList<>();
+            for (Future<List<UUID>> claimed : nodes.invokeAll(claimers)) {
+                all.addAll(claimed.get());
+            }
+
+            assertThat(all).hasSize(40).doesNotHaveDuplicates();
+            assertThat(workItemRepository.findAll()).allSatisfy(item -> assertThat(item.getAttempts()).isEqualTo(1));
+        } finally {
+            nodes.shutdownNow();
+        }
+    }
+
+    private UUID batch(BatchStatus status) {
+        return batchJobRepository.save(BatchJob.builder().jobName("batch").status(status).build()).getId();
+    }
+
+    private UUID item(UUID batchJobId, WorkState state, String owner, LocalDateTime leaseExpiresAt) {
+        return workItemRepository.save(BatchWorkItem.builder()
+                .batchJobId(batchJobId)
+                .documentId(UUID.randomUUID())
+                .state(state)
+                .attempts(owner == null ? 0 : 1)
+                .leaseOwner(owner)
+                .leaseExpiresAt(leaseExpiresAt)
+                .build()).getId();
+    }
+}
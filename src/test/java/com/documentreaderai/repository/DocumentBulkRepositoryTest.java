@@ -0,0 +1,111 @@
+package com.documentreaderai.repository;
+
+import com.documentreaderai.model.entity.BatchJob;
+import com.documentreaderai.model.entity.BatchJob.BatchStatus;
+import com.documentreaderai.model.entity.Document;
+import com.documentreaderai.model.entity.Document.DocumentStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * insertAll on both paths - batched INSERTs below batch.create.copy-threshold
+ * (200), COPY with a hand-built CSV from it up - with values CSV has to quote
+ */
+class DocumentBulkRepositoryTest extends EmbeddedPostgresTest {
+
+    private static final String[] AWKWARD_NAMES = {
+        "plain.pdf",
+        "Fund \"Alpha\" agreement.pdf",
+        "Smith, Jones & Co.pdf",
+        "two\nlines.pdf",
+        "\"\",\n\"\".pdf",
+        ""
+    };
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private BatchJobRepository batchJobRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void batchedInsertsStoreEveryValue() {
+        List<Document> documents = insert(AWKWARD_NAMES.length);
+
+        assertStored(documents);
+    }
+
+    @Test
+    void copyStoresEveryValue() {
+        List<Document> documents = insert(250);
+
+        assertStored(documents);
+        // Written by COPY, not Hibernate: the timestamps come from the CSV
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM documents WHERE created_at IS NULL OR updated_at IS NULL", Long.class)).isZero();
+    }
+
+    @Test
+    void copyRollsBackWithTheTransaction() {
+        BatchJob batch = batchJobRepository.save(BatchJob.builder().jobName("batch").status(BatchStatus.PENDING).build());
+        List<Document> documents = documents(batch, 250);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            documentRepository.insertAll(documents);
+            status.setRollbackOnly();
+        });
+
+        assertThat(documentRepository.count()).isZero();
+    }
+
+    private List<Document> insert(int count) {
+        BatchJob batch = batchJobRepository.save(BatchJob.builder().jobName("batch").status(BatchStatus.PENDING).build());
+        List<Document> documents = documents(batch, count);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> documentRepository.insertAll(documents));
+        return documents;
+    }
+
+    private static List<Document> documents(BatchJob batch, int count) {
+        List<Document> documents = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = AWKWARD_NAMES[i % AWKWARD_NAMES.length];
+            documents.add(Document.builder()
+                    .filename(name)
+                    .filePath("uploads/" + i + "/" + name)
+                    .fileSize(i % 2 == 0 ? null : 1024L * i)       // Null every other row
+                    .contentHash(i % 3 == 0 ? null : "%064x".formatted(i))
+                    .status(DocumentStatus.UPLOADED)
+                    .batchJob(batch)
+                    .build());
+        }
+        return documents;
+    }
+
+    private void assertStored(List<Document> documents) {
+        assertThat(documentRepository.count()).isEqualTo(documents.size());
+        for (Document document : documents) {
+            UUID id = document.getId();
+            assertThat(id).isNotNull();
+            Map<String, Object> row = jdbcTemplate.queryForMap(
+                    "SELECT filename, file_path, file_size, content_hash, status, batch_job_id FROM documents WHERE id = ?", id);
+            assertThat(row.get("filename")).isEqualTo(document.getFilename());
+            assertThat(row.get("file_path")).isEqualTo(document.getFilePath());
+            assertThat(row.get("file_size")).isEqualTo(document.getFileSize());
+            assertThat(row.get("content_hash")).isEqualTo(document.getContentHash());
+            assertThat(row.get("status")).isEqualTo("UPLOADED");
+            assertThat(row.get("batch_job_id")).isEqualTo(document.getBatchJob().getId());
+        }
+    }
+}
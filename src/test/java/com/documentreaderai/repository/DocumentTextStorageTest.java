@@ -0,0 +1,165 @@
+package com.documentreaderai.repository;
+
+import com.documentreaderai.model.dto.BatchDocumentExport;
+import com.documentreaderai.model.dto.DocumentStatusView;
+import com.documentreaderai.model.entity.BatchJob;
+import com.documentreaderai.model.entity.BatchJob.BatchStatus;
+import com.documentreaderai.model.entity.Document;
+import com.documentreaderai.model.entity.Document.DocumentStatus;
+import com.documentreaderai.service.TextCompressionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Text columns with storage.compression.enabled=true, round-tripped through
+ * Postgres: which column each write lands in and that every form reads back
+ */
+@TestPropertySource(properties = "storage.compression.enabled=true")
+class DocumentTextStorageTest extends EmbeddedPostgresTest {
+
+    private static final String TEXT = "Capital commitment: USD 10,000,000. Lock-in: 3 years. ".repeat(200);
+    private static final String ANALYSIS = "Fees: 2% management, 20% carry. ✓";
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private BatchJobRepository batchJobRepository;
+
+    @Test
+    void storesTextCompressedAndReadsItBack() throws IOException {
+        Document document = document("a.pdf");
+        document.setExtractedText(TEXT);
+        document.setAiAnalysis(ANALYSIS);
+        UUID id = documentRepository.save(document).getId();
+
+        Map<String, Object> row = columns(id);
+        assertThat(row.get("extracted_text")).isNull();
+        assertThat(row.get("ai_analysis")).isNull();
+        assertThat((byte[]) row.get("extracted_text_zst")).hasSizeLessThan(TEXT.length() / 10);
+
+        Document loaded = documentRepository.findById(id).orElseThrow();
+        // Loading keeps the frame; the text is decoded when asked for
+        assertThat(ReflectionTestUtils.getField(loaded, "extractedText")).isNull();
+        assertThat(loaded.hasExtractedText()).isTrue();
+        assertThat(loaded.getExtractedText()).isEqualTo(TEXT);
+        assertThat(loaded.getAiAnalysis()).isEqualTo(ANALYSIS);
+        try (Reader reader = loaded.openExtractedText()) {
+            StringWriter streamed = new StringWriter();
+            reader.transferTo(streamed);
+            assertThat(streamed.toString()).isEqualTo(TEXT);
+        }
+    }
+
+    @Test
+    void textSetOnAPlainRowIsStoredCompressed() {
+        UUID plain = insertPlain("plain.pdf");
+        Document document = documentRepository.findById(plain).orElseThrow();
+        document.setAiAnalysis("Revised: " + ANALYSIS);
+        documentRepository.save(document);
+
+        Map<String, Object> row = columns(plain);
+        assertThat(row.get("ai_analysis")).isNull();
+        assertThat(row.get("ai_analysis_zst")).isNotNull();
+        // Only the property that was set moves; the rest waits for the migration
+        assertThat(row.get("extracted_text")).isEqualTo(TEXT);
+        assertThat(row.get("extracted_text_zst")).isNull();
+        Document loaded = documentRepository.findById(plain).orElseThrow();
+        assertThat(loaded.getAiAnalysis()).isEqualTo("Revised: " + ANALYSIS);
+        assertThat(loaded.getExtractedText()).isEqualTo(TEXT);
+    }
+
+    @Test
+    void statusUpdateLeavesTextColumnsAlone() {
+        UUID plain = insertPlain("plain.pdf");
+        Document document = documentRepository.findById(plain).orElseThrow();
+        document.setStatus(DocumentStatus.ANALYZED);
+        documentRepository.save(document);
+
+        Map<String, Object> row = columns(plain);
+        assertThat(row.get("extracted_text")).isEqualTo(TEXT);
+        assertThat(row.get("extracted_text_zst")).isNull();
+        assertThat(documentRepository.findById(plain).orElseThrow().getExtractedText()).isEqualTo(TEXT);
+    }
+
+    @Test
+    void migrationCompressesPlainRows() {
+        UUID plain = insertPlain("plain.pdf");
+
+        Map<String, Object> result = new TextCompressionService(documentRepository, true, 3, 20).migrate(10);
+
+        assertThat(result.get("rewritten")).isEqualTo(1);
+        Map<String, Object> row = columns(plain);
+        assertThat(row.get("extracted_text")).isNull();
+        assertThat(row.get("ai_analysis")).isNull();
+        assertThat(row.get("extracted_text_zst")).isNotNull();
+        Document loaded = documentRepository.findById(plain).orElseThrow();
+        assertThat(loaded.getExtractedText()).isEqualTo(TEXT);
+        assertThat(loaded.getAiAnalysis()).isEqualTo(ANALYSIS);
+    }
+
+    @Test
+    void exportRowsDecodeEitherForm() {
+        BatchJob batch = batchJobRepository.save(BatchJob.builder().jobName("batch").status(BatchStatus.COMPLETED).build());
+        Document compressed = document("compressed.pdf");
+        compressed.setBatchJob(batch);
+        compressed.setAiAnalysis(ANALYSIS);
+        documentRepository.save(compressed);
+        UUID plain = insertPlain("plain.pdf");
+        jdbcTemplate.update("UPDATE documents SET batch_job_id = ? WHERE id = ?", batch.getId(), plain);
+
+        assertThat(documentRepository.findExportRowsByBatchJobId(batch.getId()))
+                .extracting(BatchDocumentExport::getAiAnalysis)
+                .containsExactly(ANALYSIS, ANALYSIS);
+    }
+
+    @Test
+    void statusRowCarriesTheAnalysisOnlyOnceItIsDone() {
+        UUID plain = insertPlain("plain.pdf");
+        Document compressed = document("compressed.pdf");
+        compressed.setAiAnalysis(ANALYSIS);
+        compressed.setStatus(DocumentStatus.ANALYZING);
+        UUID analyzing = documentRepository.save(compressed).getId();
+
+        DocumentStatusView ready = documentRepository.findStatusById(plain).orElseThrow();
+        assertThat(ready.getStatus()).isEqualTo(DocumentStatus.READY);
+        assertThat(ready.getFilename()).isEqualTo("plain.pdf");
+        assertThat(ready.getAiAnalysis()).isNull();
+        assertThat(documentRepository.findStatusById(analyzing).orElseThrow().getAiAnalysis()).isNull();
+
+        jdbcTemplate.update("UPDATE documents SET status = 'ANALYZED' WHERE id IN (?, ?)", plain, analyzing);
+        assertThat(documentRepository.findStatusById(plain).orElseThrow().getAiAnalysis()).isEqualTo(ANALYSIS);
+        assertThat(documentRepository.findStatusById(analyzing).orElseThrow().getAiAnalysis()).isEqualTo(ANALYSIS);
+        assertThat(documentRepository.findStatusById(UUID.randomUUID())).isEmpty();
+    }
+
+    private Document document(String filename) {
+        return Document.builder()
+                .filename(filename)
+                .filePath("uploads/" + filename)
+                .status(DocumentStatus.READY)
+                .build();
+    }
+
+    // A row written before compression was enabled
+    private UUID insertPlain(String filename) {
+        UUID id = documentRepository.save(document(filename)).getId();
+        jdbcTemplate.update("UPDATE documents SET extracted_text = ?, ai_analysis = ? WHERE id = ?", TEXT, ANALYSIS, id);
+        return id;
+    }
+
+    private Map<String, Object> columns(UUID id) {
+        return jdbcTemplate.queryForMap(
+                "SELECT extracted_text, extracted_text_zst, ai_analysis, ai_analysis_zst FROM documents WHERE id = ?", id);
+    }
+}
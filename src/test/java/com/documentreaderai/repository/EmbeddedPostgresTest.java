@@ -0,0 +1,76 @@
+package com.documentreaderai.repository;
+
+import com.documentreaderai.model.entity.DocumentTextCompression;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * JPA tests against a real Postgres - for native SQL (SKIP LOCKED, COPY,
+ * tsvector) that no in-memory database runs. One embedded server per JVM,
+ * shared by every subclass and stopped on exit; no Docker needed. Every call
+ * commits (no test transaction), as on a node, so every table is emptied
+ * before each test. Text is stored as the application stores it
+ * (DocumentTextCompression).
+ */
+@DataJpaTest
+@Import(DocumentTextCompression.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public abstract class EmbeddedPostgresTest {
+
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        EmbeddedPostgres server = server();
+        registry.add("spring.datasource.url", () -> server.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @BeforeEach
+    void truncateTables() {
+        String tables = jdbcTemplate.queryForObject(
+                "SELECT string_agg(quote_ident(tablename), ', ') FROM pg_tables WHERE schemaname = 'public'", String.class);
+        if (tables != null) {
+            jdbcTemplate.execute("TRUNCATE " + tables + " CASCADE");
+        }
+    }
+
+    /**
+     * The shared server, started on first use
+     */
+    public static synchronized EmbeddedPostgres server() {
+        if (postgres == null) {
+            try {
+                postgres = EmbeddedPostgres.start();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to start embedded Postgres: " + e.getMessage(), e);
+            }
+            EmbeddedPostgres started = postgres;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    started.close();
+                } catch (IOException ignored) {
+                    // JVM exiting
+                }
+            }));
+        }
+        return postgres;
+    }
+}
@@ -0,0 +1,161 @@
+package com.documentreaderai.service;
+
+import com.documentreaderai.config.AsyncConfig;
+import com.documentreaderai.config.TaskExecutors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class BatchPipelineTest {
+
+    private final UUID batchJobId = UUID.randomUUID();
+    private final List<String> steps = new CopyOnWriteArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    // 2 extraction workers → queue of 1 → 1 analysis worker
+    private final TaskExecutors taskExecutors = new AsyncConfig(null, false).taskExecutors(2, 16, 1, 1, 2, 8, 1, 1, 5);
+    private final BatchPipeline pipeline = new BatchPipeline(taskExecutors, 1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        taskExecutors.destroy();
+    }
+
+    @Test
+    void analyzesAfterExtracting() throws Exception {
+        pipeline.submit(batchJobId, () -> steps.add("extract"), () -> steps.add("analyze")).get(5, TimeUnit.SECONDS);
+
+        assertThat(steps).containsExactly("extract", "analyze");
+    }
+
+    @Test
+    void extractOnlyCompletesAfterExtraction() throws Exception {
+        pipeline.submit(batchJobId, () -> steps.add("extract"), null).get(5, TimeUnit.SECONDS);
+
+        assertThat(steps).containsExactly("extract");
+    }
+
+    @Test
+    void failedExtractionSkipsAnalysis() {
+        CompletableFuture<Void> done = pipeline.submit(batchJobId,
+                () -> { throw new IllegalStateException("corrupt PDF"); }, () -> steps.add("analyze"));
+
+        assertThatThrownBy(() -> done.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasRootCauseInstanceOf(IllegalStateException.class);
+        assertThat(steps).isEmpty();
+    }
+
+    @Test
+    void extractorsWaitWhenTheAnalysisQueueIsFull() throws Exception {
+        List<CompletableFuture<Void>> documents = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            int document = i;
+            documents.add(pipeline.submit(batchJobId, () -> steps.add("extract " + document), () -> {
+                awaitRelease();
+                steps.add("analyze " + document);
+            }));
+        }
+
+        // 1 analyzing + 1 queued fill the handoff; the third extracted document waits for room
+        await().atMost(Duration.ofSeconds(5)).until(() -> (Integer) pipeline.getStats().get("extractorsWaitingOnQueue") == 1);
+        assertThat(steps.stream().filter(step -> step.startsWith("extract"))).hasSize(3);
+        assertThat(steps.stream().filter(step -> step.startsWith("analyze"))).isEmpty();
+
+        release.countDown();
+        CompletableFuture.allOf(documents.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        assertThat(steps.stream().filter(step -> step.startsWith("analyze"))).hasSize(3);
+        assertThat(pipeline.getStats()).containsEntry("extractorsWaitingOnQueue", 0);
+    }
+
+    @Test
+    void cancelDropsQueuedDocuments() throws Exception {
+        // Another batch keeps both extraction workers busy
+        UUID otherBatch = UUID.randomUUID();
+        List<CompletableFuture<Void>> busy = List.of(
+                pipeline.submit(otherBatch, this::awaitRelease, null),
+                pipeline.submit(otherBatch, this::awaitRelease, null));
+        await().atMost(Duration.ofSeconds(5)).until(() -> extractionStats().get("active").equals(2));
+
+        CompletableFuture<Void> queued = pipeline.submit(batchJobId, () -> steps.add("extract"), () -> steps.add("analyze"));
+
+        assertThat(pipeline.cancel(batchJobId)).isEqualTo(1);
+        assertThatThrownBy(() -> queued.get(5, TimeUnit.SECONDS)).isInstanceOf(CancellationException.class);
+
+        release.countDown();
+        CompletableFuture.allOf(busy.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        assertThat(steps).isEmpty();
+        assertThat(pipeline.getStats()).containsEntry("cancelledQueued", 1L).containsEntry("cancelledRunning", 0L);
+    }
+
+    @Test
+    void cancelInterruptsRunningAnalysis() throws Exception {
+        CountDownLatch analyzing = new CountDownLatch(1);
+        CompletableFuture<Void> running = pipeline.submit(batchJobId, () -> steps.add("extract"), () -> {
+            analyzing.countDown();
+            awaitRelease();  // Throws when interrupted
+            steps.add("analyze");
+        });
+        assertThat(analyzing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(pipeline.cancel(batchJobId)).isEqualTo(1);
+
+        assertThatThrownBy(() -> running.get(5, TimeUnit.SECONDS)).isInstanceOf(CancellationException.class);
+        assertThat(steps).containsExactly("extract");
+        assertThat(pipeline.getStats()).containsEntry("cancelledQueued", 0L).containsEntry("cancelledRunning", 1L);
+
+        // The analysis worker is free again, without a stale interrupt
+        pipeline.submit(UUID.randomUUID(), () -> { }, () -> steps.add("next")).get(5, TimeUnit.SECONDS);
+        assertThat(steps).containsExactly("extract", "next");
+    }
+
+    @Test
+    void cancelledExtractionThatSwallowsTheInterruptSkipsAnalysis() throws Exception {
+        CountDownLatch extracting = new CountDownLatch(1);
+        CompletableFuture<Void> running = pipeline.submit(batchJobId, () -> {
+            extracting.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                steps.add("partial extract");  // e.g. OCR stopping at the next page
+            }
+        }, () -> steps.add("analyze"));
+        assertThat(extracting.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(pipeline.cancel(batchJobId)).isEqualTo(1);
+
+        assertThatThrownBy(() -> running.get(5, TimeUnit.SECONDS)).isInstanceOf(CancellationException.class);
+        assertThat(steps).containsExactly("partial extract");
+        assertThat(pipeline.cancel(batchJobId)).isZero();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> extractionStats() {
+        return (Map<String, Object>) pipeline.getStats().get("extraction");
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
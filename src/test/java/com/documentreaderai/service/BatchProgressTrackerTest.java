@@ -0,0 +1,158 @@
+package com.documentreaderai.service;
+
+import com.documentreaderai.config.AsyncConfig;
+import com.documentreaderai.config.TaskExecutors;
+import com.documentreaderai.model.entity.BatchJob;
+import com.documentreaderai.model.entity.BatchJob.BatchStatus;
+import com.documentreaderai.repository.BatchJobRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BatchProgressTrackerTest {
+
+    private final BatchJobRepository repository = mock(BatchJobRepository.class);
+    private final BatchProgressPublisher publisher = mock(BatchProgressPublisher.class);
+    private final UUID batchJobId = UUID.randomUUID();
+    private final TaskExecutors taskExecutors = new AsyncConfig(null, false).taskExecutors(1, 1, 1, 1, 1, 1, 1, 1, 5);
+
+    // Flushes every 3 documents; the timer never fires during a test
+    private final BatchProgressTracker tracker = new BatchProgressTracker(repository, publisher, taskExecutors, 3, 3_600_000);
+
+    @AfterEach
+    void tearDown() {
+        tracker.shutdown();
+        taskExecutors.destroy();
+    }
+
+    @Test
+    void flushesEveryNDocumentsAsOneIncrement() {
+        when(repository.findById(batchJobId)).thenReturn(Optional.of(stored(3, 2, 1)));
+        tracker.start(stored(0, 0, 0));
+
+        tracker.record(batchJobId, true);
+        tracker.record(batchJobId, false);
+        verify(repository, never()).incrementProgress(any(), anyInt(), anyInt(), anyInt(), any());
+
+        tracker.record(batchJobId, true);
+        verify(repository).incrementProgress(eq(batchJobId), eq(3), eq(2), eq(1), any());
+        verify(publisher).progress(any(BatchJob.class));
+    }
+
+    @Test
+    void restartKeepsUnflushedDeltas() {
+        tracker.start(stored(0, 0, 0));
+        tracker.record(batchJobId, true);
+
+        tracker.start(stored(0, 0, 0));  // e.g. resumed on this node
+        tracker.finish(batchJobId);
+
+        verify(repository).incrementProgress(eq(batchJobId), eq(1), eq(1), eq(0), any());
+    }
+
+    @Test
+    void failedFinalFlushKeepsTheBatchUntilItIsWritten() {
+        tracker.start(stored(0, 0, 0));
+        tracker.record(batchJobId, true);
+        when(repository.incrementProgress(any(), anyInt(), anyInt(), anyInt(), any()))
+                .thenThrow(new RuntimeException("connection lost"))
+                .thenReturn(1);
+
+        tracker.finish(batchJobId);
+        assertThat(tracker.getStats()).containsEntry("runningBatches", 1).containsEntry("flushFailures", 1L);
+        assertThat(tracker.view(stored(0, 0, 0)).getProcessedCount()).isEqualTo(1);  // Still counted
+
+        tracker.finish(batchJobId);
+        assertThat(tracker.getStats()).containsEntry("runningBatches", 0);
+        verify(repository, times(2)).incrementProgress(eq(batchJobId), eq(1), eq(1), eq(0), any());
+    }
+
+    @Test
+    void documentCountedDuringTheFinalFlushIsNotLost() {
+        tracker.start(stored(0, 0, 0));
+        tracker.record(batchJobId, true);
+        // Another worker finishes a document while the final increment is being written
+        when(repository.incrementProgress(any(), anyInt(), anyInt(), anyInt(), any()))
+                .thenAnswer(invocation -> {
+                    tracker.record(batchJobId, false);
+                    return 1;
+                })
+                .thenReturn(1);
+
+        tracker.finish(batchJobId);
+        assertThat(tracker.getStats()).containsEntry("runningBatches", 1);
+        assertThat(tracker.view(stored(1, 1, 0)).getProcessedCount()).isEqualTo(2);
+
+        tracker.finish(batchJobId);
+        assertThat(tracker.getStats()).containsEntry("runningBatches", 0);
+        verify(repository).incrementProgress(eq(batchJobId), eq(1), eq(0), eq(1), any());
+    }
+
+    @Test
+    void viewIsTheStoredRowPlusUnflushedDeltas() {
+        tracker.start(stored(0, 0, 0));
+        tracker.record(batchJobId, true);
+        tracker.record(batchJobId, false);
+
+        // Row already holds 10 documents flushed by other nodes
+        BatchJob live = tracker.view(stored(10, 7, 3));
+
+        assertThat(live.getProcessedCount()).isEqualTo(12);
+        assertThat(live.getSuccessCount()).isEqualTo(8);
+        assertThat(live.getFailureCount()).isEqualTo(4);
+        assertThat(live.getStatus()).isEqualTo(BatchStatus.RUNNING);
+        assertThat(live.getJobName()).isEqualTo("Q3 agreements");
+    }
+
+    @Test
+    void viewOfAnUntrackedBatchIsTheStoredRow() {
+        BatchJob live = tracker.view(stored(5, 4, 1));
+
+        assertThat(live.getProcessedCount()).isEqualTo(5);
+        assertThat(live.getSuccessCount()).isEqualTo(4);
+        assertThat(live.getFailureCount()).isEqualTo(1);
+    }
+
+    @Test
+    void recordOnAnotherNodeCountsOnlyDeltas() {
+        tracker.record(batchJobId, true);  // Never started here
+        tracker.finish(batchJobId);
+
+        verify(repository).incrementProgress(eq(batchJobId), eq(1), eq(1), eq(0), any());
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void shutdownFlushesPendingDeltas() {
+        tracker.start(stored(0, 0, 0));
+        tracker.record(batchJobId, false);
+
+        tracker.shutdown();
+
+        verify(repository).incrementProgress(eq(batchJobId), eq(1), eq(0), eq(1), any());
+    }
+
+    private BatchJob stored(int processed, int succeeded, int failed) {
+        return BatchJob.builder()
+                .id(batchJobId)
+                .jobName("Q3 agreements")
+                .status(BatchStatus.RUNNING)
+                .totalDocuments(20)
+                .processedCount(processed)
+                .successCount(succeeded)
+                .failureCount(failed)
+                .build();
+    }
+}
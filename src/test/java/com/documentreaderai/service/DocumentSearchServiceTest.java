@@ -0,0 +1,106 @@
+package com.documentreaderai.service;
+
+import com.documentreaderai.model.dto.DocumentSearchResult;
+import com.documentreaderai.model.entity.Document;
+import com.documentreaderai.model.entity.Document.DocumentStatus;
+import com.documentreaderai.repository.DocumentPageRepository;
+import com.documentreaderai.repository.DocumentRepository;
+import com.documentreaderai.repository.EmbeddedPostgresTest;
+import com.documentreaderai.service.ProductionPdfService.ExtractionResult;
+import com.documentreaderai.service.ProductionPdfService.PageInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Search against a real Postgres (tsvector, GIN, websearch_to_tsquery): pages
+ * stored at extraction and pages backfilled from older documents' text
+ */
+class DocumentSearchServiceTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private DocumentPageRepository pageRepository;
+
+    private DocumentPageService pageService;
+    private DocumentSearchService searchService;
+
+    @BeforeEach
+    void setUp() {
+        pageService = new DocumentPageService(pageRepository, documentRepository);
+        searchService = new DocumentSearchService(documentRepository, jdbcTemplate);
+        searchService.createSearchIndex();
+    }
+
+    @Test
+    void findsPagesStoredAtExtraction() {
+        UUID id = extracted("fast.pdf", "Fund: Alpha Growth Fund\n=== END OF PAGE 1 ===\nPAN: ABCDE1234F\n=== END OF PAGE 2 ===\n");
+        pageService.savePages(id, new ExtractionResult("", List.of("Fund: Alpha Growth Fund", "PAN: ABCDE1234F"), "",
+                List.of(new PageInfo(1, 23, false), new PageInfo(2, 15, false)), 0, 0));
+
+        List<DocumentSearchResult> results = searchService.search("ABCDE1234F", 10);
+
+        assertThat(results).singleElement().satisfies(result -> {
+            assertThat(result.getDocumentId()).isEqualTo(id);
+            assertThat(result.getPages()).singleElement().satisfies(page -> {
+                assertThat(page.getPageNumber()).isEqualTo(2);
+                assertThat(page.getSnippet()).contains("**ABCDE1234F**");
+            });
+        });
+        assertThat(documentRepository.countWithoutPages()).isZero();
+    }
+
+    @Test
+    void backfillMakesOlderDocumentsSearchable() {
+        UUID nativeText = extracted("native.pdf",
+                "Capital commitment: USD 5,000,000\n=== END OF PAGE 1 ===\nPAN: ABCDE1234F\n=== END OF PAGE 2 ===\n");
+        UUID ocrText = extracted("scanned.pdf",
+                "=== PAGE 1 ===\nSide letter\n=== PAGE 2 ===\nInvestor PAN ABCDE1234F confirmed\n");
+        UUID unmarked = extracted("plain.pdf", "Subscription agreement. PAN ABCDE1234F on file.");
+        assertThat(searchService.search("ABCDE1234F", 10)).isEmpty();
+        assertThat(documentRepository.countWithoutPages()).isEqualTo(3);
+
+        Map<String, Object> result = pageService.backfillPages(100);
+
+        assertThat(result).containsEntry("documents", 3).containsEntry("pages", 5).containsEntry("remaining", 0L);
+        assertThat(searchService.search("ABCDE1234F", 10))
+                .extracting(DocumentSearchResult::getDocumentId, hit -> hit.getPages().get(0).getPageNumber())
+                .containsExactlyInAnyOrder(
+                        tuple(nativeText, 2),
+                        tuple(ocrText, 2),
+                        tuple(unmarked, 1));
+        assertThat(pageRepository.findSummaries(ocrText))
+                .allSatisfy(page -> assertThat(page.isOcr()).isTrue());
+    }
+
+    @Test
+    void backfillLeavesDocumentsWithPagesAlone() {
+        UUID id = extracted("fast.pdf", "Alpha Growth Fund");
+        pageService.savePages(id, new ExtractionResult("", List.of("Alpha Growth Fund"), "",
+                List.of(new PageInfo(1, 17, false, true)), 0, 1));
+        extracted("pending.pdf", null);
+
+        assertThat(pageService.backfillPages(100)).containsEntry("documents", 0);
+        assertThat(pageRepository.findSummaries(id)).singleElement()
+                .satisfies(page -> assertThat(page.isOcr()).isTrue());
+    }
+
+    private UUID extracted(String filename, String text) {
+        Document document = Document.builder()
+                .filename(filename)
+                .filePath("uploads/" + filename)
+                .status(text == null ? DocumentStatus.UPLOADED : DocumentStatus.READY)
+                .build();
+        document.setExtractedText(text);
+        return documentRepository.save(document).getId();
+    }
+}
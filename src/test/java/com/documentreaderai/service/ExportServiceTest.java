@@ -0,0 +1,121 @@
+package com.documentreaderai.service;
+
+import com.documentreaderai.model.entity.BatchJob;
+import com.documentreaderai.model.entity.BatchJob.BatchStatus;
+import com.documentreaderai.model.entity.Document;
+import com.documentreaderai.model.entity.Document.DocumentStatus;
+import com.documentreaderai.repository.BatchJobRepository;
+import com.documentreaderai.repository.DocumentRepository;
+import com.documentreaderai.repository.EmbeddedPostgresTest;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Excel export against a real Postgres: keyset pages cover every document
+ * once and in order, and the summary shows live progress
+ */
+class ExportServiceTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private BatchJobRepository batchJobRepository;
+
+    private final BatchProgressTracker progressTracker = mock(BatchProgressTracker.class);
+
+    @BeforeEach
+    void setUp() {
+        when(progressTracker.view(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void exportsEveryDocumentOnceAcrossPages() throws IOException {
+        BatchJob batch = batch();
+        List<Document> documents = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            Document document = Document.builder()
+                    .filename("doc-" + i + ".pdf")
+                    .filePath("uploads/doc-" + i + ".pdf")
+                    .fileSize(2048L)
+                    .status(DocumentStatus.ANALYZED)
+                    .batchJob(batch)
+                    .build();
+            document.setAiAnalysis("PAN: ABCDE" + i + "F");
+            documents.add(document);
+        }
+        documentRepository.saveAll(documents);
+        // Ties on created_at, across page boundaries, are ordered by id
+        jdbcTemplate.update("UPDATE documents SET created_at = ? WHERE batch_job_id = ? AND filename < 'doc-2'",
+                LocalDateTime.of(2026, 1, 1, 9, 0), batch.getId());
+        List<String> expected = jdbcTemplate.queryForList(
+                "SELECT filename FROM documents WHERE batch_job_id = ? ORDER BY created_at, id", String.class, batch.getId());
+
+        try (XSSFWorkbook workbook = export(batch)) {
+            Sheet sheet = workbook.getSheet("Documents");
+            List<String> filenames = new ArrayList<>();
+            for (int rowNum = 1; rowNum <= sheet.getLastRowNum(); rowNum++) {
+                filenames.add(sheet.getRow(rowNum).getCell(1).getStringCellValue());
+            }
+            assertThat(filenames).hasSize(250).containsExactlyElementsOf(expected);
+            assertThat(workbook.getSheet("Extracted Data").getRow(1).getCell(2).getStringCellValue())
+                    .startsWith("ABCDE");
+        }
+    }
+
+    @Test
+    void summaryShowsLiveProgressAndHoldsNoTransaction() throws IOException {
+        BatchJob batch = batch();
+        BatchJob live = BatchJob.builder().id(batch.getId()).jobName("batch").status(BatchStatus.RUNNING)
+                .totalDocuments(10).successCount(7).failureCount(1).build();
+        live.setCreatedAt(batch.getCreatedAt());
+        when(progressTracker.view(any())).thenAnswer(invocation -> {
+            assertThat(TransactionSynchronizationManager.isActualTransactionActive()).isFalse();
+            return live;
+        });
+
+        try (XSSFWorkbook workbook = export(batch)) {
+            Sheet summary = workbook.getSheet("Summary");
+            assertThat(value(summary, "Successful:")).isEqualTo("7");
+            assertThat(value(summary, "Failed:")).isEqualTo("1");
+        }
+    }
+
+    private XSSFWorkbook export(BatchJob batch) throws IOException {
+        ExportService exportService = new ExportService(documentRepository, batchJobRepository, progressTracker);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.writeBatchExcel(batch.getId(), out);
+        return new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    private BatchJob batch() {
+        return batchJobRepository.save(BatchJob.builder().jobName("batch").status(BatchStatus.RUNNING)
+                .totalDocuments(250).build());
+    }
+
+    private static String value(Sheet sheet, String label) {
+        for (Row row : sheet) {
+            if (row.getCell(0) != null && label.equals(row.getCell(0).getStringCellValue())) {
+                return row.getCell(1).getStringCellValue();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,128 @@
+package com.documentreaderai.service;
+
+import com.documentreaderai.model.entity.ExtractionCacheEntry;
+import com.documentreaderai.repository.ExtractionCacheRepository;
+import com.documentreaderai.service.ProductionPdfService.ExtractionResult;
+import com.documentreaderai.service.ProductionPdfService.PageInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ExtractionCacheServiceTest {
+
+    private final ExtractionCacheRepository repository = mock(ExtractionCacheRepository.class);
+    private final ProductionPdfService pdfService = mock(ProductionPdfService.class);
+    private ExtractionCacheService cache;
+
+    @BeforeEach
+    void setUp() {
+        when(pdfService.getExtractorVersion()).thenReturn("4-SELECTIVE");
+        cache = new ExtractionCacheService(repository, pdfService, mock(PlatformTransactionManager.class), true);
+    }
+
+    @Test
+    void storesCleanResult() {
+        when(pdfService.extractWithIntelligence("a.pdf")).thenReturn(result());
+
+        cache.extract("a.pdf", "hash", 100L);
+
+        verify(repository).saveAndFlush(any(ExtractionCacheEntry.class));
+        assertThat(cache.getStats()).containsEntry("degradedNotStored", 0L);
+    }
+
+    @Test
+    void doesNotStoreResultWithOcrFailures() {
+        ExtractionResult degraded = result();
+        degraded.addFailure("OCR failed for pages 3");
+        when(pdfService.extractWithIntelligence("a.pdf")).thenReturn(degraded);
+
+        ExtractionResult returned = cache.extract("a.pdf", "hash", 100L);
+
+        assertThat(returned).isSameAs(degraded);
+        verify(repository, never()).saveAndFlush(any());
+        assertThat(cache.getStats()).containsEntry("degradedNotStored", 1L);
+    }
+
+    @Test
+    void plainWarningsDoNotPreventCaching() {
+        ExtractionResult result = result();
+        result.addWarning("Document may be image-based");
+        when(pdfService.extractWithIntelligence("a.pdf")).thenReturn(result);
+
+        cache.extract("a.pdf", "hash", 100L);
+
+        verify(repository).saveAndFlush(any(ExtractionCacheEntry.class));
+    }
+
+    @Test
+    void storesPagesOnceAndRebuildsTheTextOnAHit() {
+        List<String> pageTexts = List.of("Capital commitment: INR 1 crore.", "Management fee: 2% per annum.");
+        List<PageInfo> pages = new ArrayList<>(List.of(new PageInfo(1, 32, false), new PageInfo(2, 29, false)));
+        String tables = "Fee | 2%";
+        ExtractionResult extracted = new ExtractionResult(ProductionPdfService.assembleText(pageTexts, tables),
+                pageTexts, tables, pages, 10, 0);
+        when(pdfService.extractWithIntelligence("a.pdf")).thenReturn(extracted);
+
+        String payload = storedPayload("a.pdf");
+        ExtractionResult hit = cache.extract("b.pdf", "hash", 100L);
+
+        // Each page's text is stored once - not again inside a full text
+        assertThat(payload.split("Management fee", -1)).hasSize(2);
+        assertThat(hit.getText()).isEqualTo(extracted.getText());
+        assertThat(hit.getPageTexts()).isEqualTo(pageTexts);
+        assertThat(hit.getTableText()).isEqualTo(tables);
+    }
+
+    @Test
+    void fullOcrPreambleSurvivesTheRoundTrip() {
+        List<String> pageTexts = List.of("Scanned page one.");
+        String preamble = "=== NATIVE TEXT (HEADERS/FOOTERS) ===\n\nConfidential\n\n=== OCR TEXT (MAIN CONTENT) ===\n\n";
+        ExtractionResult extracted = new ExtractionResult(preamble + ProductionPdfService.assembleText(pageTexts, ""),
+                pageTexts, "", new ArrayList<>(List.of(new PageInfo(1, 17, false, true))), 10, 1);
+        when(pdfService.extractWithIntelligence("a.pdf")).thenReturn(extracted);
+
+        storedPayload("a.pdf");
+
+        assertThat(cache.extract("b.pdf", "hash", 100L).getText()).isEqualTo(extracted.getText());
+    }
+
+    @Test
+    void textThatIsNotItsPagesIsNotStored() {
+        ExtractionResult odd = new ExtractionResult("hello, reformatted", List.of("hello"), "",
+                new ArrayList<>(List.of(new PageInfo(1, 5, true))), 10, 0);
+        when(pdfService.extractWithIntelligence("a.pdf")).thenReturn(odd);
+
+        assertThat(cache.extract("a.pdf", "hash", 100L)).isSameAs(odd);
+        verify(repository, never()).saveAndFlush(any());
+    }
+
+    /**
+     * Extract once (a miss), then serve the stored entry to later lookups
+     */
+    private String storedPayload(String file) {
+        cache.extract(file, "hash", 100L);
+        ArgumentCaptor<ExtractionCacheEntry> stored = ArgumentCaptor.forClass(ExtractionCacheEntry.class);
+        verify(repository, times(1)).saveAndFlush(stored.capture());
+        when(repository.findById(anyString())).thenReturn(Optional.of(stored.getValue()));
+        return stored.getValue().getPayload();
+    }
+
+    private static ExtractionResult result() {
+        List<PageInfo> pages = new ArrayList<>(List.of(new PageInfo(1, 5, true)));
+        return new ExtractionResult("hello\n\n=== END OF PAGE 1 ===\n\n", List.of("hello"), "", pages, 10, 0);
+    }
+}
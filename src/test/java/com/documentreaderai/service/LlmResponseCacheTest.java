@@ -0,0 +1,138 @@
+package com.documentreaderai.service;
+
+import com.documentreaderai.config.AsyncConfig;
+import com.documentreaderai.config.TaskExecutors;
+import com.documentreaderai.model.entity.LlmResponseCacheEntry;
+import com.documentreaderai.repository.LlmResponseCacheRepository;
+import com.documentreaderai.service.LlmResponseCache.CacheKey;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LlmResponseCacheTest {
+
+    private static final Map<String, Object> OPTIONS = Map.of("temperature", 0.1, "num_ctx", 8192);
+
+    private final LlmResponseCacheRepository repository = mock(LlmResponseCacheRepository.class);
+    private final TaskExecutors taskExecutors = new AsyncConfig(null, false).taskExecutors(1, 1, 1, 1, 1, 1, 1, 1, 5);
+    private LlmResponseCache cache = cache(1 << 20);
+
+    @AfterEach
+    void tearDown() {
+        cache.shutdown();
+        taskExecutors.destroy();
+    }
+
+    @Test
+    void keyCoversModelOptionsTemplateAndDocument() {
+        CacheKey key = cache.keyFor("llama3", OPTIONS, "Summarize", "document");
+
+        assertThat(cache.keyFor("llama3", Map.of("num_ctx", 8192, "temperature", 0.1), "Summarize", "document"))
+                .isEqualTo(key);
+        assertThat(cache.keyFor("mistral", OPTIONS, "Summarize", "document").hash()).isNotEqualTo(key.hash());
+        assertThat(cache.keyFor("llama3", Map.of("temperature", 0.1, "num_ctx", 4096), "Summarize", "document").hash())
+                .isNotEqualTo(key.hash());
+        assertThat(cache.keyFor("llama3", OPTIONS, "Extract", "document").hash()).isNotEqualTo(key.hash());
+        assertThat(cache.keyFor("llama3", OPTIONS, "Summarize", "other document").hash()).isNotEqualTo(key.hash());
+        assertThat(key.documentDigest()).isEqualTo(LlmResponseCache.digest("document"));
+    }
+
+    @Test
+    void highOrMissingTemperatureIsNotCached() {
+        assertThat(cache.keyFor("llama3", Map.of("temperature", 0.7), "Summarize", "document")).isNull();
+        assertThat(cache.keyFor("llama3", Map.of("num_ctx", 8192), "Summarize", "document")).isNull();
+        assertThat(cache.getStats()).containsEntry("bypassed", 2L);
+    }
+
+    @Test
+    void memoryTierAnswersWithoutDatabase() {
+        CacheKey key = cache.keyFor("llama3", OPTIONS, "Summarize", "document");
+        cache.put(key, "summary");
+
+        assertThat(cache.get(key)).contains("summary");
+        verify(repository).saveAndFlush(any(LlmResponseCacheEntry.class));
+        verify(repository, never()).findById(anyString());
+        assertThat(cache.getStats()).containsEntry("memoryHits", 1L);
+    }
+
+    @Test
+    void evictedEntryIsServedFromDatabaseAndExtended() {
+        cache.shutdown();
+        cache = cache(300);  // Room for one short response
+        CacheKey first = cache.keyFor("llama3", OPTIONS, "Summarize", "first");
+        CacheKey second = cache.keyFor("llama3", OPTIONS, "Summarize", "second");
+        cache.put(first, "first summary");
+        cache.put(second, "second summary");
+        when(repository.findById(first.hash())).thenReturn(Optional.of(stored(first, "first summary",
+                LocalDateTime.now().plusHours(1))));
+        assertThat(cache.getStats()).containsEntry("evictions", 1L);
+
+        assertThat(cache.get(first)).contains("first summary");
+        verify(repository).recordHit(eq(first.hash()), any(), any());
+        assertThat(cache.getStats()).containsEntry("diskHits", 1L);
+
+        // Promoted back into memory
+        assertThat(cache.get(first)).contains("first summary");
+        assertThat(cache.getStats()).containsEntry("memoryHits", 1L);
+    }
+
+    @Test
+    void expiredRowIsAMiss() {
+        CacheKey key = cache.keyFor("llama3", OPTIONS, "Summarize", "document");
+        when(repository.findById(key.hash())).thenReturn(Optional.of(stored(key, "stale",
+                LocalDateTime.now().minusMinutes(1))));
+
+        assertThat(cache.get(key)).isEmpty();
+        verify(repository, never()).recordHit(anyString(), any(), any());
+        assertThat(cache.getStats()).containsEntry("expired", 1L).containsEntry("misses", 1L);
+    }
+
+    @Test
+    void storedRowsGetAnExpiry() {
+        CacheKey key = cache.keyFor("llama3", OPTIONS, "Summarize", "document");
+        when(repository.saveAndFlush(any())).thenAnswer(invocation -> {
+            LlmResponseCacheEntry entry = invocation.getArgument(0);
+            assertThat(entry.getExpiresAt()).isAfter(LocalDateTime.now().plusHours(23));
+            return entry;
+        });
+
+        cache.put(key, "summary");
+
+        verify(repository).saveAndFlush(any(LlmResponseCacheEntry.class));
+    }
+
+    @Test
+    void purgeDeletesExpiredRows() {
+        when(repository.deleteExpired(any())).thenReturn(3);
+
+        assertThat(cache.purgeExpired()).isEqualTo(3);
+        assertThat(cache.getStats()).containsEntry("purged", 3L);
+    }
+
+    private LlmResponseCache cache(long memoryBytes) {
+        return new LlmResponseCache(repository, mock(PlatformTransactionManager.class), taskExecutors, true, 0.2, memoryBytes, 24, 60);
+    }
+
+    private static LlmResponseCacheEntry stored(CacheKey key, String response, LocalDateTime expiresAt) {
+        return LlmResponseCacheEntry.builder()
+                .cacheKey(key.hash())
+                .model(key.model())
+                .documentDigest(key.documentDigest())
+                .response(response)
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
@@ -0,0 +1,198 @@
+package com.documentreaderai.service;
+
+import com.documentreaderai.config.AsyncConfig;
+import com.documentreaderai.config.TaskExecutors;
+import com.documentreaderai.model.entity.DocumentPage;
+import com.documentreaderai.repository.LlmResponseCacheRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MultiModelOllamaServiceTest {
+
+    private static final String COMPLEX_PROMPT = "List every party, fee and commitment with page references";
+
+    private final List<String> prompts = Collections.synchronizedList(new ArrayList<>());
+    private final RetrievalService retrievalService = mock(RetrievalService.class);
+    private final DocumentPageService documentPageService = mock(DocumentPageService.class);
+    private final UUID documentId = UUID.randomUUID();
+    private HttpServer ollama;
+    private TaskExecutors taskExecutors;
+    private MultiModelOllamaService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        ollama = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        ollama.createContext("/api/generate", exchange -> {
+            prompts.add((String) mapper.readValue(exchange.getRequestBody(), Map.class).get("prompt"));
+            byte[] body = (mapper.writeValueAsString(Map.of("response", "FEE: 2% (Page 3)", "done", true)) + "\n")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/x-ndjson");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        ollama.start();
+
+        taskExecutors = new AsyncConfig(null, false).taskExecutors(2, 16, 1, 1, 1, 1, 1, 1, 5);
+        LlmResponseCache cache = new LlmResponseCache(mock(LlmResponseCacheRepository.class),
+                mock(PlatformTransactionManager.class), taskExecutors, false, 0.2, 0, 24, 60);
+        service = new MultiModelOllamaService(cache, retrievalService, documentPageService,
+                new OllamaScheduler(2, "", 16, 30, 30), taskExecutors,
+                "http://localhost:" + ollama.getAddress().getPort(), 4000, true, 2, 24000, 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ollama.stop(0);
+        taskExecutors.destroy();
+    }
+
+    @Test
+    void wholeDocumentTooLongForOneCallIsMapReduced() {
+        List<DocumentPage> pages = pages(40, 3000);
+        when(documentPageService.getPages(documentId)).thenReturn(pages);
+
+        String answer = service.analyzeDocument(documentId, markedText(pages), COMPLEX_PROMPT, null, false);
+
+        assertThat(answer).isEqualTo("FEE: 2% (Page 3)");
+        Map<String, Object> stats = service.getUsageStats();
+        assertThat(stats).containsEntry("mapReduceRuns", 1L);
+        assertThat((Long) stats.get("mapCalls")).isGreaterThan(1L);
+        assertThat(prompts).hasSize(((Long) stats.get("mapCalls")).intValue() + 1);  // Maps + reduce
+
+        // Chunks are built from the stored pages, every page is covered
+        verify(retrievalService, never()).retrieve(any(), anyString(), anyInt());
+        verify(documentPageService, atLeastOnce()).getPages(documentId);
+        String mapped = String.join("\n", prompts.subList(0, prompts.size() - 1));
+        for (int page = 1; page <= pages.size(); page++) {
+            assertThat(mapped).contains("=== PAGE " + page + " ===");
+        }
+        assertThat(prompts.get(prompts.size() - 1)).contains("--- EXCERPT 1 ---");
+    }
+
+    @Test
+    void wholeDocumentWithinContextIsOneCall() {
+        List<DocumentPage> pages = pages(5, 3000);
+        when(documentPageService.getPages(documentId)).thenReturn(pages);
+
+        service.analyzeDocument(documentId, markedText(pages), COMPLEX_PROMPT, null, false);
+
+        assertThat(service.getUsageStats()).containsEntry("mapReduceRuns", 0L).containsEntry("modelCalls", 1L);
+        assertThat(prompts.get(0)).contains("=== PAGE 1 ===", "=== PAGE 5 ===");
+    }
+
+    @Test
+    void questionOnIndexedDocumentUsesRetrievedChunks() {
+        List<DocumentPage> pages = pages(40, 3000);
+        when(retrievalService.retrieve(eq(documentId), eq("management fee"), anyInt()))
+                .thenReturn(Optional.of("=== PAGE 3 ===\nThe management fee is 2% per annum.\n\n"));
+
+        service.analyzeDocument(documentId, markedText(pages), COMPLEX_PROMPT, "management fee", false);
+
+        assertThat(service.getUsageStats()).containsEntry("mapReduceRuns", 0L).containsEntry("modelCalls", 1L);
+        assertThat(prompts.get(0)).contains("The management fee is 2% per annum.").doesNotContain("=== PAGE 4 ===");
+        verify(documentPageService, never()).getPages(any());
+    }
+
+    @Test
+    void questionWithoutIndexFallsBackToMapReduceOnMarkers() {
+        List<DocumentPage> pages = pages(40, 3000);
+        when(retrievalService.retrieve(any(), anyString(), anyInt())).thenReturn(Optional.empty());
+
+        service.analyzeDocument(null, markedText(pages), COMPLEX_PROMPT, "management fee", false);
+
+        assertThat(service.getUsageStats()).containsEntry("mapReduceRuns", 1L);
+        assertThat(String.join("\n", prompts)).contains("=== PAGE 40 ===");
+    }
+
+    @Test
+    void ocrPageMarkersArePreScannedLikeNativeOnes() {
+        List<DocumentPage> pages = pages(40, 3000);
+        pages.set(0, DocumentPage.builder().documentId(documentId).pageNumber(1)
+                .text("E-Stamp Certificate No: IN-DL-01\nStamp Duty: 500\nPurchased By: Registrar\n").build());
+        when(retrievalService.retrieve(any(), anyString(), anyInt())).thenReturn(Optional.empty());
+
+        StringBuilder ocrText = new StringBuilder();
+        for (DocumentPage page : pages) {
+            ocrText.append("=== PAGE ").append(page.getPageNumber()).append(" ===\n").append(page.getText()).append("\n");
+        }
+        service.analyzeDocument(null, ocrText.toString(), COMPLEX_PROMPT, "management fee", false);
+
+        // Stamp paper dropped page by page, the agreement pages all kept
+        String mapped = String.join("\n", prompts);
+        assertThat(mapped).doesNotContain("E-Stamp").contains("=== PAGE 2 ===", "=== PAGE 40 ===");
+    }
+
+    @Test
+    void documentsWithTheSameTextArePreScannedOnTheirOwnPages() {
+        List<DocumentPage> pages = pages(5, 3000);
+        UUID copyId = UUID.randomUUID();
+        List<DocumentPage> copyPages = new ArrayList<>(pages);
+        copyPages.set(1, DocumentPage.builder().documentId(copyId).pageNumber(2)
+                .text("E-Stamp Certificate No: IN-DL-01\nStamp Duty: 500\nPurchased By: Registrar\n").build());
+        when(documentPageService.getPages(documentId)).thenReturn(pages);
+        when(documentPageService.getPages(copyId)).thenReturn(copyPages);
+        String text = markedText(pages);
+
+        service.analyzeDocument(documentId, text, COMPLEX_PROMPT, null, false);
+        service.analyzeDocument(copyId, text, COMPLEX_PROMPT, null, false);
+
+        // Same text, but the copy's stored pages are filtered, not the first document's result reused
+        assertThat(prompts).hasSize(2);
+        assertThat(prompts.get(0)).contains("=== PAGE 2 ===");
+        assertThat(prompts.get(1)).doesNotContain("=== PAGE 2 ===").contains("=== PAGE 1 ===", "=== PAGE 5 ===");
+        verify(documentPageService).getPages(copyId);
+    }
+
+    /**
+     * Agreement pages with enough indicators to pass the pre-scan
+     */
+    private List<DocumentPage> pages(int count, int chars) {
+        List<DocumentPage> pages = new ArrayList<>();
+        for (int page = 1; page <= count; page++) {
+            StringBuilder text = new StringBuilder();
+            while (text.length() < chars) {
+                text.append("Page ").append(page).append(": the contributor's capital commitment under this agreement ")
+                        .append("is Rs. 1,00,00,000; management fee payment dated 01/04/2024.\n");
+            }
+            pages.add(DocumentPage.builder().documentId(documentId).pageNumber(page).text(text.toString()).build());
+        }
+        return pages;
+    }
+
+    private static String markedText(List<DocumentPage> pages) {
+        StringBuilder text = new StringBuilder();
+        for (DocumentPage page : pages) {
+            text.append(page.getText()).append("\n\n=== END OF PAGE ").append(page.getPageNumber()).append(" ===\n\n");
+        }
+        return text.toString();
+    }
+}
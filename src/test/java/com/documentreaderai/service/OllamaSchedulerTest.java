@@ -0,0 +1,137 @@
+package com.documentreaderai.service;
+
+import com.documentreaderai.service.OllamaScheduler.Priority;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OllamaSchedulerTest {
+
+    private static final String MODEL = "qwen2.5:7b";
+
+    private final List<String> started = new CopyOnWriteArrayList<>();
+
+    @Test
+    void queuesBeyondLimitAndRejectsWhenQueueIsFull() {
+        OllamaScheduler scheduler = new OllamaScheduler(1, "", 1, 60, 60);
+        Sinks.One<String> first = Sinks.one();
+        Sinks.One<String> second = Sinks.one();
+
+        AtomicReference<String> firstResult = new AtomicReference<>();
+        AtomicReference<String> secondResult = new AtomicReference<>();
+        scheduler.executeReactive(MODEL, call("first", first)).subscribe(firstResult::set);
+        scheduler.executeReactive(MODEL, call("second", second)).subscribe(secondResult::set);
+
+        assertThat(started).containsExactly("first");
+        assertThat(scheduler.isAccepting(MODEL)).isFalse();
+        assertThatThrownBy(() -> scheduler.executeReactive(MODEL, () -> Mono.just("third")).block())
+                .isInstanceOf(OllamaBusyException.class)
+                .hasMessageContaining("already waiting");
+
+        // The slot is handed straight to the waiter
+        first.tryEmitValue("done");
+        assertThat(firstResult).hasValue("done");
+        assertThat(started).containsExactly("first", "second");
+        second.tryEmitValue("done too");
+        assertThat(secondResult).hasValue("done too");
+
+        assertThat(laneStats(scheduler))
+                .containsEntry("active", 0)
+                .containsEntry("admitted", 2L)
+                .containsEntry("queued", 1L)
+                .containsEntry("rejected", 1L);
+    }
+
+    @Test
+    void interactiveCallsAreServedBeforeBatchCalls() {
+        OllamaScheduler scheduler = new OllamaScheduler(1, "", 8, 60, 60);
+        Sinks.One<String> running = Sinks.one();
+        scheduler.executeReactive(MODEL, call("running", running)).subscribe();
+
+        scheduler.executeReactive(MODEL, call("batch", Sinks.one()))
+                .contextWrite(context -> context.put(Priority.class, Priority.BATCH))
+                .subscribe();
+        scheduler.executeReactive(MODEL, call("interactive", Sinks.one())).subscribe();
+
+        running.tryEmitValue("done");
+        assertThat(started).containsExactly("running", "interactive");
+    }
+
+    @Test
+    void priorityComesFromTheCallingThread() {
+        OllamaScheduler scheduler = new OllamaScheduler(1, "", 8, 60, 60);
+        Sinks.One<String> running = Sinks.one();
+        scheduler.executeReactive(MODEL, call("running", running)).subscribe();
+
+        OllamaScheduler.withPriority(Priority.BATCH, () -> scheduler.executeReactive(MODEL, call("batch", Sinks.one()))
+                .contextWrite(OllamaScheduler.priorityContext())
+                .subscribe());
+        scheduler.executeReactive(MODEL, call("interactive", Sinks.one()))
+                .contextWrite(OllamaScheduler.priorityContext())
+                .subscribe();
+
+        running.tryEmitValue("done");
+        assertThat(started).containsExactly("running", "interactive");
+    }
+
+    @Test
+    void waitingCallTimesOut() {
+        OllamaScheduler scheduler = new OllamaScheduler(1, "", 8, 1, 60);
+        scheduler.executeReactive(MODEL, call("running", Sinks.one())).subscribe();
+
+        assertThatThrownBy(() -> scheduler.executeReactive(MODEL, () -> Mono.just("late")).block(Duration.ofSeconds(5)))
+                .isInstanceOf(OllamaBusyException.class)
+                .hasMessageContaining("no slot within 1s");
+        assertThat(laneStats(scheduler)).containsEntry("timedOut", 1L).containsEntry("queueDepth", 0);
+    }
+
+    @Test
+    void cancelledWaiterLeavesTheQueueAndFreesNoSlot() {
+        OllamaScheduler scheduler = new OllamaScheduler(1, "", 8, 60, 60);
+        Sinks.One<String> running = Sinks.one();
+        scheduler.executeReactive(MODEL, call("running", running)).subscribe();
+
+        Disposable waiting = scheduler.executeReactive(MODEL, call("cancelled", Sinks.one())).subscribe();
+        assertThat(laneStats(scheduler)).containsEntry("queueDepth", 1);
+        waiting.dispose();
+        assertThat(laneStats(scheduler)).containsEntry("queueDepth", 0);
+
+        running.tryEmitValue("done");
+        assertThat(started).containsExactly("running");
+        assertThat(laneStats(scheduler)).containsEntry("active", 0);
+    }
+
+    @Test
+    void modelLimitsOverrideTheDefault() {
+        OllamaScheduler scheduler = new OllamaScheduler(1, "qwen2.5:7b=2, llama3.2:1b=3", 8, 60, 60);
+        scheduler.executeReactive(MODEL, call("one", Sinks.one())).subscribe();
+        scheduler.executeReactive(MODEL, call("two", Sinks.one())).subscribe();
+        scheduler.executeReactive("llama3.2:3b", call("other", Sinks.one())).subscribe();
+
+        assertThat(started).containsExactly("one", "two", "other");
+        assertThat(laneStats(scheduler)).containsEntry("limit", 2).containsEntry("queueDepth", 0);
+    }
+
+    private Supplier<Mono<String>> call(String name, Sinks.One<String> result) {
+        return () -> {
+            started.add(name);
+            return result.asMono();
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> laneStats(OllamaScheduler scheduler) {
+        return (Map<String, Object>) scheduler.getStats().get(MODEL);
+    }
+}
@@ -0,0 +1,121 @@
+package com.documentreaderai.service;
+
+import com.documentreaderai.model.entity.DocumentChunk;
+import com.documentreaderai.repository.DocumentChunkRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RetrievalServiceTest {
+
+    private final DocumentChunkRepository repository = mock(DocumentChunkRepository.class);
+    private final UUID documentId = UUID.randomUUID();
+
+    @Test
+    void ranksChunksMatchingTheQuery() {
+        RetrievalService retrieval = retrieval(1,
+                chunk(1, "This agreement is made between the parties named in the schedule."),
+                chunk(2, "The capital commitment of the contributor is Rs. 1,00,00,000."),
+                chunk(3, "The management fee is 2% per annum of the capital commitment."));
+
+        assertThat(retrieval.retrieve(documentId, "What is the management fee?", 1000))
+                .hasValueSatisfying(context -> assertThat(context)
+                        .startsWith("=== PAGE 3 ===")
+                        .doesNotContain("PAGE 1", "PAGE 2"));
+    }
+
+    @Test
+    void rareTermsOutweighCommonOnes() {
+        // "commitment" is on every page, "pan" on one
+        RetrievalService retrieval = retrieval(1,
+                chunk(1, "Capital commitment: see schedule. Commitment period five years."),
+                chunk(2, "Commitment acknowledged. PAN of the contributor: ABCDE1234F."),
+                chunk(3, "Commitment drawdown notices are issued quarterly, commitment permitting."));
+
+        assertThat(retrieval.retrieve(documentId, "commitment PAN", 1000))
+                .hasValueSatisfying(context -> assertThat(context).contains("ABCDE1234F").doesNotContain("PAGE 1"));
+    }
+
+    @Test
+    void shorterChunkWinsForTheSameMatches() {
+        RetrievalService retrieval = retrieval(1,
+                chunk(1, "Lock-in period: the units carry a lock-in of three years from allotment, "
+                        + "subject to the provisions of clause twelve, the schedule, the annexures "
+                        + "and any amendment agreed in writing between the investment manager and the trustee."),
+                chunk(2, "Lock-in period: three years."));
+
+        assertThat(retrieval.retrieve(documentId, "lock-in period", 1000))
+                .hasValueSatisfying(context -> assertThat(context).startsWith("=== PAGE 2 ==="));
+    }
+
+    @Test
+    void keepsPageOrderWithinTokenBudget() {
+        RetrievalService retrieval = retrieval(12,
+                chunk(1, "Management fee: 2% per annum."),
+                chunk(2, "Unrelated recitals of the trust deed and its registration."),
+                chunk(3, "Management fee and management fee waiver: management fee stepped down after year five."));
+
+        String context = retrieval.retrieve(documentId, "management fee", 1000).orElseThrow();
+
+        assertThat(context.indexOf("=== PAGE 1 ===")).isLessThan(context.indexOf("=== PAGE 3 ==="));
+        assertThat(context).doesNotContain("PAGE 2");
+
+        // Budget for the best chunk only
+        assertThat(retrieval.retrieve(documentId, "management fee", 25))
+                .hasValueSatisfying(best -> assertThat(best).startsWith("=== PAGE 3 ===").doesNotContain("PAGE 1"));
+    }
+
+    @Test
+    void emptyWithoutIndexOrMatches() {
+        when(repository.findByDocumentIdOrderByChunkIndex(documentId)).thenReturn(List.of());
+        RetrievalService retrieval = new RetrievalService(repository, mock(PlatformTransactionManager.class), 12);
+
+        assertThat(retrieval.retrieve(null, "management fee", 1000)).isEmpty();
+        assertThat(retrieval.retrieve(documentId, "management fee", 1000)).isEmpty();
+
+        RetrievalService indexed = retrieval(12, chunk(1, "Management fee: 2% per annum."));
+        assertThat(indexed.retrieve(documentId, "carried interest", 1000)).isEmpty();
+    }
+
+    @Test
+    void indexesPagesFromMarkers() {
+        RetrievalService retrieval = new RetrievalService(repository, mock(PlatformTransactionManager.class), 12);
+
+        retrieval.indexDocument(documentId, "First page\n\n=== END OF PAGE 1 ===\n\nSecond page\n\n"
+                + "=== END OF PAGE 2 ===\n\nTable: fee schedule");
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<DocumentChunk>> saved = ArgumentCaptor.forClass(List.class);
+        verify(repository).saveAll(saved.capture());
+        assertThat(saved.getValue()).extracting(DocumentChunk::getPageNumber).containsExactly(1, 2, null);
+        assertThat(retrieval.retrieve(documentId, "fee schedule", 1000))
+                .hasValueSatisfying(context -> assertThat(context).isEqualTo("Table: fee schedule\n\n"));
+    }
+
+    private RetrievalService retrieval(int topK, DocumentChunk... chunks) {
+        List<DocumentChunk> indexed = new ArrayList<>();
+        for (DocumentChunk chunk : chunks) {
+            chunk.setChunkIndex(indexed.size());
+            indexed.add(chunk);
+        }
+        when(repository.findByDocumentIdOrderByChunkIndex(documentId)).thenReturn(indexed);
+        return new RetrievalService(repository, mock(PlatformTransactionManager.class), topK);
+    }
+
+    private DocumentChunk chunk(int page, String content) {
+        return DocumentChunk.builder()
+                .documentId(documentId)
+                .pageNumber(page)
+                .content(content)
+                .build();
+    }
+}